@@ -0,0 +1,39 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.benchmark;
+
+import com.burkeware.search.api.logger.LogLevel;
+import com.google.inject.AbstractModule;
+import com.google.inject.name.Names;
+
+public class BenchmarkModule extends AbstractModule {
+
+    private final String directory;
+
+    public BenchmarkModule(final String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Configures a {@link com.google.inject.Binder} via the exposed methods.
+     */
+    @Override
+    protected void configure() {
+        bind(String.class).annotatedWith(Names.named("configuration.lucene.directory")).toInstance(directory);
+        bind(String.class).annotatedWith(Names.named("configuration.lucene.document.key")).toInstance("uuid");
+
+        // debug logging will print every indexed document and dominate the measurement
+        bind(LogLevel.class).toInstance(LogLevel.ERROR);
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.benchmark;
+
+import com.burkeware.search.api.Context;
+import com.burkeware.search.api.RestAssuredService;
+import com.burkeware.search.api.internal.lucene.Indexer;
+import com.burkeware.search.api.resource.Resource;
+import com.burkeware.search.api.sample.algorithm.CohortAlgorithm;
+import com.burkeware.search.api.sample.algorithm.CohortMemberAlgorithm;
+import com.burkeware.search.api.sample.algorithm.ObservationAlgorithm;
+import com.burkeware.search.api.sample.algorithm.PatientAlgorithm;
+import com.burkeware.search.api.sample.domain.Cohort;
+import com.burkeware.search.api.sample.domain.Observation;
+import com.burkeware.search.api.sample.domain.Patient;
+import com.burkeware.search.api.sample.resolver.CohortMemberResolver;
+import com.burkeware.search.api.sample.resolver.CohortResolver;
+import com.burkeware.search.api.sample.resolver.ObservationResolver;
+import com.burkeware.search.api.sample.resolver.PatientResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the indexer hot paths: loading json payloads, looking up a single object by the unique field,
+ * free text search and updating existing objects. Each benchmark runs against every sample resource using a fresh
+ * local repository which is pre-loaded with the sample payloads.
+ * <p/>
+ * Loading the payloads is measured twice: <code>loadObjects</code> indexes every object into an empty repository, and
+ * <code>reloadObjects</code> loads the same payloads again, where every object is skipped by the digest check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class IndexerBenchmark {
+
+    @Param({"Patient Resource", "Cohort Resource", "Cohort Member Resource", "Observation Resource"})
+    private String resourceName;
+
+    @Param({"1000"})
+    private int objectCount;
+
+    private File directory;
+
+    private RestAssuredService service;
+
+    private Indexer indexer;
+
+    private Resource resource;
+
+    private SamplePayload payload;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        directory = File.createTempFile("benchmark", "");
+        if (!directory.delete() || !directory.mkdirs())
+            throw new IOException("Unable to create the local repository directory: " + directory);
+
+        Context.initialize(new BenchmarkModule(directory.getAbsolutePath()));
+        Context.registerAlgorithm(PatientAlgorithm.class, CohortAlgorithm.class, CohortMemberAlgorithm.class,
+                ObservationAlgorithm.class);
+        Context.registerResolver(PatientResolver.class, CohortResolver.class, CohortMemberResolver.class,
+                ObservationResolver.class);
+        Context.registerObject(Patient.class, Cohort.class, Observation.class);
+
+        URL j2l = RestAssuredService.class.getResource("sample/j2l");
+        Context.registerResources(new File(j2l.getPath()));
+
+        service = Context.getService();
+        indexer = Context.getInstance(Indexer.class);
+        resource = Context.getResource(resourceName);
+        payload = SamplePayload.create(resourceName, objectCount);
+
+        load();
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws Exception {
+        service.close();
+        delete(directory);
+    }
+
+    /**
+     * Empty local repository for the benchmarks measuring the indexing of new objects. The repository is emptied
+     * before every invocation, outside of the measured time, so no object is skipped by the digest check.
+     */
+    @State(Scope.Benchmark)
+    public static class EmptyRepository {
+
+        @Setup(Level.Invocation)
+        public void reset(final IndexerBenchmark benchmark) throws Exception {
+            benchmark.service.close();
+            File[] files = benchmark.directory.listFiles();
+            if (files != null) {
+                for (File file : files)
+                    delete(file);
+            }
+        }
+    }
+
+    /**
+     * Load all sample payloads of the resource into an empty repository, so every object is parsed, written and
+     * committed to the repository.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void loadObjects(final EmptyRepository repository) throws Exception {
+        load();
+    }
+
+    /**
+     * Load all sample payloads of the resource again. The objects already exist in the repository, so this measure
+     * the steady state re-sync of the same payloads where every object is skipped.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void reloadObjects() throws Exception {
+        load();
+    }
+
+    @Benchmark
+    public Object getObject() throws Exception {
+        return service.getObject(nextKeyQuery(), resource);
+    }
+
+    @Benchmark
+    public List<Object> getObjects() throws Exception {
+        return service.getObjects(payload.getSearchString(), resource);
+    }
+
+    @Benchmark
+    public Object updateObject() throws Exception {
+        Object object = service.getObject(nextKeyQuery(), resource);
+        return service.updateObject(object, resource);
+    }
+
+    private String nextKeyQuery() {
+        return payload.getKeyQuery(ThreadLocalRandom.current().nextInt(payload.getObjectCount()));
+    }
+
+    private void load() throws Exception {
+        for (String json : payload.getPayloads())
+            indexer.loadObjects(resource, new StringReader(json));
+        indexer.commit();
+    }
+
+    private static void delete(final File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files)
+                delete(child);
+        }
+        file.delete();
+    }
+}
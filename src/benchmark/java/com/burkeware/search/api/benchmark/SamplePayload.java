@@ -0,0 +1,173 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.benchmark;
+
+import com.burkeware.search.api.RestAssuredService;
+import com.burkeware.search.api.util.StreamUtil;
+import com.burkeware.search.api.util.StringUtil;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Json payloads for the sample resources. The patient payloads are taken from the bundled corpus, while the payloads
+ * for the other sample resources are generated following the structure expected by the sample j2l templates.
+ */
+public class SamplePayload {
+
+    private static final int CORPUS_SIZE = 5003;
+
+    private static final String DATETIME = "2012-09-18T00:00:00.000+0300";
+
+    private final List<String> payloads = new ArrayList<String>();
+
+    private final List<String> keyQueries = new ArrayList<String>();
+
+    private String searchString;
+
+    private SamplePayload() {
+    }
+
+    /**
+     * Create the payloads for the sample resource.
+     *
+     * @param resourceName the name of the sample resource.
+     * @param count        the number of objects in the payloads.
+     * @return the payloads.
+     * @throws IOException when reading the corpus failed.
+     */
+    public static SamplePayload create(final String resourceName, final int count) throws IOException {
+        SamplePayload payload = new SamplePayload();
+        if (StringUtil.equals(resourceName, "Patient Resource"))
+            payload.createPatients(Math.min(count, CORPUS_SIZE));
+        else if (StringUtil.equals(resourceName, "Cohort Resource"))
+            payload.createCohorts(count);
+        else if (StringUtil.equals(resourceName, "Cohort Member Resource"))
+            payload.createCohortMembers(count);
+        else if (StringUtil.equals(resourceName, "Observation Resource"))
+            payload.createObservations(count);
+        else
+            throw new IllegalArgumentException("No sample payload for resource: " + resourceName);
+        return payload;
+    }
+
+    /**
+     * Get the json payloads, each payload is formatted following the root node of the resource.
+     *
+     * @return the json payloads.
+     */
+    public List<String> getPayloads() {
+        return payloads;
+    }
+
+    /**
+     * Get the number of objects which can be looked up using the key queries.
+     *
+     * @return the number of objects.
+     */
+    public int getObjectCount() {
+        return keyQueries.size();
+    }
+
+    /**
+     * Get the query string identifying a single object using the unique field of the resource.
+     *
+     * @param index the index of the object.
+     * @return the query string for the object.
+     */
+    public String getKeyQuery(final int index) {
+        return keyQueries.get(index);
+    }
+
+    /**
+     * Get the free text query string matching multiple objects of the resource.
+     *
+     * @return the free text query string.
+     */
+    public String getSearchString() {
+        return searchString;
+    }
+
+    private void createPatients(final int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            String name = "sample/corpus/TestariusAmboteIndakasi" + i + ".txt";
+            Reader reader = new InputStreamReader(RestAssuredService.class.getResourceAsStream(name));
+            try {
+                payloads.add(StreamUtil.readAsString(reader));
+            } finally {
+                reader.close();
+            }
+            keyQueries.add("name: " + StringUtil.quote("Testarius" + i + " Ambote Indakasi"));
+        }
+        searchString = "name: Ambote";
+    }
+
+    private void createCohorts(final int count) {
+        List<String> elements = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            String uuid = createUuid("cohort", i);
+            elements.add("{\"uuid\":\"" + uuid + "\",\"display\":\"Benchmark Cohort " + i + "\"}");
+            keyQueries.add("uuid: " + StringUtil.quote(uuid));
+        }
+        payloads.add(createResults(elements));
+        searchString = "name: Benchmark";
+    }
+
+    private void createCohortMembers(final int count) {
+        List<String> elements = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            String uuid = createUuid("member", i);
+            elements.add("{\"patient\":{\"uuid\":\"" + uuid + "\","
+                    + "\"identifiers\":[{\"display\":\"OpenMRS ID = " + i + "\"}],"
+                    + "\"person\":{\"display\":\"Benchmark Member " + i + "\",\"age\":" + (i % 90) + ","
+                    + "\"gender\":\"" + (i % 2 == 0 ? "F" : "M") + "\",\"birthdate\":\"" + DATETIME + "\"}}}");
+            keyQueries.add("uuid: " + StringUtil.quote(uuid));
+        }
+        payloads.add(createResults(elements));
+        searchString = "name: Benchmark";
+    }
+
+    private void createObservations(final int count) {
+        String concept = createUuid("concept", 0);
+        List<String> elements = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            String uuid = createUuid("observation", i);
+            elements.add("{\"uuid\":\"" + uuid + "\","
+                    + "\"person\":{\"uuid\":\"" + createUuid("member", i % 50) + "\"},"
+                    + "\"concept\":{\"uuid\":\"" + createUuid("concept", i % 10) + "\",\"display\":\"WEIGHT (KG)\"},"
+                    + "\"value\":" + (50 + i % 40) + ",\"obsDatetime\":\"" + DATETIME + "\"}");
+            keyQueries.add("uuid: " + StringUtil.quote(uuid));
+        }
+        payloads.add(createResults(elements));
+        searchString = "concept: " + StringUtil.quote(concept);
+    }
+
+    private String createResults(final List<String> elements) {
+        StringBuilder builder = new StringBuilder("{\"results\":[");
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0)
+                builder.append(",");
+            builder.append(elements.get(i));
+        }
+        return builder.append("]}").toString();
+    }
+
+    private String createUuid(final String prefix, final int index) {
+        return UUID.nameUUIDFromBytes((prefix + index).getBytes()).toString();
+    }
+}
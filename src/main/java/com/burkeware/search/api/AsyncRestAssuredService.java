@@ -0,0 +1,169 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api;
+
+import com.burkeware.search.api.async.Callback;
+import com.burkeware.search.api.async.Task;
+import com.burkeware.search.api.query.Cursor;
+import com.burkeware.search.api.query.Page;
+import com.burkeware.search.api.resource.Resource;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Asynchronous service layer. Every operation is executed on the executor of the service and returns immediately with
+ * a future of the result, so remote loads, searches and writes can be issued from a thread which must not block. The
+ * optional callback is notified when the operation completes, and the future can be used to wait for or to cancel the
+ * operation. Cancelling an operation which is already running never interrupts it, the operation completes in the
+ * background and only its result is discarded.
+ * <p/>
+ * Operations which are not exposed directly can be executed asynchronously through <code>submit</code>.
+ */
+public interface AsyncRestAssuredService {
+
+    /**
+     * Execute the task asynchronously against the synchronous service layer.
+     *
+     * @param task     the task to be executed.
+     * @param callback the callback to be notified when the task completes or null.
+     * @return the future of the result of the task.
+     * @should execute the task and notify the callback with the result
+     * @should notify the callback with the exception thrown by the task
+     * @should not interrupt the running task when the future is cancelled
+     */
+    <T> Future<T> submit(final Task<T> task, final Callback<T> callback);
+
+    /**
+     * Load objects described using the <code>resource</code> into the local repository asynchronously.
+     *
+     * @param searchString the string to filter object that from the REST resource.
+     * @param resource     the resource object which will describe how to index the json resource to lucene.
+     * @param callback     the callback to be notified when the load completes or null.
+     * @return the future of the load.
+     * @see com.burkeware.search.api.RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    Future<Void> loadObjects(final String searchString, final Resource resource, final Callback<Void> callback);
+
+    /**
+     * Synchronize the objects described using the <code>resource</code> with the REST resource asynchronously.
+     *
+     * @param searchString the string to filter object that from the REST resource.
+     * @param resource     the resource object which will describe how to index the json resource to lucene.
+     * @param callback     the callback to be notified when the synchronization completes or null.
+     * @return the future of the synchronization.
+     * @see com.burkeware.search.api.RestAssuredService#syncObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    Future<Void> syncObjects(final String searchString, final Resource resource, final Callback<Void> callback);
+
+    /**
+     * Search for an object with matching <code>key</code> and <code>clazz</code> type asynchronously.
+     *
+     * @param key      the key to distinguish the object
+     * @param clazz    the expected return type of the object
+     * @param callback the callback to be notified with the object or null.
+     * @return the future of the object with matching key and clazz or null
+     * @see com.burkeware.search.api.RestAssuredService#getObject(String, Class)
+     */
+    <T> Future<T> getObject(final String key, final Class<T> clazz, final Callback<T> callback);
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>clazz</code> type asynchronously.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @param callback     the callback to be notified with the objects or null.
+     * @return the future of the objects matching the search string and clazz
+     * @should return the objects matching the search string and class
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class)
+     */
+    <T> Future<List<T>> getObjects(final String searchString, final Class<T> clazz, final Callback<List<T>> callback);
+
+    /**
+     * Search for a page of objects with matching <code>searchString</code> and <code>clazz</code> type asynchronously.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @param cursor       the cursor returned by the previous page or null for the first page
+     * @param limit        the maximum number of objects in the page
+     * @param callback     the callback to be notified with the page or null.
+     * @return the future of the page of objects
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class, com.burkeware.search.api.query.Cursor,
+     *      int)
+     */
+    <T> Future<Page<T>> getObjects(final String searchString, final Class<T> clazz, final Cursor cursor,
+                                   final int limit, final Callback<Page<T>> callback);
+
+    /**
+     * Count the objects with matching <code>searchString</code> and <code>clazz</code> type asynchronously.
+     *
+     * @param searchString the search string to limit the counted objects
+     * @param clazz        the type of the objects
+     * @param callback     the callback to be notified with the number of objects or null.
+     * @return the future of the number of matching objects
+     * @see com.burkeware.search.api.RestAssuredService#count(String, Class)
+     */
+    Future<Integer> count(final String searchString, final Class<?> clazz, final Callback<Integer> callback);
+
+    /**
+     * Create the objects in the local repository asynchronously.
+     *
+     * @param objects  the objects to be created.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @param callback the callback to be notified with the created objects or null.
+     * @return the future of the created objects.
+     * @see com.burkeware.search.api.RestAssuredService#createObjects(java.util.Collection,
+     *      com.burkeware.search.api.resource.Resource)
+     */
+    Future<List<Object>> createObjects(final Collection<?> objects, final Resource resource,
+                                       final Callback<List<Object>> callback);
+
+    /**
+     * Update the objects in the local repository asynchronously.
+     *
+     * @param objects  the objects to be updated.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @param callback the callback to be notified with the updated objects or null.
+     * @return the future of the updated objects.
+     * @see com.burkeware.search.api.RestAssuredService#updateObjects(java.util.Collection,
+     *      com.burkeware.search.api.resource.Resource)
+     */
+    Future<List<Object>> updateObjects(final Collection<?> objects, final Resource resource,
+                                       final Callback<List<Object>> callback);
+
+    /**
+     * Remove the objects from the local repository asynchronously.
+     *
+     * @param objects  the objects to be removed.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @param callback the callback to be notified with the removed objects or null.
+     * @return the future of the removed objects.
+     * @see com.burkeware.search.api.RestAssuredService#invalidateObjects(java.util.Collection,
+     *      com.burkeware.search.api.resource.Resource)
+     */
+    Future<List<Object>> invalidateObjects(final Collection<?> objects, final Resource resource,
+                                           final Callback<List<Object>> callback);
+
+    /**
+     * Wait for the submitted operations to complete and then release the local repository. The executor created by
+     * this service is shut down, the next operation will create a new executor and re-open the local repository.
+     *
+     * @throws IOException when closing the local repository failed or the wait was interrupted.
+     * @should complete the submitted operations before closing the local repository
+     * @should wait for the operations submitted to the configured executor
+     */
+    void close() throws IOException;
+}
@@ -15,6 +15,7 @@ package com.burkeware.search.api;
 
 import com.burkeware.search.api.module.FactoryModule;
 import com.burkeware.search.api.module.SearchModule;
+import com.burkeware.search.api.query.QueryBuilder;
 import com.burkeware.search.api.resolver.Resolver;
 import com.burkeware.search.api.resource.Resource;
 import com.burkeware.search.api.serialization.Algorithm;
@@ -64,6 +65,25 @@ public class Context {
         return getServiceContext().getRestAssuredService();
     }
 
+    /**
+     * Get the asynchronous service layer. The asynchronous service layer execute the operations of the service layer
+     * on a background executor and return a future for each operation.
+     *
+     * @return the asynchronous service layer.
+     */
+    public static AsyncRestAssuredService getAsyncService() {
+        return getInstance(AsyncRestAssuredService.class);
+    }
+
+    /**
+     * Get the query builder to create the query objects for the service layer.
+     *
+     * @return the query builder.
+     */
+    public static QueryBuilder getQueryBuilder() {
+        return getInstance(QueryBuilder.class);
+    }
+
     /**
      * Register a new resource object for future use.
      *
@@ -14,12 +14,18 @@
 
 package com.burkeware.search.api;
 
+import com.burkeware.search.api.query.Cursor;
+import com.burkeware.search.api.query.Order;
+import com.burkeware.search.api.query.Page;
 import com.burkeware.search.api.resource.Resource;
 import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.search.Query;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface RestAssuredService {
 
@@ -38,18 +44,62 @@ public interface RestAssuredService {
      * @param searchString the string to filter object that from the REST resource.
      * @param resource     the resource object which will describe how to index the json resource to lucene.
      * @should load objects based on the resource description
+     * @should load all pages when the resolver is a paging resolver
+     * @should load all pages when the server returns less objects than the page size
+     * @should skip indexing when the rest resource is not modified
+     * @should keep the validators of every loaded uri
+     * @should download the rest resource when the recorded validators are malformed
      */
     void loadObjects(final String searchString, final Resource resource) throws ParseException, IOException;
 
+    /**
+     * Synchronize the objects described using the <code>resource</code> with the REST resource. The first
+     * synchronization will load all objects, the following synchronization will only load the objects changed since the
+     * last successful synchronization when the resource's resolver is a <code>DeltaResolver</code>. Resources with a
+     * plain resolver will always load all objects.
+     * <p/>
+     * Internally, the time of the last successful synchronization (based on the server clock) is recorded per resource
+     * and search string in the lucene index, next to the objects of the resource.
+     *
+     * @param searchString the string to filter object that from the REST resource.
+     * @param resource     the resource object which will describe how to index the json resource to lucene.
+     * @should load all objects on the first synchronization
+     * @should only load the changed objects on the following synchronization
+     * @should load all objects when the recorded synchronization time is malformed
+     * @should load all pages on the first synchronization when the resolver is a paging resolver
+     * @should keep the synchronization time in the partition of the resource
+     * @see com.burkeware.search.api.resolver.DeltaResolver
+     */
+    void syncObjects(final String searchString, final Resource resource) throws ParseException, IOException;
+
+    /**
+     * Synchronize all objects described using the <code>resource</code> with the REST resource.
+     *
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @see com.burkeware.search.api.RestAssuredService#syncObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    void syncObjects(final Resource resource) throws ParseException, IOException;
+
     /**
      * Load object described using the <code>resource</code> into local lucene repository. This method will load locally
      * saved json payload and then apply the <code>searchString</code> to limit the data which will be loaded into the
      * local lucene repository.
+     * <p/>
+     * When the <code>file</code> is a directory, all files inside the directory will be loaded in parallel and then
+     * committed as a single change to the local repository. Files which are not changed since the last time they were
+     * loaded and objects which are already indexed with the same content will not be written again.
      *
      * @param searchString the search string to filter object returned from the file.
      * @param resource     the resource object which will describe how to index the json resource to lucene.
      * @param file         the file in the filesystem where the json resource is saved.
      * @should load object from filesystem based on the resource description
+     * @should skip files which are not changed since the last load
+     * @should not rewrite objects which are not changed
+     * @should rewrite objects which are not changed when the resource definition changed
+     * @should load objects using the indexing pipeline
+     * @should keep the local repository usable when the indexing pipeline fails
+     * @should keep the local repository usable when a file of the directory fails
+     * @should store malformed numeric values without indexing them
      * @see com.burkeware.search.api.RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource)
      */
     void loadObjects(final String searchString, final Resource resource, final File file)
@@ -90,6 +140,61 @@ public interface RestAssuredService {
      */
     Object getObject(final String key, final Resource resource) throws ParseException, IOException;
 
+    /**
+     * Search for an object matching the <code>query</code> and <code>clazz</code> type from the local repository. This
+     * method will only return single object or null if no object match the query. Use the query builder from
+     * <code>Context.getQueryBuilder()</code> to create the query without going through the lucene query parser.
+     *
+     * @param query the query to distinguish the object
+     * @param clazz the expected return type of the object
+     * @return object matching the query and clazz or null
+     * @should return object matching the query and type
+     * @should throw IOException if the query and class unable to return unique object
+     * @should return the cached object until the object is updated
+     * @should return objects stored using any payload codec
+     */
+    <T> T getObject(final Query query, final Class<T> clazz) throws IOException;
+
+    /**
+     * Search for an object matching the <code>query</code> and <code>resource</code> from the local repository. This
+     * method will only return single object or null if no object match the query.
+     *
+     * @param query    the query to distinguish the object
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return object matching the query and resource or null
+     * @see com.burkeware.search.api.RestAssuredService#getObject(org.apache.lucene.search.Query, Class)
+     */
+    Object getObject(final Query query, final Resource resource) throws IOException;
+
+    /**
+     * Search for the objects with matching <code>keys</code> and <code>clazz</code> type from the local repository in a
+     * single pass. The keys are the values of the unique searchable fields, the same keys returned by
+     * <code>getKeys</code>, and they are resolved directly against the primary keys in the index without going through
+     * the query parser or running a search for each key.
+     * <p/>
+     * The resources registered for the <code>clazz</code> type which doesn't specify unique searchable field can't be
+     * used to resolve the keys.
+     *
+     * @param keys  the keys to distinguish the objects
+     * @param clazz the expected return type of the objects
+     * @return map of the keys and the matching objects. Keys without matching object will not be in the map.
+     * @should return objects with matching keys and type
+     * @should throw IOException if a key and class unable to return unique object
+     */
+    <T> Map<String, T> getObjectsByKeys(final Collection<String> keys, final Class<T> clazz) throws IOException;
+
+    /**
+     * Search for the objects with matching <code>keys</code> and <code>resource</code> from the local repository in a
+     * single pass. The keys are the values of the unique searchable fields of the resource.
+     *
+     * @param keys     the keys to distinguish the objects
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return map of the keys and the matching objects. Keys without matching object will not be in the map.
+     * @should return objects with matching keys
+     * @see com.burkeware.search.api.RestAssuredService#getObjectsByKeys(java.util.Collection, Class)
+     */
+    Map<String, Object> getObjectsByKeys(final Collection<String> keys, final Resource resource) throws IOException;
+
     /**
      * Search for objects with matching <code>searchString</code> and <code>clazz</code> type from the local repository.
      * This method will return list of all matching object or empty list if no object match the search string.
@@ -99,6 +204,9 @@ public interface RestAssuredService {
      * @return list of all object with matching <code>searchString</code> and <code>clazz</code> or empty list
      * @should return all object matching the search search string and class
      * @should return empty list when no object match the search string and class
+     * @should return objects within the numeric and date range
+     * @should search all resources of the class when the index is partitioned per resource
+     * @should keep the partitions of resources apart when the names only differ by special characters
      */
     <T> List<T> getObjects(final String searchString, final Class<T> clazz) throws ParseException, IOException;
 
@@ -115,6 +223,359 @@ public interface RestAssuredService {
      */
     List<Object> getObjects(final String searchString, final Resource resource) throws ParseException, IOException;
 
+    /**
+     * Search for objects matching the <code>query</code> and <code>clazz</code> type from the local repository. This
+     * method will return list of all matching object or empty list if no object match the query.
+     *
+     * @param query the query to limit the number of returned object
+     * @param clazz the expected return type of the object
+     * @return list of all object matching the <code>query</code> and <code>clazz</code> or empty list
+     * @should return all object matching the query and class
+     * @should allow concurrent searches while objects are written
+     */
+    <T> List<T> getObjects(final Query query, final Class<T> clazz) throws IOException;
+
+    /**
+     * Search for objects matching the <code>query</code> and <code>resource</code> from the local repository. This
+     * method will return list of all matching object or empty list if no object match the query.
+     *
+     * @param query    the query to limit the number of returned object
+     * @param resource the resource descriptor used to register the object
+     * @return list of all object matching the <code>query</code> and <code>resource</code> or empty list
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(org.apache.lucene.search.Query, Class)
+     */
+    List<Object> getObjects(final Query query, final Resource resource) throws IOException;
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>clazz</code> type from the local repository.
+     * This method will skip the first <code>offset</code> matching objects and return at most <code>limit</code>
+     * objects.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of returned objects
+     * @return list of object within the offset and limit window or empty list
+     * @should return objects within the offset and limit window
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class)
+     */
+    <T> List<T> getObjects(final String searchString, final Class<T> clazz, final int offset, final int limit)
+            throws ParseException, IOException;
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>resource</code> type from the local
+     * repository. This method will skip the first <code>offset</code> matching objects and return at most
+     * <code>limit</code> objects.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param resource     the resource descriptor used to register the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of returned objects
+     * @return list of object within the offset and limit window or empty list
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    List<Object> getObjects(final String searchString, final Resource resource, final int offset, final int limit)
+            throws ParseException, IOException;
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>clazz</code> type from the local repository
+     * sorted using the <code>orders</code>. Only searchable fields declared as sortable in the resource configuration
+     * can be used in the orders. The search result is sorted before the <code>offset</code> and <code>limit</code>
+     * window is applied, using the sort values indexed for each object without loading the objects.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of objects returned
+     * @param orders       the sort orders, the following orders are used to break the ties of the previous orders
+     * @return list of the sorted objects within the window
+     * @should return objects sorted using the sort orders
+     * @should throw ParseException when the sort order use non sortable field
+     */
+    <T> List<T> getObjects(final String searchString, final Class<T> clazz, final int offset, final int limit,
+                           final Order... orders) throws ParseException, IOException;
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>resource</code> from the local repository
+     * sorted using the <code>orders</code>.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param resource     the resource descriptor used to register the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of objects returned
+     * @param orders       the sort orders, the following orders are used to break the ties of the previous orders
+     * @return list of the sorted objects within the window
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class, int, int, Order...)
+     */
+    List<Object> getObjects(final String searchString, final Resource resource, final int offset, final int limit,
+                            final Order... orders) throws ParseException, IOException;
+
+    /**
+     * Search for objects matching the <code>query</code> and <code>clazz</code> type from the local repository sorted
+     * using the <code>orders</code>.
+     *
+     * @param query  the query to limit the number of returned object
+     * @param clazz  the expected return type of the object
+     * @param offset the number of matching objects to be skipped
+     * @param limit  the maximum number of objects returned
+     * @param orders the sort orders, the following orders are used to break the ties of the previous orders
+     * @return list of the sorted objects within the window
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class, int, int, Order...)
+     */
+    <T> List<T> getObjects(final Query query, final Class<T> clazz, final int offset, final int limit,
+                           final Order... orders) throws IOException;
+
+    /**
+     * Search for objects matching the <code>query</code> and <code>resource</code> from the local repository sorted
+     * using the <code>orders</code>.
+     *
+     * @param query    the query to limit the number of returned object
+     * @param resource the resource descriptor used to register the object
+     * @param offset   the number of matching objects to be skipped
+     * @param limit    the maximum number of objects returned
+     * @param orders   the sort orders, the following orders are used to break the ties of the previous orders
+     * @return list of the sorted objects within the window
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class, int, int, Order...)
+     */
+    List<Object> getObjects(final Query query, final Resource resource, final int offset, final int limit,
+                            final Order... orders) throws IOException;
+
+    /**
+     * Search for a page of objects with matching <code>searchString</code> and <code>clazz</code> type from the local
+     * repository. Pass null as the <code>cursor</code> to get the first page, and the cursor of the returned page to
+     * get the following page. Only the hits after the cursor will be collected for each page.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @param cursor       the cursor of the previous page or null for the first page
+     * @param limit        the maximum number of objects in the page
+     * @return the page of objects
+     * @should return all objects page by page using the cursor
+     * @should return the remaining objects when the local repository changed between pages
+     * @should return empty page when the limit is not positive
+     */
+    <T> Page<T> getObjects(final String searchString, final Class<T> clazz, final Cursor cursor, final int limit)
+            throws ParseException, IOException;
+
+    /**
+     * Search for a page of objects with matching <code>searchString</code> and <code>resource</code> type from the
+     * local repository. Pass null as the <code>cursor</code> to get the first page, and the cursor of the returned page
+     * to get the following page.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param resource     the resource descriptor used to register the object
+     * @param cursor       the cursor of the previous page or null for the first page
+     * @param limit        the maximum number of objects in the page
+     * @return the page of objects
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class, Cursor, int)
+     */
+    Page<Object> getObjects(final String searchString, final Resource resource, final Cursor cursor, final int limit)
+            throws ParseException, IOException;
+
+    /**
+     * Iterate over all objects with matching <code>searchString</code> and <code>clazz</code> type from the local
+     * repository. The search result is collected lazily one page at a time and each object is only deserialized when
+     * the iterator reach the object, so the caller can walk large search result without loading all objects at once.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @return lazy iterable of all matching objects
+     * @should iterate over all objects matching the search string and class
+     */
+    <T> Iterable<T> iterateObjects(final String searchString, final Class<T> clazz)
+            throws ParseException, IOException;
+
+    /**
+     * Iterate over all objects with matching <code>searchString</code> and <code>resource</code> type from the local
+     * repository. The search result is collected lazily one page at a time.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param resource     the resource descriptor used to register the object
+     * @return lazy iterable of all matching objects
+     * @see com.burkeware.search.api.RestAssuredService#iterateObjects(String, Class)
+     */
+    Iterable<Object> iterateObjects(final String searchString, final Resource resource)
+            throws ParseException, IOException;
+
+    /**
+     * Count the objects with matching <code>searchString</code> and <code>clazz</code> type in the local repository.
+     * The matching objects are only counted, they're not read from the local repository.
+     *
+     * @param searchString the search string to limit the counted objects
+     * @param clazz        the expected type of the object
+     * @return the number of matching objects
+     * @should return the number of objects matching the search string and class
+     */
+    int count(final String searchString, final Class<?> clazz) throws ParseException, IOException;
+
+    /**
+     * Count the objects with matching <code>searchString</code> and <code>resource</code> in the local repository.
+     *
+     * @param searchString the search string to limit the counted objects
+     * @param resource     the resource descriptor used to register the object
+     * @return the number of matching objects
+     * @see com.burkeware.search.api.RestAssuredService#count(String, Class)
+     */
+    int count(final String searchString, final Resource resource) throws ParseException, IOException;
+
+    /**
+     * Count the objects matching the <code>query</code> and <code>clazz</code> type in the local repository.
+     *
+     * @param query the query to limit the counted objects
+     * @param clazz the expected type of the object
+     * @return the number of matching objects
+     * @see com.burkeware.search.api.RestAssuredService#count(String, Class)
+     */
+    int count(final Query query, final Class<?> clazz) throws IOException;
+
+    /**
+     * Count the objects matching the <code>query</code> and <code>resource</code> in the local repository.
+     *
+     * @param query    the query to limit the counted objects
+     * @param resource the resource descriptor used to register the object
+     * @return the number of matching objects
+     * @see com.burkeware.search.api.RestAssuredService#count(String, Class)
+     */
+    int count(final Query query, final Resource resource) throws IOException;
+
+    /**
+     * Check whether any object with matching <code>searchString</code> and <code>clazz</code> type exists in the local
+     * repository. The matching objects are not read from the local repository.
+     *
+     * @param searchString the search string to limit the checked objects
+     * @param clazz        the expected type of the object
+     * @return true when at least one object match the search string and class
+     * @should return true only when any object match the search string and class
+     */
+    boolean exists(final String searchString, final Class<?> clazz) throws ParseException, IOException;
+
+    /**
+     * Check whether any object with matching <code>searchString</code> and <code>resource</code> exists in the local
+     * repository.
+     *
+     * @param searchString the search string to limit the checked objects
+     * @param resource     the resource descriptor used to register the object
+     * @return true when at least one object match the search string and resource
+     * @see com.burkeware.search.api.RestAssuredService#exists(String, Class)
+     */
+    boolean exists(final String searchString, final Resource resource) throws ParseException, IOException;
+
+    /**
+     * Check whether any object matching the <code>query</code> and <code>clazz</code> type exists in the local
+     * repository.
+     *
+     * @param query the query to limit the checked objects
+     * @param clazz the expected type of the object
+     * @return true when at least one object match the query and class
+     * @see com.burkeware.search.api.RestAssuredService#exists(String, Class)
+     */
+    boolean exists(final Query query, final Class<?> clazz) throws IOException;
+
+    /**
+     * Check whether any object matching the <code>query</code> and <code>resource</code> exists in the local
+     * repository.
+     *
+     * @param query    the query to limit the checked objects
+     * @param resource the resource descriptor used to register the object
+     * @return true when at least one object match the query and resource
+     * @see com.burkeware.search.api.RestAssuredService#exists(String, Class)
+     */
+    boolean exists(final Query query, final Resource resource) throws IOException;
+
+    /**
+     * Search for the values of the selected searchable fields of the objects with matching <code>searchString</code>
+     * and <code>clazz</code> type from the local repository. Only the selected fields are read from the local
+     * repository, the objects are not deserialized. Use this method when the caller only need few fields of many
+     * objects, for example to display a list of objects.
+     *
+     * @param searchString the search string to limit the number of returned values
+     * @param clazz        the expected type of the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of values returned
+     * @param fieldNames   the names of the searchable fields to be returned
+     * @return the field name and value pairs of each matching object, in the order of the field names
+     * @should return only the values of the selected fields
+     */
+    List<Map<String, String>> getValues(final String searchString, final Class<?> clazz, final int offset,
+                                        final int limit, final String... fieldNames)
+            throws ParseException, IOException;
+
+    /**
+     * Search for the values of the selected searchable fields of the objects with matching <code>searchString</code>
+     * and <code>resource</code> from the local repository.
+     *
+     * @param searchString the search string to limit the number of returned values
+     * @param resource     the resource descriptor used to register the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of values returned
+     * @param fieldNames   the names of the searchable fields to be returned
+     * @return the field name and value pairs of each matching object, in the order of the field names
+     * @see com.burkeware.search.api.RestAssuredService#getValues(String, Class, int, int, String...)
+     */
+    List<Map<String, String>> getValues(final String searchString, final Resource resource, final int offset,
+                                        final int limit, final String... fieldNames)
+            throws ParseException, IOException;
+
+    /**
+     * Search for the values of the selected searchable fields of the objects matching the <code>query</code> and
+     * <code>clazz</code> type from the local repository.
+     *
+     * @param query      the query to limit the number of returned values
+     * @param clazz      the expected type of the object
+     * @param offset     the number of matching objects to be skipped
+     * @param limit      the maximum number of values returned
+     * @param fieldNames the names of the searchable fields to be returned
+     * @return the field name and value pairs of each matching object, in the order of the field names
+     * @see com.burkeware.search.api.RestAssuredService#getValues(String, Class, int, int, String...)
+     */
+    List<Map<String, String>> getValues(final Query query, final Class<?> clazz, final int offset, final int limit,
+                                        final String... fieldNames) throws IOException;
+
+    /**
+     * Search for the values of the selected searchable fields of the objects matching the <code>query</code> and
+     * <code>resource</code> from the local repository.
+     *
+     * @param query      the query to limit the number of returned values
+     * @param resource   the resource descriptor used to register the object
+     * @param offset     the number of matching objects to be skipped
+     * @param limit      the maximum number of values returned
+     * @param fieldNames the names of the searchable fields to be returned
+     * @return the field name and value pairs of each matching object, in the order of the field names
+     * @see com.burkeware.search.api.RestAssuredService#getValues(String, Class, int, int, String...)
+     */
+    List<Map<String, String>> getValues(final Query query, final Resource resource, final int offset,
+                                        final int limit, final String... fieldNames) throws IOException;
+
+    /**
+     * Search for the keys of the objects with matching <code>searchString</code> and <code>resource</code> from the
+     * local repository. The key of an object is the value of the unique searchable fields of the resource (separated
+     * by "|" when the resource have more than one unique field). Objects indexed using resource without unique
+     * searchable field don't have key and will not be returned.
+     *
+     * @param searchString the search string to limit the number of returned keys
+     * @param resource     the resource descriptor used to register the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of keys returned
+     * @return the keys of the matching objects
+     * @should return the keys of the matching objects
+     */
+    List<String> getKeys(final String searchString, final Resource resource, final int offset, final int limit)
+            throws ParseException, IOException;
+
+    /**
+     * Search for the keys of the objects matching the <code>query</code> and <code>resource</code> from the local
+     * repository.
+     *
+     * @param query    the query to limit the number of returned keys
+     * @param resource the resource descriptor used to register the object
+     * @param offset   the number of matching objects to be skipped
+     * @param limit    the maximum number of keys returned
+     * @return the keys of the matching objects
+     * @see com.burkeware.search.api.RestAssuredService#getKeys(String, Resource, int, int)
+     */
+    List<String> getKeys(final Query query, final Resource resource, final int offset, final int limit)
+            throws IOException;
+
     /**
      * Remove an object based on the resource from the local repository. The method will determine if there's unique
      * <code>object</code> in the local repository and then remove it. This method will return null if there's no
@@ -131,6 +592,19 @@ public interface RestAssuredService {
      */
     Object invalidate(final Object object, final Resource resource) throws ParseException, IOException;
 
+    /**
+     * Remove a collection of objects based on the resource from the local repository. All removal will be committed
+     * as a single change to the local repository instead of one commit per object.
+     *
+     * @param objects  the objects to be removed if the objects exists.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return the removed objects.
+     * @should remove all objects from the internal index system
+     * @see com.burkeware.search.api.RestAssuredService#invalidate(Object, com.burkeware.search.api.resource.Resource)
+     */
+    List<Object> invalidateObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException;
+
     /**
      * Create an instance of object in the local repository.
      * <p/>
@@ -141,9 +615,25 @@ public interface RestAssuredService {
      * @param resource the resource object which will describe how to index the json resource to lucene.
      * @return the object that was created
      * @should create a new object in the internal index system
+     * @should commit the pending writes once the commit threshold is reached
+     * @should commit the pending writes once the commit interval expires without further writes
+     * @should throw ParseException when the object have no value for a unique field
      */
     Object createObject(final Object object, final Resource resource) throws ParseException, IOException;
 
+    /**
+     * Create a collection of objects in the local repository. All objects will be committed as a single change to the
+     * local repository instead of one commit per object.
+     *
+     * @param objects  the objects to be created
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return the objects that were created
+     * @should create all objects in the internal index system
+     * @see com.burkeware.search.api.RestAssuredService#createObject(Object, com.burkeware.search.api.resource.Resource)
+     */
+    List<Object> createObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException;
+
     /**
      * Update an instance of object in the local repository.
      * <p/>
@@ -157,4 +647,25 @@ public interface RestAssuredService {
      */
     Object updateObject(final Object object, final Resource resource) throws ParseException, IOException;
 
+    /**
+     * Update a collection of objects in the local repository. All objects will be committed as a single change to the
+     * local repository instead of one commit per object.
+     *
+     * @param objects  the objects to be updated
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return the objects that were updated
+     * @should update all objects in the internal index system
+     * @see com.burkeware.search.api.RestAssuredService#updateObject(Object, com.burkeware.search.api.resource.Resource)
+     */
+    List<Object> updateObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException;
+
+    /**
+     * Release the resources held by the local repository. Pending changes will be committed and the underlying
+     * lucene writer and reader will be closed. Calling any other method after this will re-open the local repository.
+     *
+     * @throws IOException when closing the local repository failed.
+     * @should commit pending changes and release the local repository
+     */
+    void close() throws IOException;
 }
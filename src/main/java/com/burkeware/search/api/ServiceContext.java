@@ -13,10 +13,12 @@
  */
 package com.burkeware.search.api;
 
+import com.burkeware.search.api.exception.ParseException;
 import com.burkeware.search.api.internal.factory.Factory;
 import com.burkeware.search.api.internal.file.ResourceFileFilter;
 import com.burkeware.search.api.registry.Registry;
 import com.burkeware.search.api.resolver.Resolver;
+import com.burkeware.search.api.resource.FieldType;
 import com.burkeware.search.api.resource.ObjectResource;
 import com.burkeware.search.api.resource.Resource;
 import com.burkeware.search.api.resource.ResourceConstants;
@@ -32,6 +34,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -127,6 +130,23 @@ public class ServiceContext {
         if (uniqueField != null)
             uniqueFields = Arrays.asList(StringUtil.split(uniqueField.toString(), ","));
 
+        Object sortableField = properties.getEntryValue(ResourceConstants.RESOURCE_SORTABLE_FIELD);
+        List<String> sortableFields = new ArrayList<String>();
+        if (sortableField != null)
+            sortableFields = Arrays.asList(StringUtil.split(sortableField.toString(), ","));
+
+        // field types are declared as comma separated name and type pairs, for example: age:int,birthdate:date
+        Map<String, FieldType> fieldTypes = new HashMap<String, FieldType>();
+        String fieldType = properties.getEntryValue(ResourceConstants.RESOURCE_FIELD_TYPE);
+        if (fieldType != null) {
+            for (String typeDefinition : StringUtil.split(fieldType, ",")) {
+                String[] pair = StringUtil.split(typeDefinition, ":");
+                if (pair.length != 2)
+                    throw new ParseException("Invalid field type definition: '" + typeDefinition + "'.");
+                fieldTypes.put(pair[0].trim(), FieldType.getType(pair[1]));
+            }
+        }
+
         List<String> ignoredField = ResourceConstants.NON_SEARCHABLE_FIELDS;
         Map<String, String> entries = properties.getEntries();
         for (String fieldName : entries.keySet()) {
@@ -134,7 +154,9 @@ public class ServiceContext {
                 Boolean unique = Boolean.FALSE;
                 if (uniqueFields.contains(fieldName))
                     unique = Boolean.TRUE;
-                resource.addFieldDefinition(fieldName, entries.get(fieldName), unique);
+                FieldType type = fieldTypes.containsKey(fieldName) ? fieldTypes.get(fieldName) : FieldType.TEXT;
+                Boolean sortable = sortableFields.contains(fieldName);
+                resource.addFieldDefinition(fieldName, entries.get(fieldName), unique, type, sortable);
             }
         }
 
@@ -0,0 +1,37 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.async;
+
+/**
+ * Callback notified when an asynchronous operation of the service layer completes. The callback is invoked on the
+ * thread executing the operation, so it must not block and it must hand over any work touching the UI thread.
+ *
+ * @param <T> the type of the result of the operation.
+ */
+public interface Callback<T> {
+
+    /**
+     * Notify the callback that the operation completed successfully.
+     *
+     * @param result the result of the operation.
+     */
+    void onSuccess(final T result);
+
+    /**
+     * Notify the callback that the operation failed or was cancelled.
+     *
+     * @param throwable the exception thrown by the operation or the cancellation exception.
+     */
+    void onFailure(final Throwable throwable);
+}
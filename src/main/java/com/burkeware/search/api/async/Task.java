@@ -0,0 +1,35 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.async;
+
+import com.burkeware.search.api.RestAssuredService;
+
+/**
+ * Unit of work executed asynchronously against the service layer. Tasks allow any combination of the synchronous
+ * service methods to be executed as a single asynchronous operation, for example loading a resource and then searching
+ * the loaded objects.
+ *
+ * @param <T> the type of the result of the task.
+ */
+public interface Task<T> {
+
+    /**
+     * Execute the task using the synchronous service layer.
+     *
+     * @param service the synchronous service layer.
+     * @return the result of the task.
+     * @throws Exception when the task failed.
+     */
+    T execute(final RestAssuredService service) throws Exception;
+}
@@ -0,0 +1,239 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.internal.json;
+
+import com.burkeware.search.api.exception.ParseException;
+import com.burkeware.search.api.util.StringUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Pattern;
+
+/**
+ * Incremental json reader which walks the json payload to the root node location and then return the json text of
+ * each element under the root node one at a time. Only the element currently being read is kept in memory, the rest
+ * of the payload is skipped while it's being read from the underlying reader.
+ * <p/>
+ * The reader only understand definite root node expression in the dot notation, for example: "$" or "$.results". Use
+ * <code>isSupported</code> to check whether a root node expression can be streamed with this reader.
+ */
+public class JsonStreamReader {
+
+    private static final Pattern SUPPORTED_EXPRESSION = Pattern.compile("^\\$(\\.[A-Za-z0-9_\\-]+)*$");
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 4;
+
+    private final Reader reader;
+
+    private final String[] paths;
+
+    private final char[] buffer;
+
+    private int position;
+
+    private int limit;
+
+    private boolean started;
+
+    private boolean array;
+
+    private boolean finished;
+
+    public JsonStreamReader(final Reader reader, final String rootNode) {
+        this.reader = reader;
+        this.paths = StringUtil.split(rootNode.substring(1), '.');
+        this.buffer = new char[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Check whether the root node expression can be streamed using this reader.
+     *
+     * @param rootNode the root node expression.
+     * @return true if the expression is a definite expression using the dot notation.
+     */
+    public static boolean isSupported(final String rootNode) {
+        return rootNode != null && SUPPORTED_EXPRESSION.matcher(rootNode).matches();
+    }
+
+    /**
+     * Read the json text of the next element under the root node. When the root node is pointing to a json array, each
+     * element of the array will be returned one at a time. When the root node is pointing to a json object, the whole
+     * object will be returned as a single element.
+     *
+     * @return the json text of the next element or null when there's no more element to read.
+     * @throws IOException when reading the underlying reader failed.
+     */
+    public String next() throws IOException {
+        if (!started) {
+            started = true;
+            if (!moveToRootNode()) {
+                finished = true;
+                return null;
+            }
+            char token = peekToken();
+            if (token == '[') {
+                read();
+                array = true;
+            } else {
+                finished = true;
+                // only json object can be indexed when the root node is not pointing to an array
+                return token == '{' ? readValue(new StringBuilder()).toString() : null;
+            }
+        } else if (finished) {
+            return null;
+        } else if (array) {
+            char token = readToken();
+            if (token == ']') {
+                finished = true;
+                return null;
+            } else if (token != ',') {
+                throw new ParseException("Unexpected character '" + token + "' between json array elements.");
+            }
+        }
+
+        if (peekToken() == ']') {
+            read();
+            finished = true;
+            return null;
+        }
+        return readValue(new StringBuilder()).toString();
+    }
+
+    /**
+     * Walk the json payload to the root node location. Any object member which is not part of the root node path will
+     * be skipped.
+     *
+     * @return true if the root node is found in the json payload.
+     * @throws IOException when reading the underlying reader failed.
+     */
+    private boolean moveToRootNode() throws IOException {
+        for (String path : paths) {
+            if (readToken() != '{')
+                return false;
+            boolean found = false;
+            while (!found) {
+                char token = readToken();
+                if (token == '}')
+                    return false;
+                if (token == ',')
+                    token = readToken();
+                if (token != '"')
+                    throw new ParseException("Unexpected character '" + token + "' when reading json member name.");
+                String name = readString(new StringBuilder()).toString();
+                if (readToken() != ':')
+                    throw new ParseException("Missing ':' after json member name '" + name + "'.");
+                if (StringUtil.equals(name, path))
+                    found = true;
+                else
+                    readValue(null);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read a complete json value (object, array, string or primitive) from the current position.
+     *
+     * @param builder the builder where the value will be copied to or null to skip the value.
+     * @return the builder passed to this method.
+     * @throws IOException when reading the underlying reader failed.
+     */
+    private StringBuilder readValue(final StringBuilder builder) throws IOException {
+        char token = peekToken();
+        if (token == '{' || token == '[') {
+            int depth = 0;
+            do {
+                char c = read();
+                append(builder, c);
+                if (c == '"') {
+                    readString(builder);
+                    append(builder, '"');
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        } else if (token == '"') {
+            append(builder, read());
+            readString(builder);
+            append(builder, '"');
+        } else {
+            while (true) {
+                int c = peek();
+                if (c == -1 || c == ',' || c == '}' || c == ']' || Character.isWhitespace(c))
+                    break;
+                append(builder, read());
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Read the rest of a json string after the opening quote. The closing quote is consumed but not copied.
+     *
+     * @param builder the builder where the string content will be copied to or null to skip the string.
+     * @return the builder passed to this method.
+     * @throws IOException when reading the underlying reader failed.
+     */
+    private StringBuilder readString(final StringBuilder builder) throws IOException {
+        char c;
+        while ((c = read()) != '"') {
+            append(builder, c);
+            if (c == '\\')
+                append(builder, read());
+        }
+        return builder;
+    }
+
+    private void append(final StringBuilder builder, final char c) {
+        if (builder != null)
+            builder.append(c);
+    }
+
+    private char readToken() throws IOException {
+        char token = peekToken();
+        read();
+        return token;
+    }
+
+    private char peekToken() throws IOException {
+        int c;
+        while ((c = peek()) != -1 && Character.isWhitespace(c))
+            read();
+        if (c == -1)
+            throw new ParseException("Unexpected end of json payload.");
+        return (char) c;
+    }
+
+    private char read() throws IOException {
+        int c = peek();
+        if (c == -1)
+            throw new ParseException("Unexpected end of json payload.");
+        position++;
+        return (char) c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+}
@@ -13,56 +13,117 @@
  */
 package com.burkeware.search.api.internal.lucene;
 
-import com.burkeware.search.api.internal.provider.SearcherProvider;
+import com.burkeware.search.api.internal.json.JsonStreamReader;
 import com.burkeware.search.api.internal.provider.WriterProvider;
 import com.burkeware.search.api.logger.Logger;
+import com.burkeware.search.api.query.Cursor;
+import com.burkeware.search.api.query.Order;
+import com.burkeware.search.api.query.Page;
+import com.burkeware.search.api.query.QueryBuilder;
 import com.burkeware.search.api.registry.Registry;
+import com.burkeware.search.api.resource.FieldType;
 import com.burkeware.search.api.resource.Resource;
 import com.burkeware.search.api.resource.SearchableField;
 import com.burkeware.search.api.serialization.Algorithm;
-import com.burkeware.search.api.util.CollectionUtil;
+import com.burkeware.search.api.util.DigestUtil;
+import com.burkeware.search.api.util.JsonPathUtil;
 import com.burkeware.search.api.util.StreamUtil;
 import com.burkeware.search.api.util.StringUtil;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
-import com.jayway.jsonpath.JsonPath;
 import net.minidev.json.JSONArray;
 import net.minidev.json.JSONObject;
-import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.CompressionTools;
+import org.apache.lucene.document.DateTools;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldSelector;
+import org.apache.lucene.document.MapFieldSelector;
+import org.apache.lucene.document.NumericField;
+import org.apache.lucene.index.IndexCommit;
+import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermDocs;
 import org.apache.lucene.queryParser.ParseException;
-import org.apache.lucene.queryParser.QueryParser;
+import org.apache.lucene.search.FieldCache;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.util.Version;
+import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.util.NumericUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.Reader;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
 
 public class DefaultIndexer implements Indexer {
 
+    public static final String PAYLOAD_CODEC_PLAIN = "plain";
+
+    public static final String PAYLOAD_CODEC_DEFLATE = "deflate";
+
+    public static final String INDEX_LAYOUT_SHARED = "shared";
+
+    public static final String INDEX_LAYOUT_RESOURCE = "resource";
+
     private Logger logger;
 
-    private IndexWriter indexWriter;
+    private final Partition rootPartition = new Partition(null);
 
-    private IndexSearcher indexSearcher;
+    private final Map<String, Partition> partitions = new LinkedHashMap<String, Partition>();
 
-    private WriterProvider writerProvider;
+    private final Object refreshLock = new Object();
+
+    private final Object commitLock = new Object();
+
+    private final Object pipelineLock = new Object();
+
+    private final Map<String, String> userData = new HashMap<String, String>();
 
-    private SearcherProvider searcherProvider;
+    private boolean userDataChanged;
+
+    private WriterProvider writerProvider;
 
     private Registry<String, Resource> resourceRegistry;
 
-    private final QueryParser parser;
+    private final QueryBuilder queryBuilder;
 
     private static final String DEFAULT_FIELD_UUID = "_uuid";
 
@@ -72,12 +133,68 @@ public class DefaultIndexer implements Indexer {
 
     private static final String DEFAULT_FIELD_RESOURCE = "_resource";
 
+    private static final String DEFAULT_FIELD_KEY = "_key";
+
+    private static final String DEFAULT_FIELD_DATE_INDEXED = "_date_indexed";
+
+    private static final String DEFAULT_FIELD_DIGEST = "_digest";
+
+    private static final String USER_DATA_KEY = "_user_data";
+
+    private static final String USER_DATA_KEYED = "_keyed";
+
+    private static final String DIGEST_KEY_PREFIX = "_digest|";
+
+    private static final int MAX_PENDING_DIGESTS = 10000;
+
+    private static final String SORT_FIELD_PREFIX = "_sort_";
+
+    private static final String KEY_SEPARATOR = "|";
+
     private static final Integer DEFAULT_MAX_DOCUMENTS = 20;
 
+    private static final Integer DEFAULT_COMMIT_THRESHOLD = 1;
+
+    private static final Long DEFAULT_COMMIT_INTERVAL = 0L;
+
+    private static final Integer DEFAULT_PIPELINE_THREADS = 1;
+
+    private static final Integer DEFAULT_PIPELINE_QUEUE_SIZE = 64;
+
+    private static final long PIPELINE_POLL_INTERVAL = 100L;
+
+    // compared by identity, so a json element can never be mistaken for the end of the payload
+    private static final String END_OF_ELEMENTS = new String();
+
+    private Integer searchLimit = DEFAULT_MAX_DOCUMENTS;
+
+    private String payloadCodec = PAYLOAD_CODEC_PLAIN;
+
+    private String indexLayout = INDEX_LAYOUT_SHARED;
+
+    private ObjectCache objectCache = new ObjectCache(0);
+
+    private Integer commitThreshold = DEFAULT_COMMIT_THRESHOLD;
+
+    private Long commitInterval = DEFAULT_COMMIT_INTERVAL;
+
+    private Integer pipelineThreads = DEFAULT_PIPELINE_THREADS;
+
+    private Integer pipelineQueueSize = DEFAULT_PIPELINE_QUEUE_SIZE;
+
+    private ExecutorService pipelineExecutor;
+
+    private ScheduledExecutorService commitExecutor;
+
+    private ScheduledFuture<?> scheduledCommit;
+
+    private int pendingWrites;
+
+    private long lastCommit = System.currentTimeMillis();
+
     @Inject
-    protected DefaultIndexer(final @Named("configuration.lucene.document.key") String defaultField,
-                             final Version version, final Analyzer analyzer) {
-        this.parser = new QueryParser(version, defaultField, analyzer);
+    protected DefaultIndexer(final QueryBuilder queryBuilder) {
+        this.queryBuilder = queryBuilder;
     }
 
     /**
@@ -93,28 +210,192 @@ public class DefaultIndexer implements Indexer {
         this.logger = logger;
     }
 
+    /**
+     * Get the index writer of the root partition. The root partition holds the user data of the local repository and,
+     * when the index is not partitioned per resource, the documents of all resources.
+     *
+     * @return the long-lived index writer of the root partition.
+     * @throws IOException when the writer can't be opened.
+     */
     private IndexWriter getIndexWriter() throws IOException {
-        if (indexWriter == null)
-            indexWriter = getWriterProvider().get();
-        return indexWriter;
+        return rootPartition.getIndexWriter();
+    }
+
+    /**
+     * Get the index writer for the documents of the resource.
+     *
+     * @param resource the resource used to index the documents.
+     * @return the long-lived index writer of the partition holding the documents of the resource.
+     * @throws IOException when the writer can't be opened.
+     */
+    private IndexWriter getIndexWriter(final Resource resource) throws IOException {
+        return getPartition(resource).getIndexWriter();
+    }
+
+    /**
+     * Read the user data of the last commit in the index. The user data will be carried over to every commit
+     * performed by this indexer.
+     *
+     * @param writer the index writer.
+     * @throws IOException when reading the last commit failed.
+     */
+    private void readUserData(final IndexWriter writer) throws IOException {
+        synchronized (commitLock) {
+            userData.clear();
+            userDataChanged = false;
+            try {
+                // the commits are sorted from the oldest, the user data is carried over so the last commit has it all
+                List<IndexCommit> commits = new ArrayList<IndexCommit>(IndexReader.listCommits(writer.getDirectory()));
+                if (!commits.isEmpty())
+                    userData.putAll(commits.get(commits.size() - 1).getUserData());
+            } catch (IndexNotFoundException e) {
+                // nothing was committed to the index yet
+            }
+        }
+    }
+
+    /**
+     * Check whether every document in the index carries the primary key term. Documents written before the primary
+     * key was introduced don't have the key term, so deleting or replacing them using the key term would leave the old
+     * documents behind. Such index keeps deleting using the unique searchable fields query until it's rebuilt, which
+     * is a one-time reindex performed by removing the index directory and loading the objects again. An empty index is
+     * marked as keyed in the user data of the next commit.
+     *
+     * @param writer the index writer.
+     * @return true when every document in the index carries the primary key term.
+     * @throws IOException when reading the index failed.
+     */
+    private boolean readKeyed(final IndexWriter writer) throws IOException {
+        synchronized (commitLock) {
+            if (userData.containsKey(USER_DATA_KEYED))
+                return true;
+            if (writer.numDocs() > 0) {
+                getLogger().warn(this.getClass().getSimpleName(), "The index was written without the primary key, "
+                        + "objects will be replaced by searching the unique fields until the index is rebuilt.");
+                return false;
+            }
+            userData.put(USER_DATA_KEYED, Boolean.TRUE.toString());
+            userDataChanged = true;
+            return true;
+        }
+    }
+
+    /**
+     * Get the partition holding the documents of the resource. Using the shared layout, all resources are kept in the
+     * root partition. Using the resource layout, each resource get its own partition which is created on the first
+     * call.
+     * <p/>
+     * The directory name of the partition is the resource name where every character which is not safe in a file name
+     * is replaced, followed by the hash of the resource name. Resource names which only differ by the replaced
+     * characters, like "Patient/Visit" and "Patient Visit", still get their own directory.
+     *
+     * @param resource the resource used to index the documents.
+     * @return the partition of the resource.
+     */
+    private Partition getPartition(final Resource resource) {
+        if (!StringUtil.equalsIgnoreCase(INDEX_LAYOUT_RESOURCE, indexLayout))
+            return rootPartition;
+
+        synchronized (partitions) {
+            Partition partition = partitions.get(resource.getName());
+            if (partition == null) {
+                String name = resource.getName();
+                partition = new Partition(name.replaceAll("[^A-Za-z0-9_\\-]", "_") + "_"
+                        + String.format("%08x", name.hashCode()));
+                partitions.put(resource.getName(), partition);
+            }
+            return partition;
+        }
+    }
+
+    /**
+     * Get the partitions holding the documents of the resources. The root partition is returned when there's no
+     * resource, so a search for a type without registered resource will simply return nothing.
+     *
+     * @param resources the resources used to index the documents.
+     * @return the distinct partitions of the resources.
+     */
+    private List<Partition> getPartitions(final List<Resource> resources) {
+        List<Partition> resourcePartitions = new ArrayList<Partition>();
+        for (Resource resource : resources) {
+            Partition partition = getPartition(resource);
+            if (!resourcePartitions.contains(partition))
+                resourcePartitions.add(partition);
+        }
+        if (resourcePartitions.isEmpty())
+            resourcePartitions.add(rootPartition);
+        return resourcePartitions;
+    }
+
+    /**
+     * Get all partitions opened by this indexer. The resource partitions come before the root partition, so the user
+     * data in the root partition is only committed after the documents it describes.
+     *
+     * @return all partitions of this indexer.
+     */
+    private List<Partition> getPartitions() {
+        List<Partition> allPartitions;
+        synchronized (partitions) {
+            allPartitions = new ArrayList<Partition>(partitions.values());
+        }
+        allPartitions.add(rootPartition);
+        return allPartitions;
     }
 
-    private void setIndexWriter(final IndexWriter indexWriter) {
-        this.indexWriter = indexWriter;
+    /**
+     * Acquire an index searcher over the documents of the resources reflecting the latest changes in the index
+     * writers. Each acquired searcher must be released using <code>releaseSearcher</code>, the underlying readers will
+     * stay open until all threads using them release them.
+     *
+     * @param resources the resources used to index the documents.
+     * @return the searcher reflecting the latest changes in the index writers.
+     * @throws IOException when the reader can't be opened or reopened.
+     */
+    private IndexSearcher acquireSearcher(final List<Resource> resources) throws IOException {
+        return acquireSearcher(resources, true);
     }
 
-    private IndexSearcher getIndexSearcher() throws IOException {
+    /**
+     * Acquire an index searcher over the documents of the resources, optionally skipping the reopen of the
+     * near-real-time readers. When the resources are kept in more than one partition, the searcher is backed by a
+     * multi reader over the near-real-time reader of each partition.
+     *
+     * @param resources the resources used to index the documents.
+     * @param refresh   flag whether the readers should be reopened when the writers have changes.
+     * @return the searcher backed by the near-real-time readers.
+     * @throws IOException when the reader can't be opened or reopened.
+     */
+    private IndexSearcher acquireSearcher(final List<Resource> resources, final boolean refresh)
+            throws IOException {
+        List<Partition> searchedPartitions = getPartitions(resources);
+        if (searchedPartitions.size() == 1)
+            return searchedPartitions.get(0).acquire(refresh);
+
+        List<IndexSearcher> searchers = new ArrayList<IndexSearcher>();
         try {
-            if (indexSearcher == null)
-                indexSearcher = getSearcherProvider().get();
-        } catch (IOException e) {
-            // silently ignoring this exception.
+            for (Partition partition : searchedPartitions)
+                searchers.add(partition.acquire(refresh));
+            IndexReader[] readers = new IndexReader[searchers.size()];
+            for (int i = 0; i < readers.length; i++)
+                readers[i] = searchers.get(i).getIndexReader();
+            // the multi reader holds its own reference to each partition reader until the multi reader is released
+            return new IndexSearcher(new MultiReader(readers, false));
+        } finally {
+            for (IndexSearcher searcher : searchers)
+                releaseSearcher(searcher);
         }
-        return indexSearcher;
     }
 
-    private void setIndexSearcher(final IndexSearcher indexSearcher) {
-        this.indexSearcher = indexSearcher;
+    /**
+     * Release the searcher acquired using <code>acquireSearcher</code>. The reference is released directly on the
+     * reader, so searchers acquired before the indexer is closed can still be released after the close.
+     *
+     * @param searcher the searcher to be released.
+     * @throws IOException when closing the underlying reader failed.
+     */
+    private void releaseSearcher(final IndexSearcher searcher) throws IOException {
+        if (searcher != null)
+            searcher.getIndexReader().decRef();
     }
 
     private WriterProvider getWriterProvider() {
@@ -126,13 +407,112 @@ public class DefaultIndexer implements Indexer {
         this.writerProvider = writerProvider;
     }
 
-    private SearcherProvider getSearcherProvider() {
-        return searcherProvider;
+    /**
+     * Set the maximum number of objects returned by a search when the caller doesn't specify the limit. This value is
+     * also used as the page size when iterating over the search result. The default value is 20.
+     *
+     * @param searchLimit the default maximum number of objects returned by a search.
+     */
+    @Inject(optional = true)
+    private void setSearchLimit(final @Named("configuration.lucene.search.limit") Integer searchLimit) {
+        this.searchLimit = searchLimit;
     }
 
-    @Inject
-    private void setSearcherProvider(final SearcherProvider searcherProvider) {
-        this.searcherProvider = searcherProvider;
+    /**
+     * Set the maximum number of deserialized objects kept in the object cache. Repeated lookups of the same document
+     * will return the cached object without loading the stored fields and deserializing the json again, so the
+     * returned objects are shared between callers and must be treated as read only. The default value is 0, which
+     * means the cache is disabled.
+     *
+     * @param cacheSize the maximum number of cached objects.
+     */
+    @Inject(optional = true)
+    private void setCacheSize(final @Named("configuration.lucene.cache.size") Integer cacheSize) {
+        this.objectCache = new ObjectCache(cacheSize);
+    }
+
+    /**
+     * Set the codec used to store the json payload of each document. The supported codecs are:
+     * <pre>
+     * plain   : the json text is stored as is, this is the default
+     * deflate : the json text is stored as deflate compressed binary value
+     * </pre>
+     * The codec only affects the documents written after it's changed, documents stored using any codec can always be
+     * read back.
+     *
+     * @param payloadCodec the codec used to store the json payload.
+     */
+    @Inject(optional = true)
+    private void setPayloadCodec(final @Named("configuration.lucene.payload.codec") String payloadCodec) {
+        this.payloadCodec = payloadCodec;
+    }
+
+    /**
+     * Set the layout of the local repository. The supported layouts are:
+     * <pre>
+     * shared   : all resources are kept in a single index, this is the default
+     * resource : each resource is kept in its own index, under a sub directory named after the resource
+     * </pre>
+     * Using the resource layout, writes to one resource don't contend with the writes and searches of the other
+     * resources, and a search by class will search the indexes of all resources for the class as a single index. The
+     * layout must not be changed once objects are indexed, the objects indexed using the other layout will not be
+     * found.
+     *
+     * @param indexLayout the layout of the local repository.
+     */
+    @Inject(optional = true)
+    private void setIndexLayout(final @Named("configuration.lucene.index.layout") String indexLayout) {
+        this.indexLayout = indexLayout;
+    }
+
+    /**
+     * Set the number of object writes which will be coalesced into a single commit. The default value is 1, which
+     * means every create, update or delete operation will be committed immediately.
+     *
+     * @param commitThreshold the number of pending writes which will trigger a commit.
+     */
+    @Inject(optional = true)
+    private void setCommitThreshold(final @Named("configuration.lucene.commit.threshold") Integer commitThreshold) {
+        this.commitThreshold = commitThreshold;
+    }
+
+    /**
+     * Set the maximum time (in milliseconds) pending writes can wait before they get committed. The pending writes are
+     * committed in the background once the interval expires, even when no other write arrive, and they are always
+     * committed when the indexer is closed. The default value is 0, which means the commit only controlled by the
+     * commit threshold.
+     *
+     * @param commitInterval the maximum age of the pending writes in milliseconds.
+     */
+    @Inject(optional = true)
+    private void setCommitInterval(final @Named("configuration.lucene.commit.interval") Long commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * Set the number of threads indexing the elements of a streamed json payload. The payload is read on the calling
+     * thread while the indexing threads parse the elements, create the documents and write them to the index, so the
+     * download of the payload overlaps with the indexing. The default value is 1, which keeps the elements indexed in
+     * the order they appear in the payload. Setting this to 0 will read and index the payload on the calling thread.
+     *
+     * @param pipelineThreads the number of indexing threads per loaded payload.
+     */
+    @Inject(optional = true)
+    private void setPipelineThreads(final @Named("configuration.lucene.pipeline.threads") Integer pipelineThreads) {
+        this.pipelineThreads = pipelineThreads;
+    }
+
+    /**
+     * Set the maximum number of elements read from the payload which are waiting to be indexed. Reading the payload
+     * will block when the indexing threads fall behind, so the memory used by a load stays bounded regardless of the
+     * payload size. The default value is 64.
+     *
+     * @param pipelineQueueSize the maximum number of elements waiting to be indexed.
+     */
+    @Inject(optional = true)
+    private void setPipelineQueueSize(
+            final @Named("configuration.lucene.pipeline.queue.size") Integer pipelineQueueSize) {
+        this.pipelineQueueSize = pipelineQueueSize;
     }
 
     private Registry<String, Resource> getResourceRegistry() {
@@ -150,69 +530,256 @@ public class DefaultIndexer implements Indexer {
 
     /**
      * Commit the changes in the index. This method will ensure that deletion, update and addition to the lucene index
-     * are written to the filesystem (persisted).
+     * are written to the filesystem (persisted). The index writer stays open after the commit.
      *
      * @throws IOException when the operation encounter errors.
      */
     @Override
     public void commit() throws IOException {
-        if (getIndexWriter() != null) {
-            getIndexWriter().commit();
-            getIndexWriter().close();
+        synchronized (commitLock) {
+            for (Partition partition : getPartitions())
+                partition.commit();
+            pendingWrites = 0;
+            lastCommit = System.currentTimeMillis();
+            cancelScheduledCommit();
         }
-        // remove the instance
-        setIndexWriter(null);
-        setIndexSearcher(null);
     }
 
     /**
-     * Create a single term lucene query. The value for the query will be surrounded with single quote.
+     * Commit the changes in the index writer together with the user data. Lucene will skip a commit which doesn't
+     * contain any document changes, so a change in the user data alone is recorded by replacing an internal marker
+     * document. The marker document doesn't have class or resource field and will never be returned by any search.
      *
-     * @param field the field on which the query should be performed.
-     * @param value the value for the field
-     * @return the valid lucene query for single term.
+     * @param writer the index writer.
+     * @throws IOException when the operation encounter errors.
      */
-    private String createQuery(final String field, final String value) {
-        return "(" + field + ":" + StringUtil.quote(value) + ")";
+    private void commitUserData(final IndexWriter writer) throws IOException {
+        if (userDataChanged) {
+            Document document = new Document();
+            document.add(new Field(DEFAULT_FIELD_KEY, USER_DATA_KEY, Field.Store.NO,
+                    Field.Index.NOT_ANALYZED_NO_NORMS));
+            writer.updateDocument(new Term(DEFAULT_FIELD_KEY, USER_DATA_KEY), document);
+            userDataChanged = false;
+        }
+        writer.commit(new HashMap<String, String>(userData));
     }
 
     /**
-     * Create lucene query string based on the searchable field name and value. The values for the searchable field
-     * will be retrieved from the <code>jsonObject</code>. This method will try to create a unique query in the case
-     * where a searchable field is marked as unique. Otherwise the method will create a query string using all
-     * available searchable fields.
+     * Get the user data value recorded in the index commit. The value returned could be a value which is not yet
+     * committed to the index.
      *
-     * @param jsonObject       the json object from which the value for each field can be retrieved from.
-     * @param searchableFields the searchable fields definition
-     * @return query string which could be either a unique or full searchable field based query.
+     * @param key the key of the user data.
+     * @return the user data value or null when there's no value for the key.
+     * @throws IOException when reading the last commit failed.
      */
-    private String createSearchableFieldQuery(final Object jsonObject, final List<SearchableField> searchableFields) {
-        boolean uniqueExists = false;
-        StringBuilder fullQuery = new StringBuilder();
-        StringBuilder uniqueQuery = new StringBuilder();
-        for (SearchableField searchableField : searchableFields) {
-            String value = JsonPath.read(jsonObject, searchableField.getExpression()).toString();
-            String query = createQuery(searchableField.getName(), value);
+    @Override
+    public String getUserData(final String key) throws IOException {
+        getIndexWriter();
+        synchronized (commitLock) {
+            return userData.get(key);
+        }
+    }
 
-            if (searchableField.isUnique()) {
-                uniqueExists = true;
-                if (!StringUtil.isBlank(uniqueQuery.toString()))
-                    uniqueQuery.append(" AND ");
-                uniqueQuery.append(query);
+    /**
+     * Put a user data value to be recorded in the index commit. The value will be persisted in the next commit.
+     *
+     * @param key   the key of the user data.
+     * @param value the value of the user data.
+     * @throws IOException when reading the last commit failed.
+     */
+    @Override
+    public void putUserData(final String key, final String value) throws IOException {
+        getIndexWriter();
+        synchronized (commitLock) {
+            if (!StringUtil.equals(value, userData.get(key))) {
+                userData.put(key, value);
+                userDataChanged = true;
             }
+        }
+    }
 
-            // only create the full query if we haven't found any unique key in the searchable fields.
-            if (!uniqueExists) {
-                if (!StringUtil.isBlank(fullQuery.toString()))
-                    fullQuery.append(" AND ");
-                fullQuery.append(query);
+    /**
+     * Get the digest recorded for the resource using the key. The digests are kept as one internal document per key in
+     * the partition of the resource, so unlike the user data they don't have to be rewritten on every commit, and they
+     * are committed together with the documents of the resource they describe. The internal documents don't have class
+     * or resource field and will never be returned by any search.
+     * <p/>
+     * Besides the digests, the internal documents hold the other small values recorded while loading the resource,
+     * like the validators of the loaded URIs and the synchronization time.
+     *
+     * @param resource the resource described by the digest.
+     * @param key      the key of the digest.
+     * @return the digest or null when there's no digest for the key.
+     * @throws IOException when reading the index failed.
+     */
+    @Override
+    public String getDigest(final Resource resource, final String key) throws IOException {
+        getIndexWriter();
+        return findDigest(getPartition(resource), createDigestKey(resource, key));
+    }
+
+    /**
+     * Record the digest for the resource using the key, replacing the digest previously recorded for the resource
+     * using the same key. The digest will be persisted in the next commit.
+     *
+     * @param resource the resource described by the digest.
+     * @param key      the key of the digest.
+     * @param digest   the digest.
+     * @throws IOException when writing the index failed.
+     */
+    @Override
+    public void putDigest(final Resource resource, final String key, final String digest) throws IOException {
+        String documentKey = createDigestKey(resource, key);
+        Document document = new Document();
+        document.add(new Field(DEFAULT_FIELD_KEY, documentKey, Field.Store.NO, Field.Index.NOT_ANALYZED_NO_NORMS));
+        document.add(new Field(DEFAULT_FIELD_DIGEST, digest, Field.Store.YES, Field.Index.NO));
+        Partition partition = getPartition(resource);
+        partition.getIndexWriter().updateDocument(new Term(DEFAULT_FIELD_KEY, documentKey), document);
+        putPendingDigest(partition, documentKey, digest);
+    }
+
+    /**
+     * Create the primary key of the internal document holding the digest. The resource name is part of the key, so
+     * the digests of the resources sharing the root partition don't replace each other.
+     *
+     * @param resource the resource described by the digest.
+     * @param key      the key of the digest.
+     * @return the primary key of the internal document.
+     */
+    private String createDigestKey(final Resource resource, final String key) {
+        return DIGEST_KEY_PREFIX + resource.getName() + KEY_SEPARATOR + key;
+    }
+
+    /**
+     * Group commit the pending writes. The changes will be committed when the number of pending writes reach the
+     * commit threshold or when the oldest pending writes is older than the commit interval. Uncommitted changes are
+     * still visible to the searches through the near-real-time reader.
+     *
+     * @param writes the number of writes performed since the last call to this method.
+     * @throws IOException when the operation encounter errors.
+     */
+    private void groupCommit(final int writes) throws IOException {
+        synchronized (commitLock) {
+            pendingWrites = pendingWrites + writes;
+            boolean expired = commitInterval > 0 && System.currentTimeMillis() - lastCommit >= commitInterval;
+            if (pendingWrites >= commitThreshold || expired)
+                commit();
+            else if (commitInterval > 0 && pendingWrites > 0 && scheduledCommit == null)
+                scheduleCommit();
+        }
+    }
+
+    /**
+     * Schedule the commit of the pending writes for the moment the commit interval expires, so the pending writes get
+     * committed even when no other write arrive. The commit is scheduled on a single daemon thread, which is created
+     * on the first call and shut down when the indexer is closed. The caller must hold the commit lock.
+     */
+    private void scheduleCommit() {
+        if (commitExecutor == null) {
+            commitExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    Thread thread = new Thread(runnable, "restassured-commit");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        long delay = Math.max(lastCommit + commitInterval - System.currentTimeMillis(), 0);
+        scheduledCommit = commitExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                commitExpired();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Commit the pending writes once the commit interval expired. The pending writes could already be committed by
+     * another write, or the indexer could be closed, while the scheduled commit was waiting for the commit lock.
+     */
+    private void commitExpired() {
+        synchronized (commitLock) {
+            if (commitExecutor == null || pendingWrites == 0)
+                return;
+            try {
+                commit();
+            } catch (IOException e) {
+                scheduledCommit = null;
+                getLogger().warn(this.getClass().getSimpleName(), "Unable to commit the pending writes.", e);
+            }
+        }
+    }
+
+    /**
+     * Cancel the scheduled commit. The scheduled commit is never interrupted, a commit which is already running will
+     * simply find no pending writes. The caller must hold the commit lock.
+     */
+    private void cancelScheduledCommit() {
+        if (scheduledCommit != null) {
+            scheduledCommit.cancel(false);
+            scheduledCommit = null;
+        }
+    }
+
+    /**
+     * Close the searcher managers and the index writers of all partitions used by this indexer. Pending changes will be
+     * committed before the index writers are closed. Searchers acquired before the close stay usable until they are
+     * released. The indexing threads of the pipeline and the thread of the scheduled commit are released as well. The
+     * next operation on this indexer will re-open both the writer and the searcher manager.
+     *
+     * @throws IOException when the operation encounter errors.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        synchronized (commitLock) {
+            cancelScheduledCommit();
+            if (commitExecutor != null) {
+                commitExecutor.shutdown();
+                commitExecutor = null;
             }
         }
+        synchronized (pipelineLock) {
+            if (pipelineExecutor != null) {
+                pipelineExecutor.shutdown();
+                pipelineExecutor = null;
+            }
+        }
+        for (Partition partition : getPartitions())
+            partition.close();
+        synchronized (commitLock) {
+            pendingWrites = 0;
+        }
+        objectCache.clear();
+    }
+
+    /**
+     * Create lucene query based on the searchable field name and value. The values for the searchable field will be
+     * retrieved from the <code>jsonObject</code>. This method will try to create a unique query in the case where a
+     * searchable field is marked as unique. Otherwise the method will create a query using all available searchable
+     * fields.
+     *
+     * @param jsonObject       the json object from which the value for each field can be retrieved from.
+     * @param searchableFields the searchable fields definition
+     * @return query which could be either a unique or full searchable field based query.
+     */
+    private Query createSearchableFieldQuery(final Object jsonObject, final List<SearchableField> searchableFields) {
+        List<Query> fullQueries = new ArrayList<Query>();
+        List<Query> uniqueQueries = new ArrayList<Query>();
+        for (SearchableField searchableField : searchableFields) {
+            String value = searchableField.getCompiledExpression().read(jsonObject).toString();
+            Query query = queryBuilder.term(searchableField.getName(), searchableField.getType(), value);
+            if (searchableField.isUnique())
+                uniqueQueries.add(query);
+            // only create the full query if we haven't found any unique key in the searchable fields.
+            if (uniqueQueries.isEmpty())
+                fullQueries.add(query);
+        }
 
-        if (uniqueExists)
-            return uniqueQuery.toString();
+        if (!uniqueQueries.isEmpty())
+            return queryBuilder.and(uniqueQueries.toArray(new Query[uniqueQueries.size()]));
         else
-            return fullQuery.toString();
+            return queryBuilder.and(fullQueries.toArray(new Query[fullQueries.size()]));
     }
 
     /**
@@ -228,10 +795,8 @@ public class DefaultIndexer implements Indexer {
      * @param clazz the clazz for which the query is based on
      * @return the base query for a resource
      */
-    private String createClassQuery(final Class clazz) {
-        StringBuilder builder = new StringBuilder();
-        builder.append(createQuery(DEFAULT_FIELD_CLASS, clazz.getName()));
-        return builder.toString();
+    private Query createClassQuery(final Class clazz) {
+        return queryBuilder.term(DEFAULT_FIELD_CLASS, clazz.getName());
     }
 
     /**
@@ -241,254 +806,1681 @@ public class DefaultIndexer implements Indexer {
      * @param resource the resource for which the query is based on
      * @return the base query for a resource
      */
-    private String createResourceQuery(final Resource resource) {
-        StringBuilder builder = new StringBuilder();
-        builder.append(createQuery(DEFAULT_FIELD_RESOURCE, resource.getName()));
-        return builder.toString();
+    private Query createResourceQuery(final Resource resource) {
+        return queryBuilder.term(DEFAULT_FIELD_RESOURCE, resource.getName());
     }
 
     /**
-     * Search the local lucene repository for documents with similar information with information inside the
-     * <code>query</code>. Search can return multiple documents with similar information or empty list when no
-     * document have similar information with the <code>query</code>.
+     * Count the documents matching the <code>query</code>, optionally without reopening the near-real-time reader. The
+     * hits are only counted, no score is calculated and no stored field is loaded.
      *
-     * @param query the lucene query.
-     * @return objects with similar information with the query.
+     * @param resources the resources used to index the documents.
+     * @param query     the lucene query.
+     * @param refresh   flag whether the reader should be reopened when the writer have changes.
+     * @return the number of documents matching the query.
      * @throws IOException when the search encounter error.
      */
-    private List<Document> findDocuments(final Query query) throws IOException {
-        List<Document> documents = new ArrayList<Document>();
-        IndexSearcher searcher = getIndexSearcher();
-        if (searcher != null) {
-            TopDocs docs = searcher.search(query, DEFAULT_MAX_DOCUMENTS);
-            ScoreDoc[] hits = docs.scoreDocs;
-            for (ScoreDoc hit : hits)
-                documents.add(searcher.doc(hit.doc));
+    private int countDocuments(final List<Resource> resources, final Query query, final boolean refresh)
+            throws IOException {
+        IndexSearcher searcher = acquireSearcher(resources, refresh);
+        try {
+            TotalHitCountCollector collector = new TotalHitCountCollector();
+            searcher.search(query, collector);
+            return collector.getTotalHits();
+        } finally {
+            releaseSearcher(searcher);
         }
-        return documents;
     }
 
     /**
-     * Write json representation of a single object as a single document entry inside Lucene index.
+     * Search the local lucene repository for documents within the <code>offset</code> and <code>limit</code> window of
+     * the search result. Only the stored fields accepted by the field selector will be loaded, so the json payload is
+     * not read unless it's selected.
      *
-     * @param jsonObject the json object to be written to the index
-     * @param resource   the configuration to transform json to lucene document
-     * @param writer     the lucene index writer
-     * @throws java.io.IOException when writing document failed
+     * @param resources the resources used to index the documents.
+     * @param query     the lucene query.
+     * @param offset    the number of hits to be skipped.
+     * @param limit     the maximum number of documents returned.
+     * @param selector  the field selector to select the stored fields to be loaded.
+     * @return the documents within the window containing the selected fields.
+     * @throws IOException when the search encounter error.
      */
-    private void writeObject(final Object jsonObject, final Resource resource, final IndexWriter writer)
-            throws IOException {
-
-        Document document = new Document();
-        document.add(new Field(DEFAULT_FIELD_JSON, jsonObject.toString(), Field.Store.YES, Field.Index.NO));
-        document.add(new Field(DEFAULT_FIELD_UUID, UUID.randomUUID().toString(), Field.Store.YES,
-                Field.Index.ANALYZED_NO_NORMS));
-        document.add(new Field(DEFAULT_FIELD_CLASS, resource.getResourceObject().getName(), Field.Store.YES,
-                Field.Index.ANALYZED_NO_NORMS));
-        document.add(new Field(DEFAULT_FIELD_RESOURCE, resource.getName(), Field.Store.YES,
-                Field.Index.ANALYZED_NO_NORMS));
+    private List<Document> findDocuments(final List<Resource> resources, final Query query, final int offset,
+                                         final int limit, final FieldSelector selector) throws IOException {
+        List<Document> documents = new ArrayList<Document>();
+        if (limit <= 0)
+            return documents;
 
-        for (SearchableField searchableField : resource.getSearchableFields()) {
-            Object value = JsonPath.read(jsonObject, searchableField.getExpression());
-            document.add(new Field(searchableField.getName(), String.valueOf(value), Field.Store.YES,
-                    Field.Index.ANALYZED_NO_NORMS));
+        IndexSearcher searcher = acquireSearcher(resources);
+        try {
+            int from = Math.max(offset, 0);
+            ScoreDoc[] hits = searcher.search(query, from + limit).scoreDocs;
+            for (int i = from; i < hits.length; i++)
+                documents.add(searcher.doc(hits[i].doc, selector));
+            return documents;
+        } finally {
+            releaseSearcher(searcher);
         }
-
-        if (getLogger().isDebugEnabled())
-            getLogger().debug(this.getClass().getSimpleName(), "Writing document: " + document);
-
-        writer.addDocument(document);
     }
 
     /**
-     * Delete an entry from the lucene index. The method will search for a single entry in the index (throwing
-     * IOException when more than one index match the object).
+     * Search for the values of the selected stored fields of the documents matching the query.
      *
-     * @param jsonObject  the json object to be deleted.
-     * @param resource    the resource definition used to register the json to lucene index.
-     * @param indexWriter the index writer used to delete the index.
-     * @throws ParseException when the json can't be used to create a query to identify the correct lucene index.
-     * @throws IOException    when other error happens during the deletion process.
+     * @param resources  the resources used to index the documents.
+     * @param query      the lucene query.
+     * @param offset     the number of hits to be skipped.
+     * @param limit      the maximum number of values returned.
+     * @param fieldNames the names of the fields to be loaded.
+     * @return the field name and value pairs of each document, in the order of the field names.
+     * @throws IOException when the search encounter error.
      */
-    private void deleteObject(final Object jsonObject, final Resource resource, final IndexWriter indexWriter)
-            throws ParseException, IOException {
-        String queryString =
-                createResourceQuery(resource) + " AND "
-                        + createSearchableFieldQuery(jsonObject, resource.getSearchableFields());
-
-        if (getLogger().isDebugEnabled())
-            getLogger().debug(this.getClass().getSimpleName(), "Query deleteObject(): " + queryString);
-
-        Query query = parser.parse(queryString);
-        List<Document> documents = findDocuments(query);
-        if (!CollectionUtil.isEmpty(documents) && documents.size() > 1)
-            throw new IOException("Unable to uniquely identify an object using the json object in the repository.");
-        indexWriter.deleteDocuments(query);
+    private List<Map<String, String>> findValues(final List<Resource> resources, final Query query, final int offset,
+                                                 final int limit, final String... fieldNames) throws IOException {
+        List<Map<String, String>> values = new ArrayList<Map<String, String>>();
+        FieldSelector selector = new MapFieldSelector(fieldNames);
+        for (Document document : findDocuments(resources, query, offset, limit, selector)) {
+            Map<String, String> fieldValues = new LinkedHashMap<String, String>();
+            for (String fieldName : fieldNames)
+                fieldValues.put(fieldName, document.get(fieldName));
+            values.add(fieldValues);
+        }
+        return values;
     }
 
     /**
-     * Update an object inside the lucene index with a new data. Updating process practically means deleting old object
-     * and then adding the new object.
+     * Search for the keys of the documents matching the query. The key is taken from the primary key of the document,
+     * which is the value of all unique searchable fields of the resource.
      *
-     * @param jsonObject  the json object to be updated.
-     * @param resource    the resource definition used to register the json to lucene index.
-     * @param indexWriter the index writer used to delete the index.
-     * @throws ParseException when the json can't be used to create a query to identify the correct lucene index.
-     * @throws IOException    when other error happens during the deletion process.
+     * @param query    the lucene query.
+     * @param resource the resource used to index the documents.
+     * @param offset   the number of hits to be skipped.
+     * @param limit    the maximum number of keys returned.
+     * @return the keys of the documents. Documents without primary key will not be included.
+     * @throws IOException when the search encounter error.
      */
-    private void updateObject(final Object jsonObject, final Resource resource, final IndexWriter indexWriter)
-            throws ParseException, IOException {
-        // search for the same object, if they exists, delete them :)
-        deleteObject(jsonObject, resource, indexWriter);
-        // write the new object
-        writeObject(jsonObject, resource, indexWriter);
+    private List<String> findKeys(final Query query, final Resource resource, final int offset, final int limit)
+            throws IOException {
+        List<String> keys = new ArrayList<String>();
+        String prefix = resource.getName() + KEY_SEPARATOR;
+        FieldSelector selector = new MapFieldSelector(DEFAULT_FIELD_KEY);
+        for (Document document : findDocuments(getResources(resource), query, offset, limit, selector)) {
+            String key = document.get(DEFAULT_FIELD_KEY);
+            if (key != null && key.startsWith(prefix))
+                keys.add(key.substring(prefix.length()));
+        }
+        return keys;
+    }
+
+    /**
+     * Create the primary key for the json object. The primary key is created from the resource name and the value of
+     * all unique searchable fields of the resource. The key will be indexed without analysis, allowing a single
+     * document to be replaced or deleted using a single term instead of searching for the document first.
+     *
+     * @param jsonObject the json object for which the key will be created.
+     * @param resource   the resource definition used to register the json to lucene index.
+     * @return the primary key or null if the resource doesn't have any unique searchable field.
+     * @throws ParseException when the json object doesn't have value for a unique searchable field.
+     */
+    private String createKey(final Object jsonObject, final Resource resource) throws ParseException {
+        StringBuilder builder = null;
+        for (SearchableField searchableField : resource.getSearchableFields()) {
+            if (searchableField.isUnique()) {
+                if (builder == null)
+                    builder = new StringBuilder(resource.getName());
+                Object value = searchableField.getCompiledExpression().read(jsonObject);
+                // objects without the unique value would share the same key and replace each other
+                if (value == null)
+                    throw new ParseException("Unable to find value for the unique field '" + searchableField.getName()
+                            + "' of the resource '" + resource.getName() + "'.");
+                builder.append(KEY_SEPARATOR).append(value);
+            }
+        }
+        return builder != null ? builder.toString() : null;
+    }
+
+    /**
+     * Create the digest of the json object. The digest is calculated from the fingerprint of the resource definition
+     * and the json text, so the same json indexed using different resource will have different digest, and the json
+     * is indexed again once the searchable fields of the resource are changed.
+     *
+     * @param jsonObject the json object for which the digest will be created.
+     * @param resource   the resource definition used to register the json to lucene index.
+     * @return the SHA-1 digest of the json object.
+     * @throws IOException when the digest can't be calculated.
+     */
+    private String createDigest(final Object jsonObject, final Resource resource) throws IOException {
+        try {
+            String text = createFingerprint(resource) + KEY_SEPARATOR + jsonObject;
+            return DigestUtil.getSHA1Checksum(text.getBytes("UTF-8"));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Unable to create the digest of the json object.", e);
+        }
+    }
+
+    /**
+     * Create the fingerprint of the resource definition. The fingerprint covers everything deciding how the json is
+     * written to the lucene document: the resource name, the resource class and the name, expression, type, unique and
+     * sortable flag of each searchable field.
+     *
+     * @param resource the resource definition.
+     * @return the fingerprint of the resource definition.
+     */
+    private String createFingerprint(final Resource resource) {
+        StringBuilder builder = new StringBuilder(resource.getName());
+        builder.append(KEY_SEPARATOR).append(resource.getResourceObject().getName());
+        for (SearchableField searchableField : resource.getSearchableFields()) {
+            builder.append(KEY_SEPARATOR).append(searchableField.getName())
+                    .append(':').append(searchableField.getExpression())
+                    .append(':').append(searchableField.getType())
+                    .append(':').append(searchableField.isUnique())
+                    .append(':').append(searchableField.isSortable());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Find the digest of the object indexed with the primary key. Writes which are not yet visible to the searcher
+     * are tracked in the pending digests, so they're checked before the searcher is consulted. The searcher is not
+     * reopened to keep bulk load from flushing a segment per element.
+     *
+     * @param partition the partition holding the object.
+     * @param key       the primary key of the object.
+     * @return the digest of the indexed object or null if no object is indexed with the primary key.
+     * @throws IOException when reading the index failed.
+     */
+    private String findDigest(final Partition partition, final String key) throws IOException {
+        IndexSearcher searcher;
+        synchronized (refreshLock) {
+            if (partition.pendingDigests.containsKey(key))
+                return partition.pendingDigests.get(key);
+            searcher = partition.getSearcherManager().acquire();
+        }
+        try {
+            IndexReader reader = searcher.getIndexReader();
+            TermDocs termDocs = reader.termDocs(new Term(DEFAULT_FIELD_KEY, key));
+            try {
+                if (!termDocs.next())
+                    return null;
+                return reader.document(termDocs.doc(), new MapFieldSelector(DEFAULT_FIELD_DIGEST))
+                        .get(DEFAULT_FIELD_DIGEST);
+            } finally {
+                termDocs.close();
+            }
+        } finally {
+            releaseSearcher(searcher);
+        }
+    }
+
+    /**
+     * Track the digest of an object written with a primary key until the write is visible to the searcher. The
+     * searchers are only reopened when they're acquired for a search, so a long running load without any search will
+     * reopen the searcher once the number of pending digests reach the limit.
+     *
+     * @param partition the partition holding the object.
+     * @param key       the primary key of the object.
+     * @param digest    the digest of the written object or null when the object was deleted.
+     * @throws IOException when the reader can't be reopened.
+     */
+    private void putPendingDigest(final Partition partition, final String key, final String digest)
+            throws IOException {
+        synchronized (refreshLock) {
+            partition.pendingDigests.put(key, digest);
+            if (partition.pendingDigests.size() >= MAX_PENDING_DIGESTS)
+                partition.refresh(partition.getSearcherManager());
+        }
+    }
+
+    /**
+     * Create the stored field holding the json payload using the configured payload codec.
+     *
+     * @param json the json text.
+     * @return the stored field.
+     * @throws IOException when the payload codec is unknown.
+     */
+    private Field createPayloadField(final String json) throws IOException {
+        if (StringUtil.equalsIgnoreCase(PAYLOAD_CODEC_PLAIN, payloadCodec))
+            return new Field(DEFAULT_FIELD_JSON, json, Field.Store.YES, Field.Index.NO);
+        if (StringUtil.equalsIgnoreCase(PAYLOAD_CODEC_DEFLATE, payloadCodec))
+            return new Field(DEFAULT_FIELD_JSON, CompressionTools.compressString(json));
+        throw new IOException("Unknown payload codec: '" + payloadCodec + "'.");
+    }
+
+    /**
+     * Read the json payload from the stored fields of the document. Binary payload is always deflate compressed, while
+     * string payload is the plain json text.
+     *
+     * @param document the lucene document.
+     * @return the json text.
+     */
+    private String readPayload(final Document document) {
+        byte[] payload = document.getBinaryValue(DEFAULT_FIELD_JSON);
+        if (payload == null)
+            return document.get(DEFAULT_FIELD_JSON);
+        try {
+            return CompressionTools.decompressString(payload);
+        } catch (DataFormatException e) {
+            throw new com.burkeware.search.api.exception.ParseException("Unable to decompress the json payload.", e);
+        }
+    }
+
+    /**
+     * Add the value of the searchable field to the document based on the type of the field. The original value is
+     * always stored, while the indexed value depends on the type: text value is analyzed, keyword value is indexed as a
+     * single term and numeric and date value are indexed as trie encoded numbers. Missing numeric and date value will
+     * not be indexed, while malformed numeric and date value is only stored.
+     *
+     * @param document        the lucene document.
+     * @param searchableField the searchable field.
+     * @param value           the value of the searchable field from the json object.
+     */
+    private void addSearchableField(final Document document, final SearchableField searchableField,
+                                    final Object value) {
+        String name = searchableField.getName();
+        FieldType type = searchableField.getType();
+        if (type.isNumeric()) {
+            if (value == null)
+                return;
+            document.add(new Field(name, String.valueOf(value), Field.Store.YES, Field.Index.NO));
+            Number number = toNumber(searchableField, value);
+            if (number == null)
+                return;
+            document.add(createNumericField(name, NumericUtils.PRECISION_STEP_DEFAULT, type, number));
+            if (searchableField.isSortable())
+                document.add(createNumericField(SORT_FIELD_PREFIX + name, Integer.MAX_VALUE, type, number));
+            return;
+        }
+
+        if (searchableField.isSortable() && value != null)
+            document.add(createSortField(SORT_FIELD_PREFIX + name, type, value));
+        if (type == FieldType.KEYWORD)
+            document.add(new Field(name, String.valueOf(value), Field.Store.YES, Field.Index.NOT_ANALYZED_NO_NORMS));
+        else
+            document.add(new Field(name, String.valueOf(value), Field.Store.YES, Field.Index.ANALYZED_NO_NORMS));
+    }
+
+    /**
+     * Convert the value of the numeric or date searchable field into number. A single malformed value shouldn't fail
+     * the whole load, so the failure is logged and the value will not be searchable using range query.
+     *
+     * @param searchableField the numeric or date searchable field.
+     * @param value           the value of the searchable field from the json object.
+     * @return the number or null when the value can't be converted.
+     */
+    private Number toNumber(final SearchableField searchableField, final Object value) {
+        try {
+            return searchableField.getType().toNumber(value);
+        } catch (com.burkeware.search.api.exception.ParseException e) {
+            getLogger().warn(this.getClass().getSimpleName(), "Skipping the numeric value of the field '"
+                    + searchableField.getName() + "'.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Create the single term field used to sort the search result. Text value is lower cased so the sort order is not
+     * case sensitive.
+     *
+     * @param name  the name of the sort field.
+     * @param type  the type of the searchable field.
+     * @param value the value of the searchable field from the json object.
+     * @return the sort field.
+     */
+    private Field createSortField(final String name, final FieldType type, final Object value) {
+        String sortValue = type == FieldType.KEYWORD ? String.valueOf(value) : String.valueOf(value).toLowerCase();
+        return new Field(name, sortValue, Field.Store.NO, Field.Index.NOT_ANALYZED_NO_NORMS);
+    }
+
+    /**
+     * Create the trie encoded numeric field, which is indexed but not stored. Numeric and date sort fields are indexed
+     * as a single trie encoded term using the maximum precision step.
+     *
+     * @param name          the name of the numeric field.
+     * @param precisionStep the precision step of the trie encoding.
+     * @param type          the numeric type of the searchable field.
+     * @param number        the number representation of the value.
+     * @return the numeric field.
+     */
+    private NumericField createNumericField(final String name, final int precisionStep, final FieldType type,
+                                            final Number number) {
+        NumericField numericField = new NumericField(name, precisionStep, Field.Store.NO, true);
+        if (type == FieldType.INT)
+            numericField.setIntValue(number.intValue());
+        else if (type == FieldType.DOUBLE)
+            numericField.setDoubleValue(number.doubleValue());
+        else
+            numericField.setLongValue(number.longValue());
+        return numericField;
+    }
+
+    /**
+     * Create a lucene document from the json representation of a single object.
+     *
+     * @param jsonObject the json object to be converted to lucene document.
+     * @param resource   the configuration to transform json to lucene document.
+     * @param key        the primary key of the json object or null if the resource doesn't have unique field.
+     * @param digest     the digest of the json object.
+     * @return the lucene document.
+     */
+    private Document createDocument(final Object jsonObject, final Resource resource, final String key,
+                                    final String digest) throws IOException {
+        Document document = new Document();
+        document.add(createPayloadField(jsonObject.toString()));
+        document.add(new Field(DEFAULT_FIELD_UUID, UUID.randomUUID().toString(), Field.Store.YES,
+                Field.Index.ANALYZED_NO_NORMS));
+        document.add(new Field(DEFAULT_FIELD_CLASS, resource.getResourceObject().getName(), Field.Store.YES,
+                Field.Index.ANALYZED_NO_NORMS));
+        document.add(new Field(DEFAULT_FIELD_RESOURCE, resource.getName(), Field.Store.YES,
+                Field.Index.ANALYZED_NO_NORMS));
+        if (key != null)
+            document.add(new Field(DEFAULT_FIELD_KEY, key, Field.Store.YES, Field.Index.NOT_ANALYZED_NO_NORMS));
+        document.add(new Field(DEFAULT_FIELD_DATE_INDEXED,
+                DateTools.timeToString(System.currentTimeMillis(), DateTools.Resolution.MILLISECOND),
+                Field.Store.YES, Field.Index.NOT_ANALYZED_NO_NORMS));
+        document.add(new Field(DEFAULT_FIELD_DIGEST, digest, Field.Store.YES, Field.Index.NO));
+
+        for (SearchableField searchableField : resource.getSearchableFields()) {
+            Object value = searchableField.getCompiledExpression().read(jsonObject);
+            addSearchableField(document, searchableField, value);
+        }
+
+        if (getLogger().isDebugEnabled())
+            getLogger().debug(this.getClass().getSimpleName(), "Writing document: " + document);
+
+        return document;
+    }
+
+    /**
+     * Write json representation of a single object as a single document entry inside Lucene index.
+     *
+     * @param jsonObject the json object to be written to the index
+     * @param resource   the configuration to transform json to lucene document
+     * @param writer     the lucene index writer
+     * @throws ParseException      when the json object doesn't have value for a unique searchable field.
+     * @throws java.io.IOException when writing document failed
+     */
+    private void writeObject(final Object jsonObject, final Resource resource, final IndexWriter writer)
+            throws ParseException, IOException {
+        writeObject(jsonObject, resource, createKey(jsonObject, resource), createDigest(jsonObject, resource), writer);
+    }
+
+    /**
+     * Write json representation of a single object using the already calculated primary key and digest.
+     *
+     * @param jsonObject the json object to be written to the index
+     * @param resource   the configuration to transform json to lucene document
+     * @param key        the primary key of the json object or null if the resource doesn't have unique field.
+     * @param digest     the digest of the json object.
+     * @param writer     the lucene index writer
+     * @throws java.io.IOException when writing document failed
+     */
+    private void writeObject(final Object jsonObject, final Resource resource, final String key, final String digest,
+                             final IndexWriter writer) throws IOException {
+        writer.addDocument(createDocument(jsonObject, resource, key, digest));
+        if (key != null)
+            putPendingDigest(getPartition(resource), key, digest);
+    }
+
+    /**
+     * Delete an entry from the lucene index. When the resource have unique searchable fields, the entry will be deleted
+     * using the primary key term. Otherwise, or when the index was written before the primary key was introduced, the
+     * method will search for a single entry in the index (throwing IOException when more than one index match the
+     * object).
+     *
+     * @param jsonObject  the json object to be deleted.
+     * @param resource    the resource definition used to register the json to lucene index.
+     * @param indexWriter the index writer used to delete the index.
+     * @throws ParseException when the json can't be used to create a query to identify the correct lucene index.
+     * @throws IOException    when other error happens during the deletion process.
+     */
+    private void deleteObject(final Object jsonObject, final Resource resource, final IndexWriter indexWriter)
+            throws ParseException, IOException {
+        String key = createKey(jsonObject, resource);
+        if (key != null && getPartition(resource).keyed) {
+            indexWriter.deleteDocuments(new Term(DEFAULT_FIELD_KEY, key));
+            putPendingDigest(getPartition(resource), key, null);
+            return;
+        }
+
+        Query query = queryBuilder.and(createResourceQuery(resource),
+                createSearchableFieldQuery(jsonObject, resource.getSearchableFields()));
+
+        if (getLogger().isDebugEnabled())
+            getLogger().debug(this.getClass().getSimpleName(), "Query deleteObject(): " + query);
+
+        // the uniqueness check doesn't reopen the reader to keep bulk load from flushing a segment per element
+        if (countDocuments(getResources(resource), query, false) > 1)
+            throw new IOException("Unable to uniquely identify an object using the json object in the repository.");
+        indexWriter.deleteDocuments(query);
+        if (key != null)
+            putPendingDigest(getPartition(resource), key, null);
+    }
+
+    /**
+     * Update an object inside the lucene index with a new data. Updating process practically means deleting old object
+     * and then adding the new object. When the resource have unique searchable fields, both operations will be
+     * performed atomically using the primary key term without searching the index.
+     *
+     * @param jsonObject  the json object to be updated.
+     * @param resource    the resource definition used to register the json to lucene index.
+     * @param indexWriter the index writer used to delete the index.
+     * @throws ParseException when the json can't be used to create a query to identify the correct lucene index.
+     * @throws IOException    when other error happens during the deletion process.
+     */
+    private void updateObject(final Object jsonObject, final Resource resource, final IndexWriter indexWriter)
+            throws ParseException, IOException {
+        String key = createKey(jsonObject, resource);
+        updateObject(jsonObject, resource, key, createDigest(jsonObject, resource), indexWriter);
+    }
+
+    /**
+     * Update an object inside the lucene index using the already calculated primary key and digest.
+     *
+     * @param jsonObject  the json object to be updated.
+     * @param resource    the resource definition used to register the json to lucene index.
+     * @param key         the primary key of the json object or null if the resource doesn't have unique field.
+     * @param digest      the digest of the json object.
+     * @param indexWriter the index writer used to delete the index.
+     * @throws ParseException when the json can't be used to create a query to identify the correct lucene index.
+     * @throws IOException    when other error happens during the deletion process.
+     */
+    private void updateObject(final Object jsonObject, final Resource resource, final String key,
+                              final String digest, final IndexWriter indexWriter) throws ParseException, IOException {
+        if (key != null && getPartition(resource).keyed) {
+            Document document = createDocument(jsonObject, resource, key, digest);
+            indexWriter.updateDocument(new Term(DEFAULT_FIELD_KEY, key), document);
+            putPendingDigest(getPartition(resource), key, digest);
+        } else {
+            // search for the same object, if they exists, delete them :)
+            deleteObject(jsonObject, resource, indexWriter);
+            // write the new object
+            writeObject(jsonObject, resource, key, digest, indexWriter);
+        }
+    }
+
+    /**
+     * Load a single object from the json payload into the lucene index. When the resource have unique searchable
+     * fields and the object is already indexed with the same digest, the object is not changed and the write is
+     * skipped.
+     *
+     * @param jsonObject  the json object to be loaded.
+     * @param resource    the resource definition used to register the json to lucene index.
+     * @param indexWriter the index writer used to write the index.
+     * @throws ParseException when the json can't be used to create a query to identify the correct lucene index.
+     * @throws IOException    when other error happens during the indexing process.
+     */
+    private void loadObject(final Object jsonObject, final Resource resource, final IndexWriter indexWriter)
+            throws ParseException, IOException {
+        String key = createKey(jsonObject, resource);
+        String digest = createDigest(jsonObject, resource);
+        if (key != null && StringUtil.equals(digest, findDigest(getPartition(resource), key)))
+            return;
+        updateObject(jsonObject, resource, key, digest, indexWriter);
+    }
+
+    @Override
+    public int loadObjects(final Resource resource, final InputStream inputStream)
+            throws ParseException, IOException {
+        InputStreamReader reader = new InputStreamReader(inputStream);
+        return loadObjects(resource, reader);
+    }
+
+    /**
+     * Load the json payload from the reader into the lucene index. When the root node of the resource is a simple
+     * path, the payload will be streamed and each element will be handed over to the indexing threads as soon as it's
+     * read, so only a bounded number of elements will be kept in memory at any time. Otherwise, the whole payload will
+     * be read before indexing.
+     * <p/>
+     * Elements which are already indexed with the same content will not be written again.
+     *
+     * @param resource the resource definition used to register the json to lucene index.
+     * @param reader   the reader for the json payload.
+     * @return the number of elements read from the json payload, including the elements which are not changed.
+     * @throws ParseException when the json can't be used to create a query to identify the correct lucene index.
+     * @throws IOException    when other error happens during the indexing process.
+     */
+    @Override
+    public int loadObjects(final Resource resource, final Reader reader)
+            throws ParseException, IOException {
+        if (JsonStreamReader.isSupported(resource.getRootNode())) {
+            JsonStreamReader streamReader = new JsonStreamReader(reader, resource.getRootNode());
+            if (pipelineThreads > 0)
+                return loadObjects(resource, streamReader);
+
+            int count = 0;
+            String element;
+            while ((element = streamReader.next()) != null) {
+                loadObject(JsonPathUtil.read(element, "$"), resource, getIndexWriter(resource));
+                count++;
+            }
+            return count;
+        }
+
+        String json = StreamUtil.readAsString(reader);
+        Object jsonObject = resource.getCompiledRootNode().read(json);
+        if (jsonObject instanceof JSONArray) {
+            JSONArray array = (JSONArray) jsonObject;
+            for (Object element : array)
+                loadObject(element, resource, getIndexWriter(resource));
+            return array.size();
+        } else if (jsonObject instanceof JSONObject) {
+            loadObject(jsonObject, resource, getIndexWriter(resource));
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Get the executor running the indexing threads of the pipeline. The executor is created on the first streamed load
+     * and shared by the following loads until this indexer is closed. Idle threads are released after a while and the
+     * threads are daemon threads, so an idle indexer doesn't keep the application alive.
+     *
+     * @return the executor running the indexing threads.
+     */
+    private ExecutorService getPipelineExecutor() {
+        synchronized (pipelineLock) {
+            if (pipelineExecutor == null) {
+                pipelineExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+
+                    private final AtomicInteger counter = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        Thread thread = new Thread(runnable, "restassured-pipeline-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            return pipelineExecutor;
+        }
+    }
+
+    /**
+     * Load the streamed json payload using a pipeline of the calling thread and the indexing threads. The calling
+     * thread reads the payload and puts each element into a bounded queue, while the indexing threads take the
+     * elements from the queue, parse them, create the documents and write them to the shared index writer. The
+     * indexing threads are borrowed from the shared pipeline executor and are handed back once the payload is indexed.
+     * <p/>
+     * When the payload fails, the indexing threads are stopped using a flag checked between elements and the failure
+     * is only thrown once they have stopped. The indexing threads are never interrupted: an interrupt during the I/O
+     * of the index writer or the searcher closes the file channel shared by the whole partition.
+     *
+     * @param resource     the resource definition used to register the json to lucene index.
+     * @param streamReader the reader returning the elements of the payload.
+     * @return the number of elements read from the payload.
+     * @throws ParseException when the json can't be used to create a query to identify the correct lucene index.
+     * @throws IOException    when other error happens during the indexing process.
+     */
+    private int loadObjects(final Resource resource, final JsonStreamReader streamReader)
+            throws ParseException, IOException {
+        final BlockingQueue<String> elements = new ArrayBlockingQueue<String>(Math.max(pipelineQueueSize, 1));
+        final AtomicBoolean stopped = new AtomicBoolean();
+        ExecutorService executorService = getPipelineExecutor();
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        try {
+            for (int i = 0; i < pipelineThreads; i++) {
+                futures.add(executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        while (!stopped.get()) {
+                            String element = elements.poll(PIPELINE_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                            if (element == END_OF_ELEMENTS)
+                                break;
+                            if (element != null)
+                                loadObject(JsonPathUtil.read(element, "$"), resource, getIndexWriter(resource));
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            int count = 0;
+            String element;
+            while ((element = streamReader.next()) != null) {
+                putElement(elements, element, futures);
+                count++;
+            }
+            for (int i = 0; i < pipelineThreads; i++)
+                putElement(elements, END_OF_ELEMENTS, futures);
+            for (Future<Void> future : futures)
+                waitFor(future);
+            return count;
+        } finally {
+            // stop the indexing threads still running when the payload failed, no-op otherwise
+            stopped.set(true);
+            for (Future<Void> future : futures)
+                awaitQuietly(future);
+        }
+    }
+
+    /**
+     * Wait for an indexing thread to stop without throwing its failure, which is either already thrown or superseded
+     * by the failure of the payload. The interrupt of the calling thread is restored once the indexing thread stopped.
+     *
+     * @param future the indexing thread.
+     */
+    private void awaitQuietly(final Future<?> future) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                future.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                break;
+            } catch (CancellationException e) {
+                break;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Put the element into the queue, waiting while the queue is full. The indexing threads are checked while
+     * waiting, so a failure in the indexing threads will stop the payload from being read any further.
+     *
+     * @param elements the queue of elements waiting to be indexed.
+     * @param element  the element to be indexed.
+     * @param futures  the indexing threads.
+     * @throws ParseException when an indexing thread failed with a parse exception.
+     * @throws IOException    when an indexing thread failed or the wait was interrupted.
+     */
+    private void putElement(final BlockingQueue<String> elements, final String element,
+                            final List<Future<Void>> futures) throws ParseException, IOException {
+        try {
+            while (!elements.offer(element, PIPELINE_POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                for (Future<Void> future : futures) {
+                    if (future.isDone())
+                        waitFor(future);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the elements to be indexed.");
+        }
+    }
+
+    /**
+     * Wait for an indexing thread to complete and re-throw the exception thrown by the indexing thread.
+     *
+     * @param future the indexing thread.
+     * @throws ParseException when the indexing thread failed with a parse exception.
+     * @throws IOException    when the indexing thread failed or the wait was interrupted.
+     */
+    private void waitFor(final Future<?> future) throws ParseException, IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the elements to be indexed.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ParseException)
+                throw (ParseException) cause;
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IOException("Unable to index the elements of the json payload.", cause);
+        }
+    }
+
+    @Override
+    public <T> T getObject(final String key, final Class<T> clazz) throws ParseException, IOException {
+        return getObject(createObjectsQuery(clazz, key), clazz);
+    }
+
+    @Override
+    public Object getObject(final String key, final Resource resource) throws ParseException, IOException {
+        return getObject(createObjectsQuery(resource, key), resource);
+    }
+
+    @Override
+    public <T> T getObject(final Query query, final Class<T> clazz) throws IOException {
+        Query objectsQuery = queryBuilder.and(createClassQuery(clazz), query);
+        return findObject(getResources(clazz), objectsQuery, createConverter(clazz));
+    }
+
+    @Override
+    public Object getObject(final Query query, final Resource resource) throws IOException {
+        Query objectsQuery = queryBuilder.and(createResourceQuery(resource), query);
+        return findObject(getResources(resource), objectsQuery, createConverter(resource));
+    }
+
+    @Override
+    public <T> Map<String, T> getObjectsByKeys(final Collection<String> keys, final Class<T> clazz) throws IOException {
+        return findObjectsByKeys(keys, getResources(clazz), createConverter(clazz));
+    }
+
+    @Override
+    public Map<String, Object> getObjectsByKeys(final Collection<String> keys, final Resource resource)
+            throws IOException {
+        return findObjectsByKeys(keys, getResources(resource), createConverter(resource));
+    }
+
+    @Override
+    public <T> List<T> getObjects(final Query query, final Class<T> clazz) throws IOException {
+        Query objectsQuery = queryBuilder.and(createClassQuery(clazz), query);
+        return findObjects(getResources(clazz), objectsQuery, createConverter(clazz), 0, searchLimit);
+    }
+
+    @Override
+    public List<Object> getObjects(final Query query, final Resource resource) throws IOException {
+        Query objectsQuery = queryBuilder.and(createResourceQuery(resource), query);
+        return findObjects(getResources(resource), objectsQuery, createConverter(resource), 0, searchLimit);
+    }
+
+    @Override
+    public <T> List<T> getObjects(final String searchString, final Class<T> clazz)
+            throws ParseException, IOException {
+        return getObjects(searchString, clazz, 0, searchLimit);
+    }
+
+    @Override
+    public List<Object> getObjects(final String searchString, final Resource resource)
+            throws ParseException, IOException {
+        return getObjects(searchString, resource, 0, searchLimit);
+    }
+
+    @Override
+    public <T> List<T> getObjects(final String searchString, final Class<T> clazz, final int offset, final int limit)
+            throws ParseException, IOException {
+        Query objectsQuery = createObjectsQuery(clazz, searchString);
+        return findObjects(getResources(clazz), objectsQuery, createConverter(clazz), offset, limit);
+    }
+
+    @Override
+    public List<Object> getObjects(final String searchString, final Resource resource, final int offset,
+                                   final int limit) throws ParseException, IOException {
+        Query objectsQuery = createObjectsQuery(resource, searchString);
+        return findObjects(getResources(resource), objectsQuery, createConverter(resource), offset, limit);
+    }
+
+    @Override
+    public <T> List<T> getObjects(final String searchString, final Class<T> clazz, final int offset, final int limit,
+                                  final Order... orders) throws ParseException, IOException {
+        Sort sort = createSort(getSearchableFields(clazz), orders);
+        Query objectsQuery = createObjectsQuery(clazz, searchString);
+        return findObjects(getResources(clazz), objectsQuery, createConverter(clazz), offset, limit, sort);
+    }
+
+    @Override
+    public List<Object> getObjects(final String searchString, final Resource resource, final int offset,
+                                   final int limit, final Order... orders) throws ParseException, IOException {
+        Sort sort = createSort(resource.getSearchableFields(), orders);
+        Query objectsQuery = createObjectsQuery(resource, searchString);
+        return findObjects(getResources(resource), objectsQuery, createConverter(resource), offset, limit, sort);
+    }
+
+    @Override
+    public <T> List<T> getObjects(final Query query, final Class<T> clazz, final int offset, final int limit,
+                                  final Order... orders) throws IOException {
+        Sort sort = createSort(getSearchableFields(clazz), orders);
+        Query objectsQuery = queryBuilder.and(createClassQuery(clazz), query);
+        return findObjects(getResources(clazz), objectsQuery, createConverter(clazz), offset, limit, sort);
+    }
+
+    @Override
+    public List<Object> getObjects(final Query query, final Resource resource, final int offset, final int limit,
+                                   final Order... orders) throws IOException {
+        Sort sort = createSort(resource.getSearchableFields(), orders);
+        Query objectsQuery = queryBuilder.and(createResourceQuery(resource), query);
+        return findObjects(getResources(resource), objectsQuery, createConverter(resource), offset, limit, sort);
+    }
+
+    @Override
+    public <T> Page<T> getObjects(final String searchString, final Class<T> clazz, final Cursor cursor,
+                                  final int limit) throws ParseException, IOException {
+        Query objectsQuery = createObjectsQuery(clazz, searchString);
+        return findPage(getResources(clazz), objectsQuery, createConverter(clazz), cursor, limit);
+    }
+
+    @Override
+    public Page<Object> getObjects(final String searchString, final Resource resource, final Cursor cursor,
+                                   final int limit) throws ParseException, IOException {
+        Query objectsQuery = createObjectsQuery(resource, searchString);
+        return findPage(getResources(resource), objectsQuery, createConverter(resource), cursor, limit);
+    }
+
+    @Override
+    public <T> Iterable<T> iterateObjects(final String searchString, final Class<T> clazz)
+            throws ParseException, IOException {
+        return createIterable(getResources(clazz), createObjectsQuery(clazz, searchString), createConverter(clazz));
+    }
+
+    @Override
+    public Iterable<Object> iterateObjects(final String searchString, final Resource resource)
+            throws ParseException, IOException {
+        Query objectsQuery = createObjectsQuery(resource, searchString);
+        return createIterable(getResources(resource), objectsQuery, createConverter(resource));
     }
 
     @Override
-    public void loadObjects(final Resource resource, final InputStream inputStream)
+    public int count(final String searchString, final Class<?> clazz) throws ParseException, IOException {
+        return countDocuments(getResources(clazz), createObjectsQuery(clazz, searchString), true);
+    }
+
+    @Override
+    public int count(final String searchString, final Resource resource) throws ParseException, IOException {
+        return countDocuments(getResources(resource), createObjectsQuery(resource, searchString), true);
+    }
+
+    @Override
+    public int count(final Query query, final Class<?> clazz) throws IOException {
+        return countDocuments(getResources(clazz), queryBuilder.and(createClassQuery(clazz), query), true);
+    }
+
+    @Override
+    public int count(final Query query, final Resource resource) throws IOException {
+        return countDocuments(getResources(resource), queryBuilder.and(createResourceQuery(resource), query), true);
+    }
+
+    @Override
+    public boolean exists(final String searchString, final Class<?> clazz) throws ParseException, IOException {
+        return count(searchString, clazz) > 0;
+    }
+
+    @Override
+    public boolean exists(final String searchString, final Resource resource) throws ParseException, IOException {
+        return count(searchString, resource) > 0;
+    }
+
+    @Override
+    public boolean exists(final Query query, final Class<?> clazz) throws IOException {
+        return count(query, clazz) > 0;
+    }
+
+    @Override
+    public boolean exists(final Query query, final Resource resource) throws IOException {
+        return count(query, resource) > 0;
+    }
+
+    @Override
+    public List<Map<String, String>> getValues(final String searchString, final Class<?> clazz, final int offset,
+                                               final int limit, final String... fieldNames)
             throws ParseException, IOException {
-        InputStreamReader reader = new InputStreamReader(inputStream);
-        loadObjects(resource, reader);
+        return findValues(getResources(clazz), createObjectsQuery(clazz, searchString), offset, limit, fieldNames);
     }
 
     @Override
-    public void loadObjects(final Resource resource, final Reader reader)
+    public List<Map<String, String>> getValues(final String searchString, final Resource resource, final int offset,
+                                               final int limit, final String... fieldNames)
             throws ParseException, IOException {
-        String json = StreamUtil.readAsString(reader);
-        Object jsonObject = JsonPath.read(json, resource.getRootNode());
-        if (jsonObject instanceof JSONArray) {
-            JSONArray array = (JSONArray) jsonObject;
-            for (Object element : array)
-                updateObject(element, resource, getIndexWriter());
-        } else if (jsonObject instanceof JSONObject) {
-            updateObject(jsonObject, resource, getIndexWriter());
-        }
+        Query objectsQuery = createObjectsQuery(resource, searchString);
+        return findValues(getResources(resource), objectsQuery, offset, limit, fieldNames);
     }
 
     @Override
-    public <T> T getObject(final String key, final Class<T> clazz) throws ParseException, IOException {
-        T object = null;
+    public List<Map<String, String>> getValues(final Query query, final Class<?> clazz, final int offset,
+                                               final int limit, final String... fieldNames) throws IOException {
+        Query objectsQuery = queryBuilder.and(createClassQuery(clazz), query);
+        return findValues(getResources(clazz), objectsQuery, offset, limit, fieldNames);
+    }
 
-        String queryString = createClassQuery(clazz);
-        if (!StringUtil.isEmpty(key))
-            queryString = queryString + " AND " + key;
+    @Override
+    public List<Map<String, String>> getValues(final Query query, final Resource resource, final int offset,
+                                               final int limit, final String... fieldNames) throws IOException {
+        Query objectsQuery = queryBuilder.and(createResourceQuery(resource), query);
+        return findValues(getResources(resource), objectsQuery, offset, limit, fieldNames);
+    }
 
-        if (getLogger().isDebugEnabled())
-            getLogger().debug(this.getClass().getSimpleName(), "Query getObject(String, Class): " + queryString);
+    @Override
+    public List<String> getKeys(final String searchString, final Resource resource, final int offset,
+                                final int limit) throws ParseException, IOException {
+        return findKeys(createObjectsQuery(resource, searchString), resource, offset, limit);
+    }
+
+    @Override
+    public List<String> getKeys(final Query query, final Resource resource, final int offset, final int limit)
+            throws IOException {
+        return findKeys(queryBuilder.and(createResourceQuery(resource), query), resource, offset, limit);
+    }
+
+    /**
+     * Create the query to search objects of the <code>clazz</code> type matching the search string.
+     *
+     * @param clazz        the expected type of the objects.
+     * @param searchString the search string to limit the objects.
+     * @return the lucene query.
+     * @throws ParseException when the search string is not a valid lucene query.
+     */
+    private Query createObjectsQuery(final Class<?> clazz, final String searchString) throws ParseException {
+        Query query = createClassQuery(clazz);
+        if (!StringUtil.isEmpty(searchString))
+            query = queryBuilder.and(query, queryBuilder.parse(searchString, getSearchableFields(clazz)));
 
-        Query query = parser.parse(queryString);
-        List<Document> documents = findDocuments(query);
+        if (getLogger().isDebugEnabled())
+            getLogger().debug(this.getClass().getSimpleName(), "Query for class " + clazz.getName() + ": " + query);
 
-        if (!CollectionUtil.isEmpty(documents) && documents.size() > 1)
-            throw new IOException("Unable to uniquely identify an object using key: '" + key + "'in the repository.");
+        return query;
+    }
 
-        for (Document document : documents) {
-            String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
-            Resource resource = getResourceRegistry().getEntryValue(resourceName);
-            Algorithm algorithm = resource.getAlgorithm();
-            String json = document.get(DEFAULT_FIELD_JSON);
-            object = clazz.cast(algorithm.deserialize(json));
+    /**
+     * Create the lucene sort from the sort orders. Each order must refer to a sortable searchable field, the sort
+     * values are read from the single term sort field indexed for the sortable searchable field.
+     *
+     * @param searchableFields the searchable fields which can be used to sort the search result.
+     * @param orders           the sort orders.
+     * @return the lucene sort or null when there's no sort order.
+     * @throws com.burkeware.search.api.exception.ParseException when the order refer to a non sortable field.
+     */
+    private Sort createSort(final List<SearchableField> searchableFields, final Order... orders) {
+        if (orders == null || orders.length == 0)
+            return null;
+
+        SortField[] sortFields = new SortField[orders.length];
+        for (int i = 0; i < orders.length; i++) {
+            SearchableField searchableField = null;
+            for (SearchableField candidate : searchableFields) {
+                if (candidate.isSortable() && StringUtil.equals(candidate.getName(), orders[i].getField())) {
+                    searchableField = candidate;
+                    break;
+                }
+            }
+            if (searchableField == null)
+                throw new com.burkeware.search.api.exception.ParseException("Unable to sort using field: '"
+                        + orders[i].getField() + "', the field is not a sortable searchable field.");
+
+            String name = SORT_FIELD_PREFIX + searchableField.getName();
+            boolean reverse = orders[i].isDescending();
+            FieldType type = searchableField.getType();
+            if (type == FieldType.INT)
+                sortFields[i] = new SortField(name, FieldCache.NUMERIC_UTILS_INT_PARSER, reverse);
+            else if (type == FieldType.DOUBLE)
+                sortFields[i] = new SortField(name, FieldCache.NUMERIC_UTILS_DOUBLE_PARSER, reverse);
+            else if (type.isNumeric())
+                sortFields[i] = new SortField(name, FieldCache.NUMERIC_UTILS_LONG_PARSER, reverse);
+            else
+                sortFields[i] = new SortField(name, SortField.STRING, reverse);
         }
+        return new Sort(sortFields);
+    }
 
-        return object;
+    /**
+     * Get the searchable fields of all registered resources which can be used to convert json into object of the
+     * <code>clazz</code> type.
+     *
+     * @param clazz the type of the objects.
+     * @return the searchable fields of all resources for the type.
+     */
+    private List<SearchableField> getSearchableFields(final Class<?> clazz) {
+        List<SearchableField> searchableFields = new ArrayList<SearchableField>();
+        for (Resource resource : getResources(clazz))
+            searchableFields.addAll(resource.getSearchableFields());
+        return searchableFields;
     }
 
-    @Override
-    public Object getObject(final String key, final Resource resource) throws ParseException, IOException {
-        Object object = null;
+    /**
+     * Get all registered resources which can be used to convert json into object of the <code>clazz</code> type.
+     *
+     * @param clazz the type of the objects.
+     * @return the resources for the type.
+     */
+    private List<Resource> getResources(final Class<?> clazz) {
+        List<Resource> resources = new ArrayList<Resource>();
+        for (Resource resource : getResourceRegistry().getEntries().values()) {
+            if (clazz.equals(resource.getResourceObject()))
+                resources.add(resource);
+        }
+        return resources;
+    }
+
+    /**
+     * Get the resource as the list of resources to be searched.
+     *
+     * @param resource the resource used to index the objects.
+     * @return the list containing only the resource.
+     */
+    private List<Resource> getResources(final Resource resource) {
+        return Collections.singletonList(resource);
+    }
 
-        String queryString = createResourceQuery(resource);
-        if (!StringUtil.isEmpty(key))
-            queryString = queryString + " AND " + key;
+    /**
+     * Create the query to search objects indexed using the <code>resource</code> matching the search string.
+     *
+     * @param resource     the resource used to index the objects.
+     * @param searchString the search string to limit the objects.
+     * @return the lucene query.
+     * @throws ParseException when the search string is not a valid lucene query.
+     */
+    private Query createObjectsQuery(final Resource resource, final String searchString) throws ParseException {
+        Query query = createResourceQuery(resource);
+        if (!StringUtil.isEmpty(searchString))
+            query = queryBuilder.and(query, queryBuilder.parse(searchString, resource.getSearchableFields()));
 
         if (getLogger().isDebugEnabled())
-            getLogger().debug(this.getClass().getSimpleName(), "Query getObject(String,  Resource): " + queryString);
+            getLogger().debug(this.getClass().getSimpleName(), "Query for " + resource.getName() + ": " + query);
+
+        return query;
+    }
+
+    /**
+     * Create converter which will convert the documents into object of the <code>clazz</code> type. The resource used
+     * to convert each document is taken from the resource name stored in the document.
+     *
+     * @param clazz the expected type of the objects.
+     * @return the converter.
+     */
+    private <T> Converter<T> createConverter(final Class<T> clazz) {
+        return new Converter<T>() {
+            @Override
+            public Object deserialize(final Document document) {
+                String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
+                Resource resource = getResourceRegistry().getEntryValue(resourceName);
+                Algorithm algorithm = resource.getAlgorithm();
+                return algorithm.deserialize(readPayload(document));
+            }
+
+            @Override
+            public T cast(final Object object) {
+                return clazz.cast(object);
+            }
+        };
+    }
+
+    /**
+     * Create converter which will convert the documents using the algorithm of the <code>resource</code>.
+     *
+     * @param resource the resource used to index the documents.
+     * @return the converter.
+     */
+    private Converter<Object> createConverter(final Resource resource) {
+        final Algorithm algorithm = resource.getAlgorithm();
+        return new Converter<Object>() {
+            @Override
+            public Object deserialize(final Document document) {
+                return algorithm.deserialize(readPayload(document));
+            }
+
+            @Override
+            public Object cast(final Object object) {
+                return object;
+            }
+        };
+    }
+
+    /**
+     * Search for a single object matching the query.
+     *
+     * @param resources the resources used to index the documents.
+     * @param query     the lucene query.
+     * @param converter the converter to convert the document into object.
+     * @return the object matching the query or null when no object match the query.
+     * @throws IOException when the query match more than one object or the search encounter error.
+     */
+    private <T> T findObject(final List<Resource> resources, final Query query, final Converter<T> converter)
+            throws IOException {
+        // two hits are enough to find out whether the query can uniquely identify an object
+        List<T> objects = findObjects(resources, query, converter, 0, 2);
+        if (objects.size() > 1)
+            throw new IOException("Unable to uniquely identify an object using query: '" + query + "' in the "
+                    + "repository.");
+        return objects.isEmpty() ? null : objects.get(0);
+    }
 
-        Query query = parser.parse(queryString);
-        List<Document> documents = findDocuments(query);
+    /**
+     * Resolve the objects with the keys in a single pass over the primary key terms. The primary keys of all keys and
+     * resources are sorted before they're resolved, so the term enumeration only moves forward through the terms
+     * dictionary instead of running a search for each key.
+     *
+     * @param keys      the values of the unique searchable fields of the objects.
+     * @param resources the resources used to index the objects.
+     * @param converter the converter to convert the documents into objects.
+     * @return the keys and the matching objects, in the order of the keys.
+     * @throws IOException when a key match more than one object or reading the index failed.
+     */
+    private <T> Map<String, T> findObjectsByKeys(final Collection<String> keys, final List<Resource> resources,
+                                                 final Converter<T> converter) throws IOException {
+        Map<String, T> objects = new LinkedHashMap<String, T>();
+        if (keys.isEmpty() || resources.isEmpty())
+            return objects;
+
+        Map<String, String> primaryKeys = new TreeMap<String, String>();
+        for (Resource resource : resources) {
+            for (String key : keys)
+                primaryKeys.put(resource.getName() + KEY_SEPARATOR + key, key);
+        }
 
-        if (!CollectionUtil.isEmpty(documents) && documents.size() > 1)
-            throw new IOException("Unable to uniquely identify an object using key: '" + key + "'in the repository.");
+        IndexSearcher searcher = acquireSearcher(resources);
+        try {
+            Map<String, Integer> docs = new HashMap<String, Integer>();
+            TermDocs termDocs = searcher.getIndexReader().termDocs();
+            try {
+                for (Map.Entry<String, String> entry : primaryKeys.entrySet()) {
+                    termDocs.seek(new Term(DEFAULT_FIELD_KEY, entry.getKey()));
+                    while (termDocs.next()) {
+                        if (docs.put(entry.getValue(), termDocs.doc()) != null)
+                            throw new IOException("Unable to uniquely identify an object using key: '"
+                                    + entry.getValue() + "' in the repository.");
+                    }
+                }
+            } finally {
+                termDocs.close();
+            }
 
-        Algorithm algorithm = resource.getAlgorithm();
-        for (Document document : documents) {
-            String json = document.get(DEFAULT_FIELD_JSON);
-            object = algorithm.deserialize(json);
+            List<String> foundKeys = new ArrayList<String>();
+            List<ScoreDoc> scoreDocs = new ArrayList<ScoreDoc>();
+            for (String key : keys) {
+                // removing the resolved key will skip the duplicate keys
+                Integer doc = docs.remove(key);
+                if (doc != null) {
+                    foundKeys.add(key);
+                    scoreDocs.add(new ScoreDoc(doc, 0));
+                }
+            }
+            List<Hit> hits = loadHits(searcher, scoreDocs.toArray(new ScoreDoc[scoreDocs.size()]), 0);
+            for (int i = 0; i < hits.size(); i++)
+                objects.put(foundKeys.get(i), convert(hits.get(i), converter));
+        } finally {
+            releaseSearcher(searcher);
         }
+        return objects;
+    }
 
-        return object;
+    /**
+     * Search for the objects within the <code>offset</code> and <code>limit</code> window of the search result.
+     *
+     * @param resources the resources used to index the documents.
+     * @param query     the lucene query.
+     * @param converter the converter to convert the documents into objects.
+     * @param offset    the number of hits to be skipped.
+     * @param limit     the maximum number of objects returned.
+     * @return the objects within the window.
+     * @throws IOException when the search encounter error.
+     */
+    private <T> List<T> findObjects(final List<Resource> resources, final Query query, final Converter<T> converter,
+                                    final int offset, final int limit) throws IOException {
+        return findObjects(resources, query, converter, offset, limit, null);
     }
 
-    @Override
-    public <T> List<T> getObjects(final String searchString, final Class<T> clazz)
-            throws ParseException, IOException {
+    /**
+     * Search for the objects within the <code>offset</code> and <code>limit</code> window of the search result sorted
+     * using the <code>sort</code>. The sort values are read from the field cache, no document is loaded to sort the
+     * search result.
+     *
+     * @param resources the resources used to index the documents.
+     * @param query     the lucene query.
+     * @param converter the converter to convert the documents into objects.
+     * @param offset    the number of hits to be skipped.
+     * @param limit     the maximum number of objects returned.
+     * @param sort      the sort of the search result or null to sort the search result by relevance.
+     * @return the objects within the window.
+     * @throws IOException when the search encounter error.
+     */
+    private <T> List<T> findObjects(final List<Resource> resources, final Query query, final Converter<T> converter,
+                                    final int offset, final int limit, final Sort sort) throws IOException {
         List<T> objects = new ArrayList<T>();
+        if (limit <= 0)
+            return objects;
 
-        String queryString = createClassQuery(clazz);
-        if (!StringUtil.isEmpty(searchString))
-            queryString = queryString + " AND " + searchString;
+        IndexSearcher searcher = acquireSearcher(resources);
+        try {
+            int size = Math.max(offset, 0) + limit;
+            TopDocs docs = sort != null ? searcher.search(query, null, size, sort) : searcher.search(query, size);
+            for (Hit hit : loadHits(searcher, docs.scoreDocs, Math.max(offset, 0)))
+                objects.add(convert(hit, converter));
+        } finally {
+            releaseSearcher(searcher);
+        }
+        return objects;
+    }
 
-        if (getLogger().isDebugEnabled())
-            getLogger().debug(this.getClass().getSimpleName(), "Query getObjects(String, Class): " + queryString);
+    /**
+     * Search for the page of objects after the <code>cursor</code>. Only the hits after the cursor will be collected.
+     * An empty page is returned when the <code>limit</code> is not positive.
+     *
+     * @param resources the resources used to index the documents.
+     * @param query     the lucene query.
+     * @param converter the converter to convert the documents into objects.
+     * @param cursor    the cursor returned by the previous page or null for the first page.
+     * @param limit     the maximum number of objects in the page.
+     * @return the page of objects.
+     * @throws IOException when the search encounter error.
+     */
+    private <T> Page<T> findPage(final List<Resource> resources, final Query query, final Converter<T> converter,
+                                 final Cursor cursor, final int limit) throws IOException {
+        List<T> objects = new ArrayList<T>();
+        if (limit <= 0)
+            return new Page<T>(objects, null, countDocuments(resources, query, true));
 
-        Query query = parser.parse(queryString);
-        List<Document> documents = findDocuments(query);
-        for (Document document : documents) {
-            String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
-            Resource resource = getResourceRegistry().getEntryValue(resourceName);
-            Algorithm algorithm = resource.getAlgorithm();
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(clazz.cast(algorithm.deserialize(json)));
+        IndexSearcher searcher = acquireSearcher(resources);
+        TopDocs docs;
+        Cursor next;
+        try {
+            docs = searchAfter(searcher, query, cursor, limit);
+            for (Hit hit : loadHits(searcher, docs.scoreDocs, 0))
+                objects.add(convert(hit, converter));
+            next = createCursor(searcher, cursor, docs.scoreDocs);
+        } finally {
+            releaseSearcher(searcher);
         }
-        return objects;
+        if (docs.scoreDocs.length < limit)
+            next = null;
+        return new Page<T>(objects, next, docs.totalHits);
     }
 
-    @Override
-    public List<Object> getObjects(final String searchString, final Resource resource)
-            throws ParseException, IOException {
-        List<Object> objects = new ArrayList<Object>();
+    /**
+     * Search for the hits after the <code>cursor</code>. The internal document numbers can change when the readers
+     * are reopened, so the document number of the cursor is only used when the searcher is backed by the same readers
+     * used to create the cursor. Otherwise, the hits returned before the cursor are skipped using the position of the
+     * cursor.
+     *
+     * @param searcher the index searcher.
+     * @param query    the lucene query.
+     * @param cursor   the cursor of the previous page or null for the first page.
+     * @param limit    the maximum number of hits, must be positive.
+     * @return the hits after the cursor.
+     * @throws IOException when the search encounter error.
+     */
+    private TopDocs searchAfter(final IndexSearcher searcher, final Query query, final Cursor cursor,
+                                final int limit) throws IOException {
+        if (cursor == null)
+            return searcher.search(query, limit);
+        if (Arrays.equals(cursor.getVersions(), getVersions(searcher)))
+            return searcher.searchAfter(cursor.getScoreDoc(), query, limit);
+
+        TopDocs docs = searcher.search(query, cursor.getPosition() + limit);
+        int position = Math.min(cursor.getPosition(), docs.scoreDocs.length);
+        ScoreDoc[] scoreDocs = Arrays.copyOfRange(docs.scoreDocs, position, docs.scoreDocs.length);
+        return new TopDocs(docs.totalHits, scoreDocs, docs.getMaxScore());
+    }
 
-        String queryString = createResourceQuery(resource);
-        if (!StringUtil.isEmpty(searchString))
-            queryString = queryString + " AND " + searchString;
+    /**
+     * Create the cursor pointing to the last hit collected after the <code>cursor</code>.
+     *
+     * @param searcher  the index searcher used to collect the hits.
+     * @param cursor    the cursor of the previous page or null for the first page.
+     * @param scoreDocs the hits collected after the cursor.
+     * @return the cursor pointing to the last hit or the <code>cursor</code> when no hit is collected.
+     */
+    private Cursor createCursor(final IndexSearcher searcher, final Cursor cursor, final ScoreDoc[] scoreDocs) {
+        if (scoreDocs.length == 0)
+            return cursor;
+        int position = (cursor != null ? cursor.getPosition() : 0) + scoreDocs.length;
+        return new Cursor(scoreDocs[scoreDocs.length - 1], getVersions(searcher), position);
+    }
 
-        if (getLogger().isDebugEnabled())
-            getLogger().debug(this.getClass().getSimpleName(), "Query getObjects(String, Resource): " + queryString);
+    /**
+     * Get the versions of the readers backing the searcher. The version of a near-real-time reader changes every time
+     * the reader is reopened with new changes.
+     *
+     * @param searcher the index searcher.
+     * @return the version of each partition reader backing the searcher.
+     */
+    private long[] getVersions(final IndexSearcher searcher) {
+        IndexReader reader = searcher.getIndexReader();
+        IndexReader[] readers = reader instanceof MultiReader
+                ? reader.getSequentialSubReaders() : new IndexReader[]{reader};
+        long[] versions = new long[readers.length];
+        for (int i = 0; i < readers.length; i++)
+            versions[i] = readers[i].getVersion();
+        return versions;
+    }
+
+    /**
+     * Create a lazy iterable over all objects matching the query. The hits will be collected one page at a time using
+     * the search limit as the page size, and each object is only deserialized when it's consumed.
+     *
+     * @param resources the resources used to index the documents.
+     * @param query     the lucene query.
+     * @param converter the converter to convert the documents into objects.
+     * @return the lazy iterable.
+     */
+    private <T> Iterable<T> createIterable(final List<Resource> resources, final Query query,
+                                           final Converter<T> converter) {
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new ObjectIterator<T>(resources, query, converter);
+            }
+        };
+    }
+
+    /**
+     * Load the hits of a search. The object cache is checked first and the stored fields are only loaded for the
+     * hits which are not in the cache.
+     *
+     * @param searcher  the searcher used to perform the search.
+     * @param scoreDocs the hits of the search.
+     * @param from      the index of the first hit to be loaded.
+     * @return the loaded hits.
+     * @throws IOException when loading the stored fields failed.
+     */
+    private List<Hit> loadHits(final IndexSearcher searcher, final ScoreDoc[] scoreDocs, final int from)
+            throws IOException {
+        List<Hit> hits = new ArrayList<Hit>();
+        if (from >= scoreDocs.length)
+            return hits;
+
+        int[] docs = new int[scoreDocs.length - from];
+        for (int i = 0; i < docs.length; i++)
+            docs[i] = scoreDocs[from + i].doc;
+        ObjectCache.Key[] keys = objectCache.createKeys(searcher.getIndexReader(), docs);
+        for (int i = 0; i < docs.length; i++) {
+            Object object = objectCache.get(keys[i]);
+            Document document = object == null ? searcher.doc(docs[i]) : null;
+            hits.add(new Hit(keys[i], object, document));
+        }
+        return hits;
+    }
 
-        Query query = parser.parse(queryString);
-        List<Document> documents = findDocuments(query);
-        Algorithm algorithm = resource.getAlgorithm();
-        for (Document document : documents) {
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(algorithm.deserialize(json));
+    /**
+     * Convert the hit into object. The document will only be deserialized when the object is not in the cache.
+     *
+     * @param hit       the hit.
+     * @param converter the converter to convert the document into object.
+     * @return the object representation of the hit.
+     */
+    private <T> T convert(final Hit hit, final Converter<T> converter) {
+        Object object = hit.object;
+        if (object == null) {
+            object = converter.deserialize(hit.document);
+            objectCache.put(hit.key, object);
+        }
+        return converter.cast(object);
+    }
+
+    /**
+     * Part of the local repository with its own directory, index writer and near-real-time searcher. The root partition
+     * is identified by a null name and is stored in the directory of the local repository.
+     */
+    private class Partition {
+
+        private final String name;
+
+        private volatile IndexWriter indexWriter;
+
+        private volatile SearcherManager searcherManager;
+
+        private final Map<String, String> pendingDigests = new HashMap<String, String>();
+
+        private volatile boolean keyed = true;
+
+        private Partition(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Get the index writer for this partition. The writer is opened on the first call and then kept open until
+         * the indexer is closed, so subsequent writes don't need to re-acquire the index write lock.
+         *
+         * @return the long-lived index writer.
+         * @throws IOException when the writer can't be opened.
+         */
+        private IndexWriter getIndexWriter() throws IOException {
+            IndexWriter writer = indexWriter;
+            if (writer == null) {
+                synchronized (DefaultIndexer.this) {
+                    if (indexWriter == null) {
+                        if (name == null) {
+                            indexWriter = getWriterProvider().get();
+                            readUserData(indexWriter);
+                            keyed = readKeyed(indexWriter);
+                        } else {
+                            indexWriter = getWriterProvider().get(name);
+                        }
+                    }
+                    writer = indexWriter;
+                }
+            }
+            return writer;
+        }
+
+        /**
+         * Get the searcher manager for this partition. The searcher manager is created on the first call from the
+         * index writer, so every searcher it returns is backed by a near-real-time reader opened from the writer.
+         *
+         * @return the searcher manager.
+         * @throws IOException when the reader can't be opened.
+         */
+        private SearcherManager getSearcherManager() throws IOException {
+            SearcherManager manager = searcherManager;
+            if (manager == null) {
+                synchronized (DefaultIndexer.this) {
+                    if (searcherManager == null)
+                        searcherManager = new SearcherManager(getIndexWriter(), true, null);
+                    manager = searcherManager;
+                }
+            }
+            return manager;
+        }
+
+        /**
+         * Acquire an index searcher, optionally skipping the reopen of the near-real-time reader. Skipping the reopen
+         * is useful during bulk operation where reopening the reader for every element would force the writer to
+         * flush a new segment for every element.
+         *
+         * @param refresh flag whether the reader should be reopened when the writer have changes.
+         * @return the searcher backed by the near-real-time reader.
+         * @throws IOException when the reader can't be opened or reopened.
+         */
+        private IndexSearcher acquire(final boolean refresh) throws IOException {
+            SearcherManager manager = getSearcherManager();
+            if (refresh)
+                refresh(manager);
+            return manager.acquire();
+        }
+
+        /**
+         * Reopen the near-real-time reader of the searcher manager when the writer have changes. The digests of the
+         * writes performed before the reopen will be visible from the reopened reader, so they're no longer tracked as
+         * pending. The pending digests are kept when the reopen failed, the current searcher doesn't have them yet.
+         *
+         * @param manager the searcher manager.
+         * @throws IOException when the reader can't be reopened.
+         */
+        private void refresh(final SearcherManager manager) throws IOException {
+            // maybeRefresh returns immediately when other thread is refreshing, taking turns ensure the searcher
+            // returned to this thread will include the writes performed by this thread.
+            synchronized (refreshLock) {
+                if (manager.maybeRefresh())
+                    pendingDigests.clear();
+            }
+        }
+
+        /**
+         * Commit the changes in the index writer of this partition. Only the root partition carries the user data.
+         *
+         * @throws IOException when the operation encounter errors.
+         */
+        private void commit() throws IOException {
+            IndexWriter writer = indexWriter;
+            if (writer == null)
+                return;
+            if (name == null)
+                commitUserData(writer);
+            else
+                writer.commit();
+        }
+
+        /**
+         * Close the searcher manager and the index writer of this partition. Pending changes will be committed before
+         * the index writer is closed.
+         *
+         * @throws IOException when the operation encounter errors.
+         */
+        private void close() throws IOException {
+            if (searcherManager != null) {
+                searcherManager.close();
+                searcherManager = null;
+            }
+            synchronized (commitLock) {
+                if (indexWriter != null) {
+                    commit();
+                    indexWriter.close();
+                    indexWriter = null;
+                }
+            }
+            synchronized (refreshLock) {
+                pendingDigests.clear();
+            }
+        }
+    }
+
+    /**
+     * Single search hit, holding either the cached object or the stored fields of the document.
+     */
+    private static class Hit {
+
+        private final ObjectCache.Key key;
+
+        private final Object object;
+
+        private final Document document;
+
+        private Hit(final ObjectCache.Key key, final Object object, final Document document) {
+            this.key = key;
+            this.object = object;
+            this.document = document;
+        }
+    }
+
+    /**
+     * Convert a lucene document into the object representation.
+     */
+    private interface Converter<T> {
+
+        Object deserialize(final Document document);
+
+        T cast(final Object object);
+    }
+
+    /**
+     * Iterator which walks the search result page by page. The hits of a page are loaded when the page is collected,
+     * while the conversion into objects happens one object at a time in the <code>next</code> call.
+     */
+    private class ObjectIterator<T> implements Iterator<T> {
+
+        private final List<Resource> resources;
+
+        private final Query query;
+
+        private final Converter<T> converter;
+
+        private final List<Hit> hits = new ArrayList<Hit>();
+
+        // the search limit is only the page size here, so a non positive search limit still walks the whole result
+        private final int pageSize = Math.max(searchLimit, 1);
+
+        private Cursor after;
+
+        private int position;
+
+        private boolean exhausted;
+
+        private ObjectIterator(final List<Resource> resources, final Query query, final Converter<T> converter) {
+            this.resources = resources;
+            this.query = query;
+            this.converter = converter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position < hits.size())
+                return true;
+            if (exhausted)
+                return false;
+            try {
+                hits.clear();
+                position = 0;
+                ScoreDoc[] scoreDocs;
+                IndexSearcher searcher = acquireSearcher(resources);
+                try {
+                    scoreDocs = searchAfter(searcher, query, after, pageSize).scoreDocs;
+                    hits.addAll(loadHits(searcher, scoreDocs, 0));
+                    after = createCursor(searcher, after, scoreDocs);
+                } finally {
+                    releaseSearcher(searcher);
+                }
+                if (scoreDocs.length < pageSize)
+                    exhausted = true;
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to collect the next page of the search result.", e);
+            }
+            return !hits.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return convert(hits.get(position++), converter);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Removing object through the iterator is not supported.");
         }
-        return objects;
     }
 
     @Override
     public Object createObject(final Object object, final Resource resource) throws ParseException, IOException {
-        String jsonString = resource.serialize(object);
-        Object jsonObject = JsonPath.read(jsonString, "$");
-        writeObject(jsonObject, resource, getIndexWriter());
-        commit();
+        writeObject(createJsonObject(object, resource), resource, getIndexWriter(resource));
+        groupCommit(1);
         return object;
     }
 
+    @Override
+    public List<Object> createObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException {
+        List<Object> createdObjects = new ArrayList<Object>();
+        for (Object object : objects) {
+            writeObject(createJsonObject(object, resource), resource, getIndexWriter(resource));
+            createdObjects.add(object);
+        }
+        groupCommit(createdObjects.size());
+        return createdObjects;
+    }
+
     @Override
     public Object deleteObject(final Object object, final Resource resource) throws ParseException, IOException {
-        String jsonString = resource.serialize(object);
-        Object jsonObject = JsonPath.read(jsonString, "$");
-        deleteObject(jsonObject, resource, getIndexWriter());
-        commit();
+        deleteObject(createJsonObject(object, resource), resource, getIndexWriter(resource));
+        groupCommit(1);
         return object;
     }
 
+    @Override
+    public List<Object> deleteObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException {
+        List<Object> deletedObjects = new ArrayList<Object>();
+        for (Object object : objects) {
+            deleteObject(createJsonObject(object, resource), resource, getIndexWriter(resource));
+            deletedObjects.add(object);
+        }
+        groupCommit(deletedObjects.size());
+        return deletedObjects;
+    }
+
     @Override
     public Object updateObject(final Object object, final Resource resource) throws ParseException, IOException {
-        String jsonString = resource.serialize(object);
-        Object jsonObject = JsonPath.read(jsonString, "$");
-        updateObject(jsonObject, resource, getIndexWriter());
-        commit();
+        updateObject(createJsonObject(object, resource), resource, getIndexWriter(resource));
+        groupCommit(1);
         return object;
     }
+
+    @Override
+    public List<Object> updateObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException {
+        List<Object> updatedObjects = new ArrayList<Object>();
+        for (Object object : objects) {
+            updateObject(createJsonObject(object, resource), resource, getIndexWriter(resource));
+            updatedObjects.add(object);
+        }
+        groupCommit(updatedObjects.size());
+        return updatedObjects;
+    }
+
+    /**
+     * Serialize the object using the resource and then convert the serialized string into json object.
+     *
+     * @param object   the object to be converted.
+     * @param resource the resource definition used to serialize the object.
+     * @return the json object representation of the object.
+     */
+    private Object createJsonObject(final Object object, final Resource resource) {
+        String jsonString = resource.serialize(object);
+        return JsonPathUtil.read(jsonString, "$");
+    }
 }
@@ -13,33 +13,136 @@
  */
 package com.burkeware.search.api.internal.lucene;
 
+import com.burkeware.search.api.query.Cursor;
+import com.burkeware.search.api.query.Order;
+import com.burkeware.search.api.query.Page;
 import com.burkeware.search.api.resource.Resource;
 import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.search.Query;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface Indexer {
 
-    void loadObjects(final Resource resource, final InputStream inputStream) throws ParseException, IOException;
+    int loadObjects(final Resource resource, final InputStream inputStream) throws ParseException, IOException;
 
-    void loadObjects(final Resource resource, final Reader reader) throws ParseException, IOException;
+    int loadObjects(final Resource resource, final Reader reader) throws ParseException, IOException;
 
     <T> T getObject(final String key, final Class<T> clazz) throws ParseException, IOException;
 
     Object getObject(final String key, final Resource resource) throws ParseException, IOException;
 
+    <T> T getObject(final Query query, final Class<T> clazz) throws IOException;
+
+    Object getObject(final Query query, final Resource resource) throws IOException;
+
+    <T> Map<String, T> getObjectsByKeys(final Collection<String> keys, final Class<T> clazz) throws IOException;
+
+    Map<String, Object> getObjectsByKeys(final Collection<String> keys, final Resource resource) throws IOException;
+
     <T> List<T> getObjects(final String searchString, final Class<T> clazz) throws ParseException, IOException;
 
     List<Object> getObjects(final String searchString, final Resource resource) throws ParseException, IOException;
 
+    <T> List<T> getObjects(final Query query, final Class<T> clazz) throws IOException;
+
+    List<Object> getObjects(final Query query, final Resource resource) throws IOException;
+
+    <T> List<T> getObjects(final String searchString, final Class<T> clazz, final int offset, final int limit)
+            throws ParseException, IOException;
+
+    List<Object> getObjects(final String searchString, final Resource resource, final int offset, final int limit)
+            throws ParseException, IOException;
+
+    <T> List<T> getObjects(final String searchString, final Class<T> clazz, final int offset, final int limit,
+                           final Order... orders) throws ParseException, IOException;
+
+    List<Object> getObjects(final String searchString, final Resource resource, final int offset, final int limit,
+                            final Order... orders) throws ParseException, IOException;
+
+    <T> List<T> getObjects(final Query query, final Class<T> clazz, final int offset, final int limit,
+                           final Order... orders) throws IOException;
+
+    List<Object> getObjects(final Query query, final Resource resource, final int offset, final int limit,
+                            final Order... orders) throws IOException;
+
+    <T> Page<T> getObjects(final String searchString, final Class<T> clazz, final Cursor cursor, final int limit)
+            throws ParseException, IOException;
+
+    Page<Object> getObjects(final String searchString, final Resource resource, final Cursor cursor, final int limit)
+            throws ParseException, IOException;
+
+    <T> Iterable<T> iterateObjects(final String searchString, final Class<T> clazz)
+            throws ParseException, IOException;
+
+    Iterable<Object> iterateObjects(final String searchString, final Resource resource)
+            throws ParseException, IOException;
+
+    int count(final String searchString, final Class<?> clazz) throws ParseException, IOException;
+
+    int count(final String searchString, final Resource resource) throws ParseException, IOException;
+
+    int count(final Query query, final Class<?> clazz) throws IOException;
+
+    int count(final Query query, final Resource resource) throws IOException;
+
+    boolean exists(final String searchString, final Class<?> clazz) throws ParseException, IOException;
+
+    boolean exists(final String searchString, final Resource resource) throws ParseException, IOException;
+
+    boolean exists(final Query query, final Class<?> clazz) throws IOException;
+
+    boolean exists(final Query query, final Resource resource) throws IOException;
+
+    List<Map<String, String>> getValues(final String searchString, final Class<?> clazz, final int offset,
+                                        final int limit, final String... fieldNames)
+            throws ParseException, IOException;
+
+    List<Map<String, String>> getValues(final String searchString, final Resource resource, final int offset,
+                                        final int limit, final String... fieldNames)
+            throws ParseException, IOException;
+
+    List<Map<String, String>> getValues(final Query query, final Class<?> clazz, final int offset, final int limit,
+                                        final String... fieldNames) throws IOException;
+
+    List<Map<String, String>> getValues(final Query query, final Resource resource, final int offset,
+                                        final int limit, final String... fieldNames) throws IOException;
+
+    List<String> getKeys(final String searchString, final Resource resource, final int offset, final int limit)
+            throws ParseException, IOException;
+
+    List<String> getKeys(final Query query, final Resource resource, final int offset, final int limit)
+            throws IOException;
+
     Object createObject(final Object object, final Resource resource) throws ParseException, IOException;
 
+    List<Object> createObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException;
+
     Object deleteObject(final Object object, final Resource resource) throws ParseException, IOException;
 
+    List<Object> deleteObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException;
+
     Object updateObject(final Object object, final Resource resource) throws ParseException, IOException;
 
+    List<Object> updateObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException;
+
+    String getUserData(final String key) throws IOException;
+
+    void putUserData(final String key, final String value) throws IOException;
+
+    String getDigest(final Resource resource, final String key) throws IOException;
+
+    void putDigest(final Resource resource, final String key, final String digest) throws IOException;
+
     void commit() throws IOException;
+
+    void close() throws IOException;
 }
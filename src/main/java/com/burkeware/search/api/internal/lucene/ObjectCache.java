@@ -0,0 +1,161 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.internal.lucene;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.util.ReaderUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size bounded least recently used cache of deserialized objects. The objects are keyed by the identity of the lucene
+ * document they're deserialized from: the core cache key of the segment and the document number inside the segment.
+ * <p/>
+ * The document number inside a segment never change and updating or deleting an object always delete the old document
+ * and (for update) write a new document, so a key will never point to a different version of an object. Keys of the
+ * deleted documents are simply never looked up again and will be evicted eventually.
+ */
+public class ObjectCache {
+
+    private final int size;
+
+    private final Map<Key, Object> objects;
+
+    public ObjectCache(final int size) {
+        this.size = size;
+        this.objects = new LruMap(size);
+    }
+
+    /**
+     * Flag whether this cache will keep any object.
+     *
+     * @return true if the cache size is bigger than zero.
+     */
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * Create the keys for the documents returned by a search on the <code>reader</code>.
+     *
+     * @param reader the top level reader used for the search.
+     * @param docs   the top level document numbers.
+     * @return the key for each document.
+     */
+    public Key[] createKeys(final IndexReader reader, final int[] docs) {
+        Key[] keys = new Key[docs.length];
+        if (!isEnabled())
+            return keys;
+
+        // a multi reader over several partitions nests the segment readers one level deeper
+        List<IndexReader> subReaders = new ArrayList<IndexReader>();
+        ReaderUtil.gatherSubReaders(subReaders, reader);
+        int[] docStarts = new int[subReaders.size()];
+        int maxDoc = 0;
+        for (int i = 0; i < subReaders.size(); i++) {
+            docStarts[i] = maxDoc;
+            maxDoc = maxDoc + subReaders.get(i).maxDoc();
+        }
+
+        for (int i = 0; i < docs.length; i++) {
+            int index = ReaderUtil.subIndex(docs[i], docStarts);
+            keys[i] = new Key(subReaders.get(index).getCoreCacheKey(), docs[i] - docStarts[index]);
+        }
+        return keys;
+    }
+
+    /**
+     * Get the cached object for the document.
+     *
+     * @param key the identity of the document.
+     * @return the cached object or null when the object is not in the cache.
+     */
+    public synchronized Object get(final Key key) {
+        if (key == null)
+            return null;
+        return objects.get(key);
+    }
+
+    /**
+     * Put the deserialized object of the document in the cache. The least recently used object will be evicted when
+     * the cache is full.
+     *
+     * @param key    the identity of the document.
+     * @param object the deserialized object.
+     */
+    public synchronized void put(final Key key, final Object object) {
+        if (key != null && object != null)
+            objects.put(key, object);
+    }
+
+    /**
+     * Remove all objects from the cache.
+     */
+    public synchronized void clear() {
+        objects.clear();
+    }
+
+    /**
+     * Access ordered map evicting the least recently used entry once it holds more than <code>size</code> entries.
+     */
+    private static class LruMap extends LinkedHashMap<Key, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int size;
+
+        private LruMap(final int size) {
+            super(16, 0.75f, true);
+            this.size = size;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, Object> eldest) {
+            return size() > size;
+        }
+    }
+
+    /**
+     * Identity of a lucene document inside a segment.
+     */
+    public static class Key {
+
+        private final Object coreCacheKey;
+
+        private final int doc;
+
+        public Key(final Object coreCacheKey, final int doc) {
+            this.coreCacheKey = coreCacheKey;
+            this.doc = doc;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return doc == key.doc && coreCacheKey == key.coreCacheKey;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(coreCacheKey) + doc;
+        }
+    }
+}
@@ -14,26 +14,104 @@
 
 package com.burkeware.search.api.internal.provider;
 
+import com.burkeware.search.api.util.StringUtil;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.store.NIOFSDirectory;
+import org.apache.lucene.store.NRTCachingDirectory;
+import org.apache.lucene.store.RAMDirectory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Provider for the lucene directory of the local repository. The type of the directory can be selected using the
+ * optional <code>configuration.lucene.directory.type</code> binding:
+ * <pre>
+ * auto : let lucene pick the best directory for the platform (memory mapped on 64 bit jvm), this is the default
+ * nio  : file based directory using the java nio positional read
+ * mmap : file based directory using memory mapped files
+ * ram  : in-memory directory, the content will be lost when the application exit
+ * nrt  : file based directory which keeps small freshly flushed segments in memory until they're committed
+ * </pre>
+ * The directory is created once and then shared by all the readers and writers of the local repository. Partition
+ * directories of the same type are created under the directory of the local repository when the index is partitioned
+ * per resource.
+ */
 public class DirectoryProvider implements SearchProvider<Directory> {
 
+    public static final String DIRECTORY_TYPE_AUTO = "auto";
+
+    public static final String DIRECTORY_TYPE_NIO = "nio";
+
+    public static final String DIRECTORY_TYPE_MMAP = "mmap";
+
+    public static final String DIRECTORY_TYPE_RAM = "ram";
+
+    public static final String DIRECTORY_TYPE_NRT = "nrt";
+
+    private static final double NRT_MAX_MERGE_SIZE_MB = 5.0;
+
+    private static final double NRT_MAX_CACHED_MB = 60.0;
+
     private final String directory;
 
-    // TODO: create a factory to customize the type of directory returned by this provider
+    private String directoryType = DIRECTORY_TYPE_AUTO;
+
+    private Directory luceneDirectory;
+
+    private final Map<String, Directory> partitionDirectories = new HashMap<String, Directory>();
+
     @Inject
     protected DirectoryProvider(final @Named("configuration.lucene.directory") String directory) {
         this.directory = directory;
     }
 
+    @Inject(optional = true)
+    protected void setDirectoryType(final @Named("configuration.lucene.directory.type") String directoryType) {
+        this.directoryType = directoryType;
+    }
+
     @Override
-    public Directory get() throws IOException {
-        return NIOFSDirectory.open(new File(directory));
+    public synchronized Directory get() throws IOException {
+        if (luceneDirectory == null)
+            luceneDirectory = createDirectory(new File(directory));
+        return luceneDirectory;
+    }
+
+    /**
+     * Get the lucene directory of a partition of the local repository. The partition directory is created once, as a
+     * sub directory of the local repository using the same directory type.
+     *
+     * @param partition the name of the partition.
+     * @return the lucene directory of the partition.
+     * @throws IOException when the directory can't be created.
+     */
+    public synchronized Directory get(final String partition) throws IOException {
+        Directory partitionDirectory = partitionDirectories.get(partition);
+        if (partitionDirectory == null) {
+            partitionDirectory = createDirectory(new File(directory, partition));
+            partitionDirectories.put(partition, partitionDirectory);
+        }
+        return partitionDirectory;
+    }
+
+    private Directory createDirectory(final File path) throws IOException {
+        if (StringUtil.equalsIgnoreCase(DIRECTORY_TYPE_AUTO, directoryType))
+            return FSDirectory.open(path);
+        if (StringUtil.equalsIgnoreCase(DIRECTORY_TYPE_NIO, directoryType))
+            return new NIOFSDirectory(path);
+        if (StringUtil.equalsIgnoreCase(DIRECTORY_TYPE_MMAP, directoryType))
+            return new MMapDirectory(path);
+        if (StringUtil.equalsIgnoreCase(DIRECTORY_TYPE_RAM, directoryType))
+            return new RAMDirectory();
+        if (StringUtil.equalsIgnoreCase(DIRECTORY_TYPE_NRT, directoryType))
+            return new NRTCachingDirectory(FSDirectory.open(path), NRT_MAX_MERGE_SIZE_MB, NRT_MAX_CACHED_MB);
+        throw new IOException("Unknown lucene directory type: '" + directoryType + "'.");
     }
 }
@@ -19,6 +19,7 @@ import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.NRTCachingDirectory;
 import org.apache.lucene.util.Version;
 
 import java.io.IOException;
@@ -29,11 +30,11 @@ public class WriterProvider implements SearchProvider<IndexWriter> {
 
     private final Analyzer analyzer;
 
-    private final SearchProvider<Directory> directoryProvider;
+    private final DirectoryProvider directoryProvider;
 
     @Inject
     protected WriterProvider(final Version version, final Analyzer analyzer,
-                             final SearchProvider<Directory> directoryProvider) {
+                             final DirectoryProvider directoryProvider) {
         this.version = version;
         this.analyzer = analyzer;
         this.directoryProvider = directoryProvider;
@@ -41,8 +42,25 @@ public class WriterProvider implements SearchProvider<IndexWriter> {
 
     @Override
     public IndexWriter get() throws IOException {
-        Directory directory = directoryProvider.get();
+        return createWriter(directoryProvider.get());
+    }
+
+    /**
+     * Create a new index writer for a partition of the local repository.
+     *
+     * @param partition the name of the partition.
+     * @return the index writer writing to the directory of the partition.
+     * @throws IOException when the writer can't be opened.
+     */
+    public IndexWriter get(final String partition) throws IOException {
+        return createWriter(directoryProvider.get(partition));
+    }
+
+    private IndexWriter createWriter(final Directory directory) throws IOException {
         IndexWriterConfig config = new IndexWriterConfig(Version.LUCENE_36, analyzer);
+        if (directory instanceof NRTCachingDirectory)
+            // merged segments must bypass the cache, otherwise the cache could grow beyond its limit
+            config.setMergeScheduler(((NRTCachingDirectory) directory).getMergeScheduler());
         return new IndexWriter(directory, config);
     }
 }
@@ -14,25 +14,24 @@
 
 package com.burkeware.search.api.module;
 
+import com.burkeware.search.api.AsyncRestAssuredService;
 import com.burkeware.search.api.RestAssuredService;
 import com.burkeware.search.api.internal.lucene.DefaultIndexer;
 import com.burkeware.search.api.internal.lucene.Indexer;
 import com.burkeware.search.api.internal.provider.AnalyzerProvider;
 import com.burkeware.search.api.internal.provider.DirectoryProvider;
-import com.burkeware.search.api.internal.provider.ReaderProvider;
 import com.burkeware.search.api.internal.provider.SearchProvider;
-import com.burkeware.search.api.internal.provider.SearcherProvider;
 import com.burkeware.search.api.internal.provider.WriterProvider;
 import com.burkeware.search.api.logger.ConsoleLogger;
 import com.burkeware.search.api.logger.Logger;
+import com.burkeware.search.api.query.QueryBuilder;
+import com.burkeware.search.api.service.AsyncRestAssuredServiceImpl;
 import com.burkeware.search.api.service.RestAssuredServiceImpl;
 import com.google.inject.AbstractModule;
 import com.google.inject.Singleton;
 import com.google.inject.throwingproviders.ThrowingProviderBinder;
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
-import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.Version;
 
@@ -44,21 +43,19 @@ public class SearchModule extends AbstractModule {
     @Override
     protected void configure() {
         bind(RestAssuredService.class).to(RestAssuredServiceImpl.class).in(Singleton.class);
+        bind(AsyncRestAssuredService.class).to(AsyncRestAssuredServiceImpl.class).in(Singleton.class);
         bind(Indexer.class).to(DefaultIndexer.class).in(Singleton.class);
         bind(Logger.class).to(ConsoleLogger.class).in(Singleton.class);
+        bind(QueryBuilder.class).in(Singleton.class);
 
         bind(Version.class).toInstance(Version.LUCENE_36);
         bind(Analyzer.class).toProvider(AnalyzerProvider.class);
+        // the directory provider is shared by the writer provider, which needs the partition directories
+        bind(DirectoryProvider.class).in(Singleton.class);
         ThrowingProviderBinder.create(binder())
                 .bind(SearchProvider.class, Directory.class)
                 .to(DirectoryProvider.class)
                 .in(Singleton.class);
-        ThrowingProviderBinder.create(binder())
-                .bind(SearchProvider.class, IndexReader.class)
-                .to(ReaderProvider.class);
-        ThrowingProviderBinder.create(binder())
-                .bind(SearchProvider.class, IndexSearcher.class)
-                .to(SearcherProvider.class);
         ThrowingProviderBinder.create(binder())
                 .bind(SearchProvider.class, IndexWriter.class)
                 .to(WriterProvider.class);
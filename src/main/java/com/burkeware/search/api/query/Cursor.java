@@ -0,0 +1,67 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.query;
+
+import org.apache.lucene.search.ScoreDoc;
+
+/**
+ * Position in a search result from which the next page of the result will be collected. The cursor points to the last
+ * hit of the previous page, so the next page can be collected without collecting the hits of the previous pages again.
+ * <p/>
+ * The cursor is only meaningful for the same search string. The last hit is identified using the internal document
+ * number, which is only valid for the readers used to collect the previous page. When the local repository changed
+ * between two pages, the next page is collected by skipping the number of hits already returned instead. Changes
+ * written to the local repository between two pages can still shift the position of the remaining hits.
+ */
+public class Cursor {
+
+    private final ScoreDoc scoreDoc;
+
+    private final long[] versions;
+
+    private final int position;
+
+    public Cursor(final ScoreDoc scoreDoc, final long[] versions, final int position) {
+        this.scoreDoc = scoreDoc;
+        this.versions = versions;
+        this.position = position;
+    }
+
+    /**
+     * Get the last hit of the previous page.
+     *
+     * @return the last hit of the previous page.
+     */
+    public ScoreDoc getScoreDoc() {
+        return scoreDoc;
+    }
+
+    /**
+     * Get the versions of the readers used to collect the previous page.
+     *
+     * @return the versions of the readers.
+     */
+    public long[] getVersions() {
+        return versions;
+    }
+
+    /**
+     * Get the number of hits returned up to and including the previous page.
+     *
+     * @return the number of hits returned.
+     */
+    public int getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.query;
+
+/**
+ * Sort order of a search result on a single sortable searchable field. Pass multiple orders to sort the search result
+ * using the first order and then break the ties using the following orders, for example:
+ * <pre>
+ * service.getObjects(searchString, Patient.class, 0, 50, Order.desc("birthdate"), Order.asc("name"));
+ * </pre>
+ * Only searchable fields declared as sortable in the resource configuration can be used to sort the search result.
+ */
+public class Order {
+
+    private final String field;
+
+    private final boolean descending;
+
+    private Order(final String field, final boolean descending) {
+        this.field = field;
+        this.descending = descending;
+    }
+
+    /**
+     * Create ascending sort order on the <code>field</code>.
+     *
+     * @param field the name of the sortable searchable field.
+     * @return the ascending sort order.
+     */
+    public static Order asc(final String field) {
+        return new Order(field, false);
+    }
+
+    /**
+     * Create descending sort order on the <code>field</code>.
+     *
+     * @param field the name of the sortable searchable field.
+     * @return the descending sort order.
+     */
+    public static Order desc(final String field) {
+        return new Order(field, true);
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    @Override
+    public String toString() {
+        return field + (descending ? " desc" : " asc");
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.query;
+
+import java.util.List;
+
+/**
+ * Single page of a search result. The page carries the objects of the page, the total number of objects matching the
+ * search and the cursor to collect the next page.
+ *
+ * @param <T> the type of the objects in the page.
+ */
+public class Page<T> {
+
+    private final List<T> objects;
+
+    private final Cursor cursor;
+
+    private final int totalHits;
+
+    public Page(final List<T> objects, final Cursor cursor, final int totalHits) {
+        this.objects = objects;
+        this.cursor = cursor;
+        this.totalHits = totalHits;
+    }
+
+    /**
+     * Get the objects in this page.
+     *
+     * @return the objects in this page.
+     */
+    public List<T> getObjects() {
+        return objects;
+    }
+
+    /**
+     * Get the cursor pointing to the next page.
+     *
+     * @return the cursor for the next page or null when this is the last page.
+     */
+    public Cursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Flag whether there's more page after this page.
+     *
+     * @return true if there's more page after this page.
+     */
+    public boolean hasNext() {
+        return cursor != null;
+    }
+
+    /**
+     * Get the total number of objects matching the search.
+     *
+     * @return the total number of objects matching the search.
+     */
+    public int getTotalHits() {
+        return totalHits;
+    }
+}
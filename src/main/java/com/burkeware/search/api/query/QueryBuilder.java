@@ -0,0 +1,399 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.query;
+
+import com.burkeware.search.api.resource.FieldType;
+import com.burkeware.search.api.resource.SearchableField;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.queryParser.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.NumericRangeQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
+import org.apache.lucene.util.Version;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builder to create lucene query objects directly, without creating and then parsing a query string. The field names
+ * are the names of the searchable fields declared in the resource configuration.
+ * <p/>
+ * The values are analyzed using the same analyzer used when the objects are indexed, so the created queries will
+ * match the same documents as the equivalent query string parsed by the lucene query parser. The builder doesn't keep
+ * any state between calls and can be shared by multiple threads.
+ */
+public class QueryBuilder {
+
+    private final String defaultField;
+
+    private final Version version;
+
+    private final Analyzer analyzer;
+
+    @Inject
+    protected QueryBuilder(final @Named("configuration.lucene.document.key") String defaultField,
+                           final Version version, final Analyzer analyzer) {
+        this.defaultField = defaultField;
+        this.version = version;
+        this.analyzer = analyzer;
+    }
+
+    /**
+     * Create query matching the <code>value</code> in the <code>field</code>. When the analyzer split the value into
+     * multiple terms, the terms must appear next to each other in the field.
+     *
+     * @param field the name of the field.
+     * @param value the value of the field.
+     * @return query matching the value in the field.
+     */
+    public Query term(final String field, final String value) {
+        PhraseQuery query = analyze(field, value);
+        Term[] terms = query.getTerms();
+        if (terms.length == 1)
+            return new TermQuery(terms[0]);
+        return query;
+    }
+
+    /**
+     * Create query matching the <code>value</code> in the <code>field</code> of the <code>type</code>. Keyword field
+     * only match the exact value, numeric and date field match the value converted into number, while text field match
+     * the analyzed value.
+     *
+     * @param field the name of the field.
+     * @param type  the type of the field.
+     * @param value the value of the field.
+     * @return query matching the value in the field.
+     * @throws com.burkeware.search.api.exception.ParseException when the value can't be converted for the type.
+     */
+    public Query term(final String field, final FieldType type, final String value) {
+        if (type == FieldType.KEYWORD)
+            return new TermQuery(new Term(field, value));
+        if (type.isNumeric()) {
+            Number number = type.toNumber(value);
+            return numericRange(field, type, number, number, true, true);
+        }
+        return term(field, value);
+    }
+
+    /**
+     * Create query matching the sequence of terms produced by analyzing the <code>value</code>.
+     *
+     * @param field the name of the field.
+     * @param value the phrase.
+     * @return query matching the phrase in the field.
+     */
+    public Query phrase(final String field, final String value) {
+        return analyze(field, value);
+    }
+
+    /**
+     * Create query matching the terms starting with the <code>prefix</code>. The prefix is not analyzed, but it will be
+     * lower cased the same way the query parser lower cased the prefix terms.
+     *
+     * @param field  the name of the field.
+     * @param prefix the prefix of the terms.
+     * @return query matching the terms with the prefix.
+     */
+    public Query prefix(final String field, final String prefix) {
+        return new PrefixQuery(new Term(field, prefix.toLowerCase()));
+    }
+
+    /**
+     * Create query matching the terms between the <code>lower</code> and <code>upper</code> terms. Pass null as the
+     * lower or upper term to create an open ended range.
+     *
+     * @param field        the name of the field.
+     * @param lower        the lower term of the range.
+     * @param upper        the upper term of the range.
+     * @param includeLower flag whether the lower term is included in the range.
+     * @param includeUpper flag whether the upper term is included in the range.
+     * @return query matching the terms within the range.
+     */
+    public Query range(final String field, final String lower, final String upper,
+                       final boolean includeLower, final boolean includeUpper) {
+        String lowerTerm = lower != null ? lower.toLowerCase() : null;
+        String upperTerm = upper != null ? upper.toLowerCase() : null;
+        return new TermRangeQuery(field, lowerTerm, upperTerm, includeLower, includeUpper);
+    }
+
+    /**
+     * Create query matching the values between the <code>lower</code> and <code>upper</code> values in the
+     * <code>field</code> of the <code>type</code>. Pass null as the lower or upper value to create an open ended range.
+     *
+     * @param field        the name of the field.
+     * @param type         the type of the field.
+     * @param lower        the lower value of the range.
+     * @param upper        the upper value of the range.
+     * @param includeLower flag whether the lower value is included in the range.
+     * @param includeUpper flag whether the upper value is included in the range.
+     * @return query matching the values within the range.
+     * @throws com.burkeware.search.api.exception.ParseException when the values can't be converted for the type.
+     */
+    public Query range(final String field, final FieldType type, final String lower, final String upper,
+                       final boolean includeLower, final boolean includeUpper) {
+        if (type == FieldType.KEYWORD)
+            return new TermRangeQuery(field, lower, upper, includeLower, includeUpper);
+        if (type.isNumeric()) {
+            Number lowerNumber = lower != null ? type.toNumber(lower) : null;
+            Number upperNumber = upper != null ? type.toNumber(upper) : null;
+            return numericRange(field, type, lowerNumber, upperNumber, includeLower, includeUpper);
+        }
+        return range(field, lower, upper, includeLower, includeUpper);
+    }
+
+    /**
+     * Create query matching the values between the <code>lower</code> and <code>upper</code> values of an int field.
+     *
+     * @param field        the name of the int field.
+     * @param lower        the lower value of the range or null for open ended range.
+     * @param upper        the upper value of the range or null for open ended range.
+     * @param includeLower flag whether the lower value is included in the range.
+     * @param includeUpper flag whether the upper value is included in the range.
+     * @return query matching the values within the range.
+     */
+    public Query range(final String field, final Integer lower, final Integer upper,
+                       final boolean includeLower, final boolean includeUpper) {
+        return NumericRangeQuery.newIntRange(field, lower, upper, includeLower, includeUpper);
+    }
+
+    /**
+     * Create query matching the values between the <code>lower</code> and <code>upper</code> values of a long field.
+     *
+     * @param field        the name of the long field.
+     * @param lower        the lower value of the range or null for open ended range.
+     * @param upper        the upper value of the range or null for open ended range.
+     * @param includeLower flag whether the lower value is included in the range.
+     * @param includeUpper flag whether the upper value is included in the range.
+     * @return query matching the values within the range.
+     */
+    public Query range(final String field, final Long lower, final Long upper,
+                       final boolean includeLower, final boolean includeUpper) {
+        return NumericRangeQuery.newLongRange(field, lower, upper, includeLower, includeUpper);
+    }
+
+    /**
+     * Create query matching the values between the <code>lower</code> and <code>upper</code> values of a double field.
+     *
+     * @param field        the name of the double field.
+     * @param lower        the lower value of the range or null for open ended range.
+     * @param upper        the upper value of the range or null for open ended range.
+     * @param includeLower flag whether the lower value is included in the range.
+     * @param includeUpper flag whether the upper value is included in the range.
+     * @return query matching the values within the range.
+     */
+    public Query range(final String field, final Double lower, final Double upper,
+                       final boolean includeLower, final boolean includeUpper) {
+        return NumericRangeQuery.newDoubleRange(field, lower, upper, includeLower, includeUpper);
+    }
+
+    /**
+     * Create query matching the dates between the <code>lower</code> and <code>upper</code> dates of a date field.
+     *
+     * @param field        the name of the date field.
+     * @param lower        the lower date of the range or null for open ended range.
+     * @param upper        the upper date of the range or null for open ended range.
+     * @param includeLower flag whether the lower date is included in the range.
+     * @param includeUpper flag whether the upper date is included in the range.
+     * @return query matching the dates within the range.
+     */
+    public Query range(final String field, final Date lower, final Date upper,
+                       final boolean includeLower, final boolean includeUpper) {
+        Long lowerTime = lower != null ? lower.getTime() : null;
+        Long upperTime = upper != null ? upper.getTime() : null;
+        return NumericRangeQuery.newLongRange(field, lowerTime, upperTime, includeLower, includeUpper);
+    }
+
+    /**
+     * Create query matching the documents matching all the <code>queries</code>.
+     *
+     * @param queries the queries.
+     * @return query matching all the queries.
+     */
+    public Query and(final Query... queries) {
+        return combine(BooleanClause.Occur.MUST, queries);
+    }
+
+    /**
+     * Create query matching the documents matching at least one of the <code>queries</code>.
+     *
+     * @param queries the queries.
+     * @return query matching at least one of the queries.
+     */
+    public Query or(final Query... queries) {
+        return combine(BooleanClause.Occur.SHOULD, queries);
+    }
+
+    /**
+     * Create query matching all documents not matching the <code>query</code>. Combine the query with other query
+     * using <code>and</code> to exclude documents from the other query.
+     *
+     * @param query the query.
+     * @return query matching all documents except the documents matching the query.
+     */
+    public Query not(final Query query) {
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        booleanQuery.add(query, BooleanClause.Occur.MUST_NOT);
+        return booleanQuery;
+    }
+
+    /**
+     * Parse the lucene query string into query object. A new query parser is created for every call because the lucene
+     * query parser is not thread safe.
+     *
+     * @param queryString the lucene query string.
+     * @return the query object.
+     * @throws ParseException when the query string is not a valid lucene query.
+     */
+    public Query parse(final String queryString) throws ParseException {
+        QueryParser parser = new QueryParser(version, defaultField, analyzer);
+        return parser.parse(queryString);
+    }
+
+    /**
+     * Parse the lucene query string into query object using the type of the searchable fields. Term and range query on
+     * keyword, numeric and date fields will be created the same way as <code>term</code> and <code>range</code> with
+     * the field type, for example: "age:[15 TO 24]" will match the age numerically. Use "*" as the lower or upper
+     * value to create an open ended range.
+     *
+     * @param queryString the lucene query string.
+     * @param fields      the searchable fields which can be used in the query string.
+     * @return the query object.
+     * @throws ParseException when the query string is not a valid lucene query.
+     */
+    public Query parse(final String queryString, final Collection<SearchableField> fields) throws ParseException {
+        Map<String, FieldType> types = new HashMap<String, FieldType>();
+        for (SearchableField field : fields) {
+            if (field.getType() != FieldType.TEXT)
+                types.put(field.getName(), field.getType());
+        }
+        if (types.isEmpty())
+            return parse(queryString);
+        return new TypedQueryParser(types).parse(queryString);
+    }
+
+    private Query numericRange(final String field, final FieldType type, final Number lower, final Number upper,
+                               final boolean includeLower, final boolean includeUpper) {
+        if (type == FieldType.INT) {
+            Integer lowerValue = lower != null ? lower.intValue() : null;
+            Integer upperValue = upper != null ? upper.intValue() : null;
+            return range(field, lowerValue, upperValue, includeLower, includeUpper);
+        }
+        if (type == FieldType.DOUBLE) {
+            Double lowerValue = lower != null ? lower.doubleValue() : null;
+            Double upperValue = upper != null ? upper.doubleValue() : null;
+            return range(field, lowerValue, upperValue, includeLower, includeUpper);
+        }
+        Long lowerValue = lower != null ? lower.longValue() : null;
+        Long upperValue = upper != null ? upper.longValue() : null;
+        return range(field, lowerValue, upperValue, includeLower, includeUpper);
+    }
+
+    private Query combine(final BooleanClause.Occur occur, final Query... queries) {
+        BooleanQuery booleanQuery = new BooleanQuery();
+        for (Query query : queries)
+            booleanQuery.add(query, occur);
+        return booleanQuery;
+    }
+
+    /**
+     * Analyze the value into a phrase using the analyzer of the local repository. The position of each term is kept,
+     * so terms removed by the analyzer (for example, stop words) leave the same gap as in the indexed documents.
+     *
+     * @param field the name of the field.
+     * @param value the value to be analyzed.
+     * @return the phrase query containing the terms of the value.
+     */
+    private PhraseQuery analyze(final String field, final String value) {
+        PhraseQuery query = new PhraseQuery();
+        try {
+            TokenStream stream = analyzer.reusableTokenStream(field, new StringReader(value));
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            PositionIncrementAttribute positionAttribute = stream.addAttribute(PositionIncrementAttribute.class);
+            int position = -1;
+            stream.reset();
+            while (stream.incrementToken()) {
+                position = position + positionAttribute.getPositionIncrement();
+                query.add(new Term(field, termAttribute.toString()), position);
+            }
+            stream.end();
+            stream.close();
+        } catch (IOException e) {
+            // reading from string reader will not throw any exception
+            throw new IllegalStateException("Unable to analyze value: '" + value + "' for field: " + field, e);
+        }
+        return query;
+    }
+
+    /**
+     * Query parser which create the term and range query for keyword, numeric and date fields based on the field type.
+     * Text fields are parsed the same way as the default lucene query parser.
+     */
+    private class TypedQueryParser extends QueryParser {
+
+        private static final String OPEN_END = "*";
+
+        private final Map<String, FieldType> types;
+
+        private TypedQueryParser(final Map<String, FieldType> types) {
+            super(version, defaultField, analyzer);
+            this.types = types;
+        }
+
+        @Override
+        protected Query getFieldQuery(final String field, final String queryText, final boolean quoted)
+                throws ParseException {
+            FieldType type = types.get(field);
+            if (type == null)
+                return super.getFieldQuery(field, queryText, quoted);
+            try {
+                return term(field, type, queryText);
+            } catch (com.burkeware.search.api.exception.ParseException e) {
+                throw new ParseException(e.getMessage());
+            }
+        }
+
+        @Override
+        protected Query getRangeQuery(final String field, final String part1, final String part2,
+                                      final boolean inclusive) throws ParseException {
+            FieldType type = types.get(field);
+            if (type == null)
+                return super.getRangeQuery(field, part1, part2, inclusive);
+            try {
+                String lower = OPEN_END.equals(part1) ? null : part1;
+                String upper = OPEN_END.equals(part2) ? null : part2;
+                return range(field, type, lower, upper, inclusive, inclusive);
+            } catch (com.burkeware.search.api.exception.ParseException e) {
+                throw new ParseException(e.getMessage());
+            }
+        }
+    }
+}
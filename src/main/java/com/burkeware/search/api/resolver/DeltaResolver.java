@@ -0,0 +1,33 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.resolver;
+
+import java.util.Date;
+
+/**
+ * Resolver for REST resources which can return only the objects changed after a certain time. Resources using this
+ * resolver can be synchronized incrementally using <code>RestAssuredService.syncObjects</code>.
+ */
+public interface DeltaResolver extends Resolver {
+
+    /**
+     * Return the full REST resource for the objects matching the search string which were changed after the
+     * <code>since</code> time.
+     *
+     * @param searchString the search string
+     * @param since        the time of the last successful synchronization, based on the server clock
+     * @return full URI to the REST resource returning the changed objects
+     */
+    String resolve(final String searchString, final Date since);
+}
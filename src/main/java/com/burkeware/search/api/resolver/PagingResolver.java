@@ -0,0 +1,34 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.resolver;
+
+/**
+ * Resolver for REST resources which can return the objects one page at a time. Resources using this resolver will be
+ * loaded using <code>RestAssuredService.loadObjects</code> by fetching several pages concurrently, and each page will
+ * be indexed as soon as it arrives.
+ */
+public interface PagingResolver extends Resolver {
+
+    /**
+     * Return the full REST resource for a single page of the objects matching the search string. The REST resource
+     * could return less than <code>limit</code> objects, for example when the server caps the page size, and the
+     * following page will start right after the returned objects. An empty page is the last page of the objects.
+     *
+     * @param searchString the search string
+     * @param startIndex   the index of the first object in the page, starting from 0
+     * @param limit        the maximum number of objects in the page
+     * @return full URI to the REST resource returning the page of objects
+     */
+    String resolve(final String searchString, final int startIndex, final int limit);
+}
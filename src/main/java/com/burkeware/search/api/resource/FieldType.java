@@ -0,0 +1,143 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.resource;
+
+import com.burkeware.search.api.exception.ParseException;
+import com.burkeware.search.api.util.ISO8601Util;
+import com.burkeware.search.api.util.StringUtil;
+
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * Type of a searchable field. The type decides how the value of the field is indexed and how the query for the field
+ * is created:
+ * <pre>
+ * text    : the value is analyzed into terms, this is the default
+ * keyword : the value is indexed as a single term without analysis, so it only match the exact value
+ * int     : the value is indexed as a trie encoded integer, allowing fast numeric range query
+ * long    : the value is indexed as a trie encoded long, allowing fast numeric range query
+ * double  : the value is indexed as a trie encoded double, allowing fast numeric range query
+ * date    : the ISO 8601 value is indexed as a trie encoded long of the milliseconds since epoch
+ * </pre>
+ */
+public class FieldType {
+
+    public static final FieldType TEXT = new FieldType("text");
+
+    public static final FieldType KEYWORD = new FieldType("keyword");
+
+    public static final FieldType INT = new FieldType("int");
+
+    public static final FieldType LONG = new FieldType("long");
+
+    public static final FieldType DOUBLE = new FieldType("double");
+
+    public static final FieldType DATE = new FieldType("date");
+
+    private static final FieldType[] TYPES = {TEXT, KEYWORD, INT, LONG, DOUBLE, DATE};
+
+    private static final String DATE_ONLY_PATTERN = "^\\d{4}-\\d{2}-\\d{2}$";
+
+    private final String name;
+
+    private FieldType(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Flag to determine whether the value of this type is indexed as a trie encoded number.
+     *
+     * @return true if the value of this type is indexed as a number.
+     */
+    public boolean isNumeric() {
+        return this == INT || this == LONG || this == DOUBLE || this == DATE;
+    }
+
+    /**
+     * Convert the value into the number indexed for this type. Date value can be a <code>Date</code>, a
+     * <code>Calendar</code>, an ISO 8601 string or a plain "yyyy-MM-dd" date string (midnight UTC). Int and long value
+     * must be a whole number within the range of the type, the value will never be truncated or wrapped.
+     *
+     * @param value the value from the json object or the query.
+     * @return the number representation of the value.
+     * @throws ParseException when the value can't be converted into the number for this type.
+     */
+    public Number toNumber(final Object value) {
+        try {
+            String text = String.valueOf(value).trim();
+            if (this == INT)
+                return value instanceof Number ? toDecimal((Number) value).intValueExact() : Integer.valueOf(text);
+            if (this == LONG)
+                return value instanceof Number ? toDecimal((Number) value).longValueExact() : Long.valueOf(text);
+            if (this == DOUBLE)
+                return value instanceof Number ? ((Number) value).doubleValue() : Double.valueOf(text);
+            if (this == DATE)
+                return toMillis(value, text);
+        } catch (NumberFormatException e) {
+            throw new ParseException("Unable to convert '" + value + "' into " + name + " value.", e);
+        } catch (ArithmeticException e) {
+            throw new ParseException("Unable to convert '" + value + "' into " + name + " value.", e);
+        } catch (java.text.ParseException e) {
+            throw new ParseException("Unable to convert '" + value + "' into " + name + " value.", e);
+        }
+        throw new ParseException("Value of " + name + " field is not a number.");
+    }
+
+    private BigDecimal toDecimal(final Number value) {
+        if (value instanceof BigDecimal)
+            return (BigDecimal) value;
+        // the string form keeps the exact value of the number, NaN and infinity will fail with NumberFormatException
+        return new BigDecimal(value.toString());
+    }
+
+    private long toMillis(final Object value, final String text) throws java.text.ParseException {
+        if (value instanceof Date)
+            return ((Date) value).getTime();
+        if (value instanceof Calendar)
+            return ((Calendar) value).getTimeInMillis();
+        if (value instanceof Number)
+            return ((Number) value).longValue();
+        if (text.matches(DATE_ONLY_PATTERN))
+            return ISO8601Util.toCalendar(text + "T00:00:00.000Z").getTimeInMillis();
+        return ISO8601Util.toCalendar(text).getTimeInMillis();
+    }
+
+    /**
+     * Get the field type with the matching name. The name is not case sensitive.
+     *
+     * @param name the name of the type.
+     * @return the field type or text type when the name is empty.
+     * @throws ParseException when there's no type with the matching name.
+     */
+    public static FieldType getType(final String name) {
+        if (StringUtil.isBlank(name))
+            return TEXT;
+        for (FieldType type : TYPES) {
+            if (StringUtil.equalsIgnoreCase(type.getName(), name.trim()))
+                return type;
+        }
+        throw new ParseException("Unknown searchable field type: '" + name + "'.");
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
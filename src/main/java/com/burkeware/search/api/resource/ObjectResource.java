@@ -16,6 +16,8 @@ package com.burkeware.search.api.resource;
 
 import com.burkeware.search.api.resolver.Resolver;
 import com.burkeware.search.api.serialization.Algorithm;
+import com.burkeware.search.api.util.JsonPathUtil;
+import com.jayway.jsonpath.JsonPath;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +28,8 @@ public class ObjectResource implements Resource {
 
     private final String rootNode;
 
+    private final JsonPath compiledRootNode;
+
     private final Class objectClass;
 
     private final Algorithm algorithm;
@@ -38,6 +42,7 @@ public class ObjectResource implements Resource {
                           final Algorithm algorithm, final Resolver resolver) {
         this.name = name;
         this.rootNode = rootNode;
+        this.compiledRootNode = JsonPathUtil.compile(rootNode);
         this.objectClass = objectClass;
         this.algorithm = algorithm;
         this.resolver = resolver;
@@ -135,6 +140,18 @@ public class ObjectResource implements Resource {
         return this.rootNode;
     }
 
+    /**
+     * Get the compiled root node's <a href="http://goessner.net/articles/JsonPath/">JsonPath</a> expression. The
+     * expression is compiled once when the resource is created.
+     *
+     * @return the compiled root node's JsonPath expression
+     * @see #getRootNode()
+     */
+    @Override
+    public JsonPath getCompiledRootNode() {
+        return this.compiledRootNode;
+    }
+
     /**
      * Get the resource class for which this resource applicable to. This class will denote what kind of class this
      * Resource will return when client call the de-serialize method.
@@ -185,6 +202,37 @@ public class ObjectResource implements Resource {
         getSearchableFields().add(new SearchableField(name, expression, unique));
     }
 
+    /**
+     * Add a new searchable field with the field type for the current resource object.
+     *
+     * @param name       the name of the field
+     * @param expression the JsonPath expression to retrieve the value for the field
+     * @param unique     flag whether this field can uniquely identify an object for this resource
+     * @param type       the type of the field
+     * @see com.burkeware.search.api.resource.FieldType
+     */
+    @Override
+    public void addFieldDefinition(final String name, final String expression, final Boolean unique,
+                                   final FieldType type) {
+        getSearchableFields().add(new SearchableField(name, expression, unique, type));
+    }
+
+    /**
+     * Add a new searchable field with the field type and the sortable flag for the current resource object.
+     *
+     * @param name       the name of the field
+     * @param expression the JsonPath expression to retrieve the value for the field
+     * @param unique     flag whether this field can uniquely identify an object for this resource
+     * @param type       the type of the field
+     * @param sortable   flag whether the search result can be sorted using this field
+     * @see com.burkeware.search.api.query.Order
+     */
+    @Override
+    public void addFieldDefinition(final String name, final String expression, final Boolean unique,
+                                   final FieldType type, final Boolean sortable) {
+        getSearchableFields().add(new SearchableField(name, expression, unique, type, sortable));
+    }
+
     /**
      * Get all searchable fields configuration for this resource. Searchable field are a field on which a client can
      * do filter and search. The search / query string will in the form of <a href="https://lucene.apache
@@ -16,6 +16,7 @@ package com.burkeware.search.api.resource;
 
 import com.burkeware.search.api.resolver.Resolver;
 import com.burkeware.search.api.serialization.Algorithm;
+import com.jayway.jsonpath.JsonPath;
 
 import java.util.List;
 
@@ -115,6 +116,15 @@ public interface Resource {
      */
     String getRootNode();
 
+    /**
+     * Get the compiled root node's <a href="http://goessner.net/articles/JsonPath/">JsonPath</a> expression. The
+     * expression is compiled once when the resource is created.
+     *
+     * @return the compiled root node's JsonPath expression
+     * @see #getRootNode()
+     */
+    JsonPath getCompiledRootNode();
+
     /**
      * Get the resource class for which this resource applicable to. This class will denote what kind of class this
      * Resource will return when client call the de-serialize method.
@@ -153,6 +163,32 @@ public interface Resource {
      */
     void addFieldDefinition(String name, String expression, Boolean unique);
 
+    /**
+     * Add a new searchable field with the field type for the current resource object. The field type decides how the
+     * value of the field is indexed, for example numeric and date field are indexed as numbers to support fast range
+     * query.
+     *
+     * @param name       the name of the field
+     * @param expression the JsonPath expression to retrieve the value for the field
+     * @param unique     flag whether this field can uniquely identify an object for this resource
+     * @param type       the type of the field
+     * @see com.burkeware.search.api.resource.FieldType
+     */
+    void addFieldDefinition(String name, String expression, Boolean unique, FieldType type);
+
+    /**
+     * Add a new searchable field with the field type and the sortable flag for the current resource object. The search
+     * result can be sorted using the value of sortable searchable fields.
+     *
+     * @param name       the name of the field
+     * @param expression the JsonPath expression to retrieve the value for the field
+     * @param unique     flag whether this field can uniquely identify an object for this resource
+     * @param type       the type of the field
+     * @param sortable   flag whether the search result can be sorted using this field
+     * @see com.burkeware.search.api.query.Order
+     */
+    void addFieldDefinition(String name, String expression, Boolean unique, FieldType type, Boolean sortable);
+
     /**
      * Get all searchable fields configuration for this resource. Searchable field are a field on which a client can
      * do filter and search. The search / query string will in the form of <a href="https://lucene.apache
@@ -14,18 +14,39 @@
 
 package com.burkeware.search.api.resource;
 
+import com.burkeware.search.api.util.JsonPathUtil;
+import com.jayway.jsonpath.JsonPath;
+
 public class SearchableField {
 
     private final String name;
 
     private final String expression;
 
+    private final JsonPath compiledExpression;
+
     private final Boolean unique;
 
+    private final FieldType type;
+
+    private final Boolean sortable;
+
     public SearchableField(final String name, final String expression, final Boolean unique) {
+        this(name, expression, unique, FieldType.TEXT);
+    }
+
+    public SearchableField(final String name, final String expression, final Boolean unique, final FieldType type) {
+        this(name, expression, unique, type, Boolean.FALSE);
+    }
+
+    public SearchableField(final String name, final String expression, final Boolean unique, final FieldType type,
+                           final Boolean sortable) {
         this.name = name;
         this.expression = expression;
+        this.compiledExpression = JsonPathUtil.compile(expression);
         this.unique = unique;
+        this.type = type != null ? type : FieldType.TEXT;
+        this.sortable = sortable;
     }
 
     /**
@@ -46,6 +67,16 @@ public class SearchableField {
         return expression;
     }
 
+    /**
+     * Get the compiled expression to get the actual value of the searchable field. The expression is compiled once
+     * when the searchable field is created.
+     *
+     * @return compiled expression to get the value of the searchable value
+     */
+    public JsonPath getCompiledExpression() {
+        return compiledExpression;
+    }
+
     /**
      * Flag to determine whether the value of this field would be unique for a resource.
      *
@@ -54,4 +85,23 @@ public class SearchableField {
     public Boolean isUnique() {
         return unique;
     }
+
+    /**
+     * Get the type of the searchable field. The type decides how the value of the field is indexed and queried.
+     *
+     * @return the type of the field
+     */
+    public FieldType getType() {
+        return type;
+    }
+
+    /**
+     * Flag to determine whether the search result can be sorted using the value of this field. Sortable field will
+     * have additional single term sort value indexed for each object.
+     *
+     * @return true if the search result can be sorted using this field
+     */
+    public Boolean isSortable() {
+        return sortable;
+    }
 }
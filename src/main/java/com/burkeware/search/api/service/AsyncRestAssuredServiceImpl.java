@@ -0,0 +1,430 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.service;
+
+import com.burkeware.search.api.AsyncRestAssuredService;
+import com.burkeware.search.api.RestAssuredService;
+import com.burkeware.search.api.async.Callback;
+import com.burkeware.search.api.async.Task;
+import com.burkeware.search.api.query.Cursor;
+import com.burkeware.search.api.query.Page;
+import com.burkeware.search.api.resource.Resource;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncRestAssuredServiceImpl implements AsyncRestAssuredService {
+
+    private final RestAssuredService restAssuredService;
+
+    private Integer asyncThreads = Runtime.getRuntime().availableProcessors();
+
+    private ExecutorService configuredExecutor;
+
+    private ExecutorService executorService;
+
+    private final Set<CallbackTask<?>> pendingTasks = Collections.synchronizedSet(new HashSet<CallbackTask<?>>());
+
+    @Inject
+    public AsyncRestAssuredServiceImpl(final RestAssuredService restAssuredService) {
+        this.restAssuredService = restAssuredService;
+    }
+
+    /**
+     * Set the number of threads used to execute the asynchronous operations. The default value is the number of
+     * available processors. The value is ignored when the executor is configured.
+     *
+     * @param asyncThreads the number of threads used to execute the asynchronous operations.
+     */
+    @Inject(optional = true)
+    public void setAsyncThreads(final @Named("configuration.async.threads") Integer asyncThreads) {
+        this.asyncThreads = asyncThreads;
+    }
+
+    /**
+     * Set the executor used to execute the asynchronous operations, for example to share the background executor of
+     * the application. The configured executor is owned by the application and will not be shut down by this service.
+     *
+     * @param executorService the executor used to execute the asynchronous operations.
+     */
+    @Inject(optional = true)
+    public void setExecutorService(final @Named("configuration.async.executor") ExecutorService executorService) {
+        this.configuredExecutor = executorService;
+    }
+
+    /**
+     * Get the executor used to execute the asynchronous operations. When no executor is configured, a fixed pool of
+     * daemon threads is created on the first call, so pending operations don't keep the application alive.
+     *
+     * @return the executor.
+     */
+    private synchronized ExecutorService getExecutorService() {
+        if (configuredExecutor != null)
+            return configuredExecutor;
+        if (executorService == null) {
+            executorService = Executors.newFixedThreadPool(asyncThreads, new ThreadFactory() {
+
+                private final AtomicInteger counter = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    Thread thread = new Thread(runnable, "restassured-async-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executorService;
+    }
+
+    /**
+     * Execute the task asynchronously against the synchronous service layer.
+     *
+     * @param task     the task to be executed.
+     * @param callback the callback to be notified when the task completes or null.
+     * @return the future of the result of the task.
+     */
+    @Override
+    public <T> Future<T> submit(final Task<T> task, final Callback<T> callback) {
+        CallbackTask<T> future = new CallbackTask<T>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                return task.execute(restAssuredService);
+            }
+        }, callback);
+        pendingTasks.add(future);
+        try {
+            getExecutorService().execute(future);
+        } catch (RuntimeException e) {
+            pendingTasks.remove(future);
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * Load objects described using the <code>resource</code> into the local repository asynchronously.
+     *
+     * @param searchString the string to filter object that from the REST resource.
+     * @param resource     the resource object which will describe how to index the json resource to lucene.
+     * @param callback     the callback to be notified when the load completes or null.
+     * @return the future of the load.
+     */
+    @Override
+    public Future<Void> loadObjects(final String searchString, final Resource resource,
+                                    final Callback<Void> callback) {
+        return submit(new Task<Void>() {
+            @Override
+            public Void execute(final RestAssuredService service) throws Exception {
+                service.loadObjects(searchString, resource);
+                return null;
+            }
+        }, callback);
+    }
+
+    /**
+     * Synchronize the objects described using the <code>resource</code> with the REST resource asynchronously.
+     *
+     * @param searchString the string to filter object that from the REST resource.
+     * @param resource     the resource object which will describe how to index the json resource to lucene.
+     * @param callback     the callback to be notified when the synchronization completes or null.
+     * @return the future of the synchronization.
+     */
+    @Override
+    public Future<Void> syncObjects(final String searchString, final Resource resource,
+                                    final Callback<Void> callback) {
+        return submit(new Task<Void>() {
+            @Override
+            public Void execute(final RestAssuredService service) throws Exception {
+                service.syncObjects(searchString, resource);
+                return null;
+            }
+        }, callback);
+    }
+
+    /**
+     * Search for an object with matching <code>key</code> and <code>clazz</code> type asynchronously.
+     *
+     * @param key      the key to distinguish the object
+     * @param clazz    the expected return type of the object
+     * @param callback the callback to be notified with the object or null.
+     * @return the future of the object with matching key and clazz or null
+     */
+    @Override
+    public <T> Future<T> getObject(final String key, final Class<T> clazz, final Callback<T> callback) {
+        return submit(new Task<T>() {
+            @Override
+            public T execute(final RestAssuredService service) throws Exception {
+                return service.getObject(key, clazz);
+            }
+        }, callback);
+    }
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>clazz</code> type asynchronously.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @param callback     the callback to be notified with the objects or null.
+     * @return the future of the objects matching the search string and clazz
+     */
+    @Override
+    public <T> Future<List<T>> getObjects(final String searchString, final Class<T> clazz,
+                                          final Callback<List<T>> callback) {
+        return submit(new Task<List<T>>() {
+            @Override
+            public List<T> execute(final RestAssuredService service) throws Exception {
+                return service.getObjects(searchString, clazz);
+            }
+        }, callback);
+    }
+
+    /**
+     * Search for a page of objects with matching <code>searchString</code> and <code>clazz</code> type asynchronously.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @param cursor       the cursor returned by the previous page or null for the first page
+     * @param limit        the maximum number of objects in the page
+     * @param callback     the callback to be notified with the page or null.
+     * @return the future of the page of objects
+     */
+    @Override
+    public <T> Future<Page<T>> getObjects(final String searchString, final Class<T> clazz, final Cursor cursor,
+                                          final int limit, final Callback<Page<T>> callback) {
+        return submit(new Task<Page<T>>() {
+            @Override
+            public Page<T> execute(final RestAssuredService service) throws Exception {
+                return service.getObjects(searchString, clazz, cursor, limit);
+            }
+        }, callback);
+    }
+
+    /**
+     * Count the objects with matching <code>searchString</code> and <code>clazz</code> type asynchronously.
+     *
+     * @param searchString the search string to limit the counted objects
+     * @param clazz        the type of the objects
+     * @param callback     the callback to be notified with the number of objects or null.
+     * @return the future of the number of matching objects
+     */
+    @Override
+    public Future<Integer> count(final String searchString, final Class<?> clazz, final Callback<Integer> callback) {
+        return submit(new Task<Integer>() {
+            @Override
+            public Integer execute(final RestAssuredService service) throws Exception {
+                return service.count(searchString, clazz);
+            }
+        }, callback);
+    }
+
+    /**
+     * Create the objects in the local repository asynchronously.
+     *
+     * @param objects  the objects to be created.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @param callback the callback to be notified with the created objects or null.
+     * @return the future of the created objects.
+     */
+    @Override
+    public Future<List<Object>> createObjects(final Collection<?> objects, final Resource resource,
+                                              final Callback<List<Object>> callback) {
+        return submit(new Task<List<Object>>() {
+            @Override
+            public List<Object> execute(final RestAssuredService service) throws Exception {
+                return service.createObjects(objects, resource);
+            }
+        }, callback);
+    }
+
+    /**
+     * Update the objects in the local repository asynchronously.
+     *
+     * @param objects  the objects to be updated.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @param callback the callback to be notified with the updated objects or null.
+     * @return the future of the updated objects.
+     */
+    @Override
+    public Future<List<Object>> updateObjects(final Collection<?> objects, final Resource resource,
+                                              final Callback<List<Object>> callback) {
+        return submit(new Task<List<Object>>() {
+            @Override
+            public List<Object> execute(final RestAssuredService service) throws Exception {
+                return service.updateObjects(objects, resource);
+            }
+        }, callback);
+    }
+
+    /**
+     * Remove the objects from the local repository asynchronously.
+     *
+     * @param objects  the objects to be removed.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @param callback the callback to be notified with the removed objects or null.
+     * @return the future of the removed objects.
+     */
+    @Override
+    public Future<List<Object>> invalidateObjects(final Collection<?> objects, final Resource resource,
+                                                  final Callback<List<Object>> callback) {
+        return submit(new Task<List<Object>>() {
+            @Override
+            public List<Object> execute(final RestAssuredService service) throws Exception {
+                return service.invalidateObjects(objects, resource);
+            }
+        }, callback);
+    }
+
+    /**
+     * Wait for the submitted operations to complete and then release the local repository. The executor created by
+     * this service is shut down, the next operation will create a new executor and re-open the local repository. The
+     * configured executor is left running, but the operations submitted through this service are still waited for.
+     *
+     * @throws IOException when closing the local repository failed or the wait was interrupted.
+     */
+    @Override
+    public void close() throws IOException {
+        ExecutorService executor;
+        synchronized (this) {
+            executor = executorService;
+            executorService = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the submitted operations.");
+            }
+        }
+        awaitPendingTasks();
+        restAssuredService.close();
+    }
+
+    /**
+     * Wait for the operations which are still pending, including the operations submitted while waiting. A cancelled
+     * operation which is already running is waited for as well, because it keeps running until it completes. The
+     * failure of an operation is already reported through its future and callback, so it is ignored here.
+     *
+     * @throws IOException when the wait was interrupted.
+     */
+    private void awaitPendingTasks() throws IOException {
+        List<CallbackTask<?>> tasks;
+        synchronized (pendingTasks) {
+            tasks = new ArrayList<CallbackTask<?>>(pendingTasks);
+        }
+        while (!tasks.isEmpty()) {
+            for (CallbackTask<?> task : tasks) {
+                try {
+                    task.finished.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the submitted operations.");
+                }
+                pendingTasks.remove(task);
+            }
+            synchronized (pendingTasks) {
+                tasks = new ArrayList<CallbackTask<?>>(pendingTasks);
+            }
+        }
+    }
+
+    /**
+     * Future which notifies the callback when the operation completes, fails or is cancelled, and removes itself from
+     * the pending operations once the operation stopped running.
+     * <p/>
+     * Cancelling the future never interrupts the running operation, whatever <code>mayInterruptIfRunning</code> is.
+     * An interrupt during the I/O of the local repository closes the file channel of the nio directory, and every
+     * following operation on the repository would fail. The running operation completes in the background instead.
+     */
+    private class CallbackTask<T> extends FutureTask<T> {
+
+        private final Callback<T> callback;
+
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        private CallbackTask(final Callable<T> callable, final Callback<T> callback) {
+            super(callable);
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            running.set(true);
+            try {
+                super.run();
+            } finally {
+                finish();
+            }
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(false);
+            // the operation will never run when it's cancelled before it started
+            if (cancelled && !running.get())
+                finish();
+            return cancelled;
+        }
+
+        private void finish() {
+            finished.countDown();
+            pendingTasks.remove(this);
+        }
+
+        @Override
+        protected void done() {
+            if (callback == null)
+                return;
+            T result;
+            try {
+                result = get();
+            } catch (CancellationException e) {
+                callback.onFailure(e);
+                return;
+            } catch (ExecutionException e) {
+                callback.onFailure(e.getCause());
+                return;
+            } catch (InterruptedException e) {
+                // the task is already completed, get will not wait
+                Thread.currentThread().interrupt();
+                return;
+            }
+            callback.onSuccess(result);
+        }
+    }
+}
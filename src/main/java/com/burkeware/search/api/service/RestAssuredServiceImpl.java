@@ -16,27 +16,155 @@ package com.burkeware.search.api.service;
 
 import com.burkeware.search.api.RestAssuredService;
 import com.burkeware.search.api.internal.lucene.Indexer;
+import com.burkeware.search.api.logger.Logger;
+import com.burkeware.search.api.query.Cursor;
+import com.burkeware.search.api.query.Order;
+import com.burkeware.search.api.query.Page;
+import com.burkeware.search.api.resolver.DeltaResolver;
+import com.burkeware.search.api.resolver.PagingResolver;
 import com.burkeware.search.api.resolver.Resolver;
 import com.burkeware.search.api.resource.Resource;
+import com.burkeware.search.api.util.DigestUtil;
+import com.burkeware.search.api.util.StringUtil;
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.search.Query;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 public class RestAssuredServiceImpl implements RestAssuredService {
 
+    private static final String SYNC_KEY_PREFIX = "sync|";
+
+    private static final String FILE_KEY_PREFIX = "file|";
+
+    private static final String VALIDATOR_KEY_PREFIX = "validator|";
+
+    private static final String VALIDATOR_SEPARATOR = "|";
+
+    private static final String GZIP_ENCODING = "gzip";
+
+    private static final Integer DEFAULT_CONNECT_TIMEOUT = 30000;
+
+    private static final Integer DEFAULT_READ_TIMEOUT = 60000;
+
+    private static final Integer DEFAULT_PAGE_SIZE = 100;
+
+    private static final Integer DEFAULT_PAGE_REQUESTS = 4;
+
     private final Indexer indexer;
 
+    private Logger logger;
+
+    private Integer ingestThreads = Runtime.getRuntime().availableProcessors();
+
+    private Integer connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+
+    private Integer readTimeout = DEFAULT_READ_TIMEOUT;
+
+    private Integer pageSize = DEFAULT_PAGE_SIZE;
+
+    private Integer pageRequests = DEFAULT_PAGE_REQUESTS;
+
     @Inject
     public RestAssuredServiceImpl(final Indexer indexer) {
         this.indexer = indexer;
     }
 
+    private Logger getLogger() {
+        return logger;
+    }
+
+    @Inject
+    private void setLogger(final Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Set the number of threads used to load files from a directory. The default value is the number of available
+     * processors. Setting this to 1 will load the files sequentially on the calling thread.
+     *
+     * @param ingestThreads the number of threads used to load files from a directory.
+     */
+    @Inject(optional = true)
+    public void setIngestThreads(final @Named("configuration.lucene.ingest.threads") Integer ingestThreads) {
+        this.ingestThreads = ingestThreads;
+    }
+
+    /**
+     * Set the timeout in milliseconds when opening the connection to the REST resources. The default value is 30
+     * seconds. Setting this to 0 will wait for the connection indefinitely.
+     *
+     * @param connectTimeout the connect timeout in milliseconds.
+     */
+    @Inject(optional = true)
+    public void setConnectTimeout(final @Named("configuration.rest.connect.timeout") Integer connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Set the timeout in milliseconds when reading the response of the REST resources. The default value is 60
+     * seconds. Setting this to 0 will wait for the response indefinitely.
+     *
+     * @param readTimeout the read timeout in milliseconds.
+     */
+    @Inject(optional = true)
+    public void setReadTimeout(final @Named("configuration.rest.read.timeout") Integer readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Set the maximum number of objects requested in a single page from resources using a <code>PagingResolver</code>.
+     * The default value is 100.
+     *
+     * @param pageSize the maximum number of objects in a single page.
+     */
+    @Inject(optional = true)
+    public void setPageSize(final @Named("configuration.rest.page.size") Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Set the maximum number of page requests in flight when loading resources using a <code>PagingResolver</code>.
+     * The default value is 4. Setting this to 1 will fetch the pages sequentially.
+     *
+     * @param pageRequests the maximum number of concurrent page requests.
+     */
+    @Inject(optional = true)
+    public void setPageRequests(final @Named("configuration.rest.page.requests") Integer pageRequests) {
+        this.pageRequests = pageRequests;
+    }
+
     /**
      * Load object described using the <code>resource</code> into local lucene repository. This method will use the URI
      * resolver to resolve the URI of the REST resources and then apply the <code>searchString</code> to limit the data
@@ -48,6 +176,13 @@ public class RestAssuredServiceImpl implements RestAssuredService {
      * _resource : the resource configuration used to convert the json to lucene
      * _date_indexed : date and time when the json was indexed
      * </pre>
+     * When the resource's resolver is a <code>PagingResolver</code>, the objects will be fetched one page at a time
+     * using the configured number of concurrent page requests, and each page will be indexed as soon as it arrives.
+     * All pages will be committed as a single change to the local repository.
+     * <p/>
+     * The <code>ETag</code> and <code>Last-Modified</code> validators of the last URI loaded for each resource are
+     * recorded in the local repository. The following load of the same URI will send the validators, and a REST
+     * resource which is not modified since the last load will not be downloaded and indexed again.
      *
      * @param searchString the string to filter object that from the REST resource.
      * @param resource     the resource object which will describe how to index the json resource to lucene.
@@ -56,19 +191,330 @@ public class RestAssuredServiceImpl implements RestAssuredService {
     public void loadObjects(final String searchString, final Resource resource) throws ParseException, IOException {
 
         Resolver resolver = resource.getResolver();
+        if (resolver instanceof PagingResolver)
+            loadPages(searchString, resource, (PagingResolver) resolver);
+        else
+            loadUri(resource, resolver, resolver.resolve(searchString), null);
+
+        indexer.commit();
+    }
 
-        URL url = new URL(resolver.resolve(searchString));
-        URLConnection connection = url.openConnection();
+    /**
+     * Load the REST resource into the local lucene repository, skipping the REST resource when the server respond with
+     * <code>304 Not Modified</code> to the validators recorded in the last load of the URI. The validators are kept in
+     * the partition of the resource for each URI, so the pages of a paged resource don't replace each other's
+     * validators.
+     *
+     * @param resource   the resource object which will describe how to index the json resource to lucene.
+     * @param resolver   the resolver used to authenticate the connection.
+     * @param uri        the full URI to the REST resource.
+     * @param serverTime the earliest <code>Date</code> header of the server responses or null.
+     * @return the number of objects returned by the REST resource.
+     */
+    private int loadUri(final Resource resource, final Resolver resolver, final String uri,
+                        final AtomicLong serverTime) throws ParseException, IOException {
+        String validatorKey = VALIDATOR_KEY_PREFIX + createDigest(uri);
+        Validator validator = Validator.parse(indexer.getDigest(resource, validatorKey));
+
+        URLConnection connection = openConnection(uri);
+        if (validator != null && connection instanceof HttpURLConnection) {
+            if (validator.lastModified > 0)
+                connection.setIfModifiedSince(validator.lastModified);
+            if (!StringUtil.isEmpty(validator.etag))
+                connection.setRequestProperty("If-None-Match", validator.etag);
+        }
         connection = resolver.authenticate(connection);
 
-        indexer.loadObjects(resource, connection.getInputStream());
+        if (connection instanceof HttpURLConnection) {
+            HttpURLConnection httpConnection = (HttpURLConnection) connection;
+            updateServerTime(serverTime, httpConnection.getDate());
+            if (validator != null && httpConnection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                httpConnection.getInputStream().close();
+                return validator.count;
+            }
+        }
+
+        int count;
+        InputStream inputStream = getInputStream(connection);
+        try {
+            count = indexer.loadObjects(resource, inputStream);
+            drain(inputStream);
+        } finally {
+            inputStream.close();
+        }
+
+        if (connection instanceof HttpURLConnection)
+            indexer.putDigest(resource, validatorKey, Validator.format(count, connection.getLastModified(),
+                    connection.getHeaderField("ETag")));
+        return count;
+    }
+
+    /**
+     * Keep the earliest <code>Date</code> header of the server responses. A synchronization watermark based on the
+     * earliest response will never skip the objects changed while the other pages were loaded.
+     *
+     * @param serverTime the earliest date so far, zero when there's no date yet, or null when the date isn't needed.
+     * @param date       the date of the server response, zero when the server didn't send the header.
+     */
+    private void updateServerTime(final AtomicLong serverTime, final long date) {
+        if (serverTime == null || date <= 0)
+            return;
+        long current;
+        do {
+            current = serverTime.get();
+            if (current > 0 && current <= date)
+                return;
+        } while (!serverTime.compareAndSet(current, date));
+    }
+
+    /**
+     * Create the digest of the URI, the digest identifies the URI of the recorded validators without recording the
+     * URI itself.
+     *
+     * @param uri the full URI to the REST resource.
+     * @return the SHA-1 digest of the URI.
+     */
+    private String createDigest(final String uri) throws IOException {
+        try {
+            return DigestUtil.getSHA1Checksum(uri.getBytes("UTF-8"));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Unable to create the digest of the uri.", e);
+        }
+    }
+
+    /**
+     * Open the connection to the REST resource using the configured timeouts. The connection will ask the server to
+     * compress the response using gzip.
+     *
+     * @param uri the full URI to the REST resource.
+     * @return the connection which is not yet connected to the REST resource.
+     */
+    private URLConnection openConnection(final String uri) throws IOException {
+        URLConnection connection = new URL(uri).openConnection();
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setRequestProperty("Accept-Encoding", GZIP_ENCODING);
+        return connection;
+    }
+
+    /**
+     * Get the response of the REST resource, decompressing the response when the server compressed it using gzip.
+     *
+     * @param connection the connection to the REST resource.
+     * @return the stream of the uncompressed response.
+     */
+    private InputStream getInputStream(final URLConnection connection) throws IOException {
+        InputStream inputStream = connection.getInputStream();
+        if (StringUtil.equalsIgnoreCase(GZIP_ENCODING, connection.getContentEncoding()))
+            return new GZIPInputStream(inputStream);
+        return inputStream;
+    }
+
+    /**
+     * Read the rest of the response after the json payload is indexed. The underlying http connection can only be
+     * reused by the following requests to the same server when the whole response is read before it's closed.
+     *
+     * @param inputStream the stream of the response.
+     */
+    private void drain(final InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[1024 * 4];
+        while (inputStream.read(buffer) != -1) {
+            // skip the content after the json payload
+        }
+    }
+
+    /**
+     * Load all pages of the REST resource into the local lucene repository. The pages are requested with at most the
+     * configured number of requests in flight, and a new page is requested every time a page is indexed. The server
+     * could return less objects than the page size, so the objects following a page are always requested starting
+     * right after the objects the page actually returned. Pages starting one page size further are requested ahead
+     * to keep the requests in flight, and no page will be requested past an empty page.
+     * <p/>
+     * When a page fails, the pages which are not started yet are skipped and the failure is thrown once the pages in
+     * progress are loaded. The page threads are never interrupted, an interrupt during the I/O of the index writer
+     * closes the file channel of the nio directory for every following operation.
+     *
+     * @param searchString the string to filter object that from the REST resource.
+     * @param resource     the resource object which will describe how to index the json resource to lucene.
+     * @param resolver     the resolver used to resolve the URI of each page.
+     * @return the earliest <code>Date</code> header of the page responses or zero when no response has the header.
+     */
+    private long loadPages(final String searchString, final Resource resource, final PagingResolver resolver)
+            throws ParseException, IOException {
+        int requests = Math.max(pageRequests, 1);
+        int limit = Math.max(pageSize, 1);
+        ExecutorService executorService = Executors.newFixedThreadPool(requests);
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicLong serverTime = new AtomicLong();
+        try {
+            CompletionService<Integer> completionService = new ExecutorCompletionService<Integer>(executorService);
+            Map<Future<Integer>, Integer> pendingPages = new HashMap<Future<Integer>, Integer>();
+            Set<Integer> requestedPages = new HashSet<Integer>();
+            SortedSet<Integer> followingPages = new TreeSet<Integer>();
+            followingPages.add(0);
+            int aheadIndex = 0;
+            int endIndex = Integer.MAX_VALUE;
+            while (true) {
+                while (pendingPages.size() < requests) {
+                    int startIndex;
+                    if (!followingPages.isEmpty()) {
+                        startIndex = followingPages.first();
+                        followingPages.remove(startIndex);
+                    } else if (aheadIndex < endIndex) {
+                        startIndex = aheadIndex;
+                    } else {
+                        break;
+                    }
+                    if (startIndex < endIndex && requestedPages.add(startIndex)) {
+                        pendingPages.put(submitPage(completionService, searchString, resource, resolver, startIndex,
+                                limit, stopped, serverTime), startIndex);
+                    }
+                    aheadIndex = Math.max(aheadIndex, startIndex + limit);
+                }
+                if (pendingPages.isEmpty())
+                    break;
+
+                Future<Integer> future = takePage(completionService);
+                int startIndex = pendingPages.remove(future);
+                int count = waitFor(future);
+                if (count > 0)
+                    followingPages.add(startIndex + count);
+                else
+                    endIndex = Math.min(endIndex, startIndex);
+            }
+            return serverTime.get();
+        } finally {
+            stopped.set(true);
+            awaitTermination(executorService);
+        }
+    }
+
+    private Future<Integer> submitPage(final CompletionService<Integer> completionService, final String searchString,
+                                       final Resource resource, final PagingResolver resolver, final int startIndex,
+                                       final int limit, final AtomicBoolean stopped, final AtomicLong serverTime) {
+        return completionService.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                if (stopped.get())
+                    return 0;
+                return loadUri(resource, resolver, resolver.resolve(searchString, startIndex, limit), serverTime);
+            }
+        });
+    }
+
+    private Future<Integer> takePage(final CompletionService<Integer> completionService) throws IOException {
+        try {
+            return completionService.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the pages to be loaded.");
+        }
+    }
+
+    /**
+     * Synchronize the objects described using the <code>resource</code> with the REST resource. The first
+     * synchronization will load all objects, the following synchronization will only load the objects changed since the
+     * last successful synchronization when the resource's resolver is a <code>DeltaResolver</code>. Resources with a
+     * plain resolver will always load all objects.
+     * <p/>
+     * The full synchronization of a resource with a <code>PagingResolver</code> loads all pages the same way
+     * <code>loadObjects</code> does, so it's not cut off at the page size of the server.
+     * <p/>
+     * The synchronization time is taken from the <code>Date</code> header of the server response (the earliest page
+     * response when the pages are loaded), so the watermark passed to the delta resolver is always based on the server
+     * clock. The watermark is only recorded after the payload is indexed, and it's kept in the partition of the
+     * resource so it's committed together with the indexed objects.
+     *
+     * @param searchString the string to filter object that from the REST resource.
+     * @param resource     the resource object which will describe how to index the json resource to lucene.
+     */
+    @Override
+    public void syncObjects(final String searchString, final Resource resource) throws ParseException, IOException {
+        String syncKey = SYNC_KEY_PREFIX + StringUtil.defaultString(searchString);
+        Date lastSync = getLastSync(resource, syncKey);
+
+        Resolver resolver = resource.getResolver();
+        long requestTime = System.currentTimeMillis();
+        long serverTime;
+        if (lastSync != null && resolver instanceof DeltaResolver)
+            serverTime = syncUri(resource, resolver, ((DeltaResolver) resolver).resolve(searchString, lastSync));
+        else if (resolver instanceof PagingResolver)
+            serverTime = loadPages(searchString, resource, (PagingResolver) resolver);
+        else
+            serverTime = syncUri(resource, resolver, resolver.resolve(searchString));
+
+        long syncTime = serverTime > 0 ? serverTime : requestTime;
+        indexer.putDigest(resource, syncKey, String.valueOf(syncTime));
         indexer.commit();
     }
 
+    /**
+     * Load the REST resource into the local lucene repository without sending the recorded validators, so the objects
+     * changed since the last synchronization are always downloaded.
+     *
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @param resolver the resolver used to authenticate the connection.
+     * @param uri      the full URI to the REST resource.
+     * @return the <code>Date</code> header of the server response or zero when the server didn't send the header.
+     */
+    private long syncUri(final Resource resource, final Resolver resolver, final String uri)
+            throws ParseException, IOException {
+        URLConnection connection = resolver.authenticate(openConnection(uri));
+
+        InputStream inputStream = getInputStream(connection);
+        try {
+            indexer.loadObjects(resource, inputStream);
+            drain(inputStream);
+        } finally {
+            inputStream.close();
+        }
+        return connection.getDate();
+    }
+
+    /**
+     * Get the time of the last successful synchronization. A recorded time which can't be parsed is ignored, so the
+     * synchronization falls back to loading all objects and records a new time.
+     *
+     * @param resource the resource being synchronized.
+     * @param syncKey  the key of the recorded synchronization time.
+     * @return the time of the last synchronization or null when there's no valid recorded time.
+     * @throws IOException when reading the recorded time failed.
+     */
+    private Date getLastSync(final Resource resource, final String syncKey) throws IOException {
+        String lastSync = indexer.getDigest(resource, syncKey);
+        if (lastSync == null)
+            return null;
+        try {
+            return new Date(Long.parseLong(lastSync));
+        } catch (NumberFormatException e) {
+            getLogger().warn(this.getClass().getSimpleName(),
+                    "Ignoring the malformed synchronization time '" + lastSync + "', all objects will be loaded.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Synchronize all objects described using the <code>resource</code> with the REST resource.
+     *
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @see com.burkeware.search.api.RestAssuredService#syncObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Override
+    public void syncObjects(final Resource resource) throws ParseException, IOException {
+        syncObjects(StringUtil.EMPTY, resource);
+    }
+
     /**
      * Load object described using the <code>resource</code> into local lucene repository. This method will load locally
      * saved json payload and then apply the <code>searchString</code> to limit the data which will be loaded into the
      * local lucene repository.
+     * <p/>
+     * When the <code>file</code> is a directory, all files inside the directory will be parsed and indexed in parallel
+     * using the configured number of ingest threads. All files will be committed as a single change to the local
+     * repository.
+     * <p/>
+     * The checksum of each loaded file is recorded in the local repository. Files with the same checksum as the last
+     * time they were loaded using the same resource will be skipped.
      *
      * @param searchString the search string to filter object returned from the file.
      * @param resource     the resource object which will describe how to index the json resource to lucene.
@@ -78,30 +524,142 @@ public class RestAssuredServiceImpl implements RestAssuredService {
     @Override
     public void loadObjects(final String searchString, final Resource resource, final File file)
             throws ParseException, IOException {
-        loadObjects(searchString, resource, file, true);
+        List<File> files = new ArrayList<File>();
+        listFiles(file, files);
+
+        if (ingestThreads > 1 && files.size() > 1)
+            loadFiles(resource, files);
+        else
+            for (File jsonFile : files)
+                loadFile(resource, jsonFile);
+
+        indexer.commit();
     }
 
-    private void loadObjects(final String searchString, final Resource resource, final File file,
-                             final boolean commit) throws ParseException, IOException {
+    /**
+     * Recursively collect all files inside the directory.
+     *
+     * @param file  the file (could be a directory too).
+     * @param files the list where the files will be collected.
+     */
+    private void listFiles(final File file, final List<File> files) {
         if (!file.isDirectory()) {
-            FileInputStream stream = null;
-            try {
-                stream = new FileInputStream(file);
-                indexer.loadObjects(resource, stream);
-            } finally {
-                if (stream != null)
-                    stream.close();
-            }
+            files.add(file);
         } else {
-            File[] files = file.listFiles();
-            if (files != null) {
-                for (File jsonFile : files)
-                    loadObjects(searchString, resource, jsonFile, false);
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children)
+                    listFiles(child, files);
             }
         }
+    }
 
-        if (commit)
-            indexer.commit();
+    /**
+     * Load all files into the local lucene repository using a bounded pool of ingest threads. All threads will share
+     * the same index writer.
+     * <p/>
+     * When a file fails, the files which are not started yet are skipped and the failure is thrown once the files in
+     * progress are loaded. The ingest threads are never interrupted, an interrupt during the I/O of the index writer
+     * closes the file channel of the nio directory for every following operation.
+     *
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @param files    the files to be loaded.
+     */
+    private void loadFiles(final Resource resource, final List<File> files) throws ParseException, IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(ingestThreads, files.size()));
+        final AtomicBoolean stopped = new AtomicBoolean();
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (final File jsonFile : files) {
+                futures.add(executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        if (!stopped.get())
+                            loadFile(resource, jsonFile);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures)
+                waitFor(future);
+        } finally {
+            stopped.set(true);
+            awaitTermination(executorService);
+        }
+    }
+
+    /**
+     * Shut down the executor and wait for the running tasks to complete. The interrupt of the calling thread is
+     * restored once the tasks completed, the tasks themselves are never interrupted.
+     *
+     * @param executorService the executor running the tasks.
+     */
+    private void awaitTermination(final ExecutorService executorService) {
+        executorService.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS))
+                    break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Wait for a task to complete and re-throw the exception thrown by the task.
+     *
+     * @param future the task.
+     * @return the value returned by the task.
+     */
+    private <T> T waitFor(final Future<T> future) throws ParseException, IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the objects to be loaded.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ParseException)
+                throw (ParseException) cause;
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IOException("Unable to load the objects into the local repository.", cause);
+        }
+    }
+
+    /**
+     * Load a single file into the local lucene repository, skipping the file when its checksum is the same as the last
+     * time the file was loaded using the resource.
+     *
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @param file     the file to be loaded.
+     */
+    private void loadFile(final Resource resource, final File file) throws ParseException, IOException {
+        String digestKey = FILE_KEY_PREFIX + file.getAbsolutePath();
+        String checksum;
+        try {
+            checksum = DigestUtil.getSHA1Checksum(file);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Unable to create the checksum of the file.", e);
+        }
+        if (StringUtil.equals(checksum, indexer.getDigest(resource, digestKey)))
+            return;
+
+        FileInputStream stream = null;
+        try {
+            stream = new FileInputStream(file);
+            indexer.loadObjects(resource, stream);
+        } finally {
+            if (stream != null)
+                stream.close();
+        }
+        indexer.putDigest(resource, digestKey, checksum);
     }
 
     /**
@@ -139,6 +697,67 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         return indexer.getObject(key, resource);
     }
 
+    /**
+     * Search for an object matching the <code>query</code> and <code>clazz</code> type from the local repository. This
+     * method will only return single object or null if no object match the query. Use the query builder from
+     * <code>Context.getQueryBuilder()</code> to create the query without going through the lucene query parser.
+     *
+     * @param query the query to distinguish the object
+     * @param clazz the expected return type of the object
+     * @return object matching the query and clazz or null
+     */
+    @Override
+    public <T> T getObject(final Query query, final Class<T> clazz) throws IOException {
+        return indexer.getObject(query, clazz);
+    }
+
+    /**
+     * Search for an object matching the <code>query</code> and <code>resource</code> from the local repository. This
+     * method will only return single object or null if no object match the query.
+     *
+     * @param query    the query to distinguish the object
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return object matching the query and resource or null
+     * @see com.burkeware.search.api.RestAssuredService#getObject(org.apache.lucene.search.Query, Class)
+     */
+    @Override
+    public Object getObject(final Query query, final Resource resource) throws IOException {
+        return indexer.getObject(query, resource);
+    }
+
+    /**
+     * Search for the objects with matching <code>keys</code> and <code>clazz</code> type from the local repository in a
+     * single pass. The keys are the values of the unique searchable fields, the same keys returned by
+     * <code>getKeys</code>, and they are resolved directly against the primary keys in the index without going through
+     * the query parser or running a search for each key.
+     * <p/>
+     * The resources registered for the <code>clazz</code> type which doesn't specify unique searchable field can't be
+     * used to resolve the keys.
+     *
+     * @param keys  the keys to distinguish the objects
+     * @param clazz the expected return type of the objects
+     * @return map of the keys and the matching objects. Keys without matching object will not be in the map.
+     */
+    @Override
+    public <T> Map<String, T> getObjectsByKeys(final Collection<String> keys, final Class<T> clazz) throws IOException {
+        return indexer.getObjectsByKeys(keys, clazz);
+    }
+
+    /**
+     * Search for the objects with matching <code>keys</code> and <code>resource</code> from the local repository in a
+     * single pass. The keys are the values of the unique searchable fields of the resource.
+     *
+     * @param keys     the keys to distinguish the objects
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return map of the keys and the matching objects. Keys without matching object will not be in the map.
+     * @see com.burkeware.search.api.RestAssuredService#getObjectsByKeys(java.util.Collection, Class)
+     */
+    @Override
+    public Map<String, Object> getObjectsByKeys(final Collection<String> keys, final Resource resource)
+            throws IOException {
+        return indexer.getObjectsByKeys(keys, resource);
+    }
+
     /**
      * Search for objects with matching <code>searchString</code> and <code>clazz</code> type from the local repository.
      * This method will return list of all matching object or empty list if no object match the search string.
@@ -167,6 +786,424 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         return indexer.getObjects(searchString, resource);
     }
 
+    /**
+     * Search for objects matching the <code>query</code> and <code>clazz</code> type from the local repository. This
+     * method will return list of all matching object or empty list if no object match the query.
+     *
+     * @param query the query to limit the number of returned object
+     * @param clazz the expected return type of the object
+     * @return list of all object matching the <code>query</code> and <code>clazz</code> or empty list
+     */
+    @Override
+    public <T> List<T> getObjects(final Query query, final Class<T> clazz) throws IOException {
+        return indexer.getObjects(query, clazz);
+    }
+
+    /**
+     * Search for objects matching the <code>query</code> and <code>resource</code> from the local repository. This
+     * method will return list of all matching object or empty list if no object match the query.
+     *
+     * @param query    the query to limit the number of returned object
+     * @param resource the resource descriptor used to register the object
+     * @return list of all object matching the <code>query</code> and <code>resource</code> or empty list
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(org.apache.lucene.search.Query, Class)
+     */
+    @Override
+    public List<Object> getObjects(final Query query, final Resource resource) throws IOException {
+        return indexer.getObjects(query, resource);
+    }
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>clazz</code> type from the local repository.
+     * This method will skip the first <code>offset</code> matching objects and return at most <code>limit</code>
+     * objects.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of returned objects
+     * @return list of object within the offset and limit window or empty list
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class)
+     */
+    @Override
+    public <T> List<T> getObjects(final String searchString, final Class<T> clazz, final int offset, final int limit)
+            throws ParseException, IOException {
+        return indexer.getObjects(searchString, clazz, offset, limit);
+    }
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>resource</code> type from the local
+     * repository. This method will skip the first <code>offset</code> matching objects and return at most
+     * <code>limit</code> objects.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param resource     the resource descriptor used to register the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of returned objects
+     * @return list of object within the offset and limit window or empty list
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Override
+    public List<Object> getObjects(final String searchString, final Resource resource, final int offset,
+                                   final int limit) throws ParseException, IOException {
+        return indexer.getObjects(searchString, resource, offset, limit);
+    }
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>clazz</code> type from the local repository
+     * sorted using the <code>orders</code>. Only searchable fields declared as sortable in the resource configuration
+     * can be used in the orders. The search result is sorted before the <code>offset</code> and <code>limit</code>
+     * window is applied, using the sort values indexed for each object without loading the objects.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of objects returned
+     * @param orders       the sort orders, the following orders are used to break the ties of the previous orders
+     * @return list of the sorted objects within the window
+     */
+    @Override
+    public <T> List<T> getObjects(final String searchString, final Class<T> clazz, final int offset,
+                                  final int limit, final Order... orders) throws ParseException, IOException {
+        return indexer.getObjects(searchString, clazz, offset, limit, orders);
+    }
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>resource</code> from the local repository
+     * sorted using the <code>orders</code>.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param resource     the resource descriptor used to register the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of objects returned
+     * @param orders       the sort orders, the following orders are used to break the ties of the previous orders
+     * @return list of the sorted objects within the window
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class, int, int, Order...)
+     */
+    @Override
+    public List<Object> getObjects(final String searchString, final Resource resource, final int offset,
+                                   final int limit, final Order... orders) throws ParseException, IOException {
+        return indexer.getObjects(searchString, resource, offset, limit, orders);
+    }
+
+    /**
+     * Search for objects matching the <code>query</code> and <code>clazz</code> type from the local repository sorted
+     * using the <code>orders</code>.
+     *
+     * @param query  the query to limit the number of returned object
+     * @param clazz  the expected return type of the object
+     * @param offset the number of matching objects to be skipped
+     * @param limit  the maximum number of objects returned
+     * @param orders the sort orders, the following orders are used to break the ties of the previous orders
+     * @return list of the sorted objects within the window
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class, int, int, Order...)
+     */
+    @Override
+    public <T> List<T> getObjects(final Query query, final Class<T> clazz, final int offset, final int limit,
+                                  final Order... orders) throws IOException {
+        return indexer.getObjects(query, clazz, offset, limit, orders);
+    }
+
+    /**
+     * Search for objects matching the <code>query</code> and <code>resource</code> from the local repository sorted
+     * using the <code>orders</code>.
+     *
+     * @param query    the query to limit the number of returned object
+     * @param resource the resource descriptor used to register the object
+     * @param offset   the number of matching objects to be skipped
+     * @param limit    the maximum number of objects returned
+     * @param orders   the sort orders, the following orders are used to break the ties of the previous orders
+     * @return list of the sorted objects within the window
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class, int, int, Order...)
+     */
+    @Override
+    public List<Object> getObjects(final Query query, final Resource resource, final int offset, final int limit,
+                                   final Order... orders) throws IOException {
+        return indexer.getObjects(query, resource, offset, limit, orders);
+    }
+
+    /**
+     * Search for a page of objects with matching <code>searchString</code> and <code>clazz</code> type from the local
+     * repository. Pass null as the <code>cursor</code> to get the first page, and the cursor of the returned page to
+     * get the following page. Only the hits after the cursor will be collected for each page.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @param cursor       the cursor of the previous page or null for the first page
+     * @param limit        the maximum number of objects in the page
+     * @return the page of objects
+     */
+    @Override
+    public <T> Page<T> getObjects(final String searchString, final Class<T> clazz, final Cursor cursor,
+                                  final int limit) throws ParseException, IOException {
+        return indexer.getObjects(searchString, clazz, cursor, limit);
+    }
+
+    /**
+     * Search for a page of objects with matching <code>searchString</code> and <code>resource</code> type from the
+     * local repository. Pass null as the <code>cursor</code> to get the first page, and the cursor of the returned page
+     * to get the following page.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param resource     the resource descriptor used to register the object
+     * @param cursor       the cursor of the previous page or null for the first page
+     * @param limit        the maximum number of objects in the page
+     * @return the page of objects
+     * @see com.burkeware.search.api.RestAssuredService#getObjects(String, Class, Cursor, int)
+     */
+    @Override
+    public Page<Object> getObjects(final String searchString, final Resource resource, final Cursor cursor,
+                                   final int limit) throws ParseException, IOException {
+        return indexer.getObjects(searchString, resource, cursor, limit);
+    }
+
+    /**
+     * Iterate over all objects with matching <code>searchString</code> and <code>clazz</code> type from the local
+     * repository. The search result is collected lazily one page at a time and each object is only deserialized when
+     * the iterator reach the object, so the caller can walk large search result without loading all objects at once.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param clazz        the expected return type of the object
+     * @return lazy iterable of all matching objects
+     */
+    @Override
+    public <T> Iterable<T> iterateObjects(final String searchString, final Class<T> clazz)
+            throws ParseException, IOException {
+        return indexer.iterateObjects(searchString, clazz);
+    }
+
+    /**
+     * Iterate over all objects with matching <code>searchString</code> and <code>resource</code> type from the local
+     * repository. The search result is collected lazily one page at a time.
+     *
+     * @param searchString the search string to limit the number of returned object
+     * @param resource     the resource descriptor used to register the object
+     * @return lazy iterable of all matching objects
+     * @see com.burkeware.search.api.RestAssuredService#iterateObjects(String, Class)
+     */
+    @Override
+    public Iterable<Object> iterateObjects(final String searchString, final Resource resource)
+            throws ParseException, IOException {
+        return indexer.iterateObjects(searchString, resource);
+    }
+
+    /**
+     * Count the objects with matching <code>searchString</code> and <code>clazz</code> type in the local repository.
+     * The matching objects are only counted, they're not read from the local repository.
+     *
+     * @param searchString the search string to limit the counted objects
+     * @param clazz        the expected type of the object
+     * @return the number of matching objects
+     */
+    @Override
+    public int count(final String searchString, final Class<?> clazz) throws ParseException, IOException {
+        return indexer.count(searchString, clazz);
+    }
+
+    /**
+     * Count the objects with matching <code>searchString</code> and <code>resource</code> in the local repository.
+     *
+     * @param searchString the search string to limit the counted objects
+     * @param resource     the resource descriptor used to register the object
+     * @return the number of matching objects
+     * @see com.burkeware.search.api.RestAssuredService#count(String, Class)
+     */
+    @Override
+    public int count(final String searchString, final Resource resource) throws ParseException, IOException {
+        return indexer.count(searchString, resource);
+    }
+
+    /**
+     * Count the objects matching the <code>query</code> and <code>clazz</code> type in the local repository.
+     *
+     * @param query the query to limit the counted objects
+     * @param clazz the expected type of the object
+     * @return the number of matching objects
+     * @see com.burkeware.search.api.RestAssuredService#count(String, Class)
+     */
+    @Override
+    public int count(final Query query, final Class<?> clazz) throws IOException {
+        return indexer.count(query, clazz);
+    }
+
+    /**
+     * Count the objects matching the <code>query</code> and <code>resource</code> in the local repository.
+     *
+     * @param query    the query to limit the counted objects
+     * @param resource the resource descriptor used to register the object
+     * @return the number of matching objects
+     * @see com.burkeware.search.api.RestAssuredService#count(String, Class)
+     */
+    @Override
+    public int count(final Query query, final Resource resource) throws IOException {
+        return indexer.count(query, resource);
+    }
+
+    /**
+     * Check whether any object with matching <code>searchString</code> and <code>clazz</code> type exists in the local
+     * repository. The matching objects are not read from the local repository.
+     *
+     * @param searchString the search string to limit the checked objects
+     * @param clazz        the expected type of the object
+     * @return true when at least one object match the search string and class
+     */
+    @Override
+    public boolean exists(final String searchString, final Class<?> clazz) throws ParseException, IOException {
+        return indexer.exists(searchString, clazz);
+    }
+
+    /**
+     * Check whether any object with matching <code>searchString</code> and <code>resource</code> exists in the local
+     * repository.
+     *
+     * @param searchString the search string to limit the checked objects
+     * @param resource     the resource descriptor used to register the object
+     * @return true when at least one object match the search string and resource
+     * @see com.burkeware.search.api.RestAssuredService#exists(String, Class)
+     */
+    @Override
+    public boolean exists(final String searchString, final Resource resource) throws ParseException, IOException {
+        return indexer.exists(searchString, resource);
+    }
+
+    /**
+     * Check whether any object matching the <code>query</code> and <code>clazz</code> type exists in the local
+     * repository.
+     *
+     * @param query the query to limit the checked objects
+     * @param clazz the expected type of the object
+     * @return true when at least one object match the query and class
+     * @see com.burkeware.search.api.RestAssuredService#exists(String, Class)
+     */
+    @Override
+    public boolean exists(final Query query, final Class<?> clazz) throws IOException {
+        return indexer.exists(query, clazz);
+    }
+
+    /**
+     * Check whether any object matching the <code>query</code> and <code>resource</code> exists in the local
+     * repository.
+     *
+     * @param query    the query to limit the checked objects
+     * @param resource the resource descriptor used to register the object
+     * @return true when at least one object match the query and resource
+     * @see com.burkeware.search.api.RestAssuredService#exists(String, Class)
+     */
+    @Override
+    public boolean exists(final Query query, final Resource resource) throws IOException {
+        return indexer.exists(query, resource);
+    }
+
+    /**
+     * Search for the values of the selected searchable fields of the objects with matching <code>searchString</code>
+     * and <code>clazz</code> type from the local repository. Only the selected fields are read from the local
+     * repository, the objects are not deserialized. Use this method when the caller only need few fields of many
+     * objects, for example to display a list of objects.
+     *
+     * @param searchString the search string to limit the number of returned values
+     * @param clazz        the expected type of the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of values returned
+     * @param fieldNames   the names of the searchable fields to be returned
+     * @return the field name and value pairs of each matching object, in the order of the field names
+     */
+    @Override
+    public List<Map<String, String>> getValues(final String searchString, final Class<?> clazz, final int offset,
+                                               final int limit, final String... fieldNames)
+            throws ParseException, IOException {
+        return indexer.getValues(searchString, clazz, offset, limit, fieldNames);
+    }
+
+    /**
+     * Search for the values of the selected searchable fields of the objects with matching <code>searchString</code>
+     * and <code>resource</code> from the local repository.
+     *
+     * @param searchString the search string to limit the number of returned values
+     * @param resource     the resource descriptor used to register the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of values returned
+     * @param fieldNames   the names of the searchable fields to be returned
+     * @return the field name and value pairs of each matching object, in the order of the field names
+     * @see com.burkeware.search.api.RestAssuredService#getValues(String, Class, int, int, String...)
+     */
+    @Override
+    public List<Map<String, String>> getValues(final String searchString, final Resource resource, final int offset,
+                                               final int limit, final String... fieldNames)
+            throws ParseException, IOException {
+        return indexer.getValues(searchString, resource, offset, limit, fieldNames);
+    }
+
+    /**
+     * Search for the values of the selected searchable fields of the objects matching the <code>query</code> and
+     * <code>clazz</code> type from the local repository.
+     *
+     * @param query      the query to limit the number of returned values
+     * @param clazz      the expected type of the object
+     * @param offset     the number of matching objects to be skipped
+     * @param limit      the maximum number of values returned
+     * @param fieldNames the names of the searchable fields to be returned
+     * @return the field name and value pairs of each matching object, in the order of the field names
+     * @see com.burkeware.search.api.RestAssuredService#getValues(String, Class, int, int, String...)
+     */
+    @Override
+    public List<Map<String, String>> getValues(final Query query, final Class<?> clazz, final int offset,
+                                               final int limit, final String... fieldNames) throws IOException {
+        return indexer.getValues(query, clazz, offset, limit, fieldNames);
+    }
+
+    /**
+     * Search for the values of the selected searchable fields of the objects matching the <code>query</code> and
+     * <code>resource</code> from the local repository.
+     *
+     * @param query      the query to limit the number of returned values
+     * @param resource   the resource descriptor used to register the object
+     * @param offset     the number of matching objects to be skipped
+     * @param limit      the maximum number of values returned
+     * @param fieldNames the names of the searchable fields to be returned
+     * @return the field name and value pairs of each matching object, in the order of the field names
+     * @see com.burkeware.search.api.RestAssuredService#getValues(String, Class, int, int, String...)
+     */
+    @Override
+    public List<Map<String, String>> getValues(final Query query, final Resource resource, final int offset,
+                                               final int limit, final String... fieldNames) throws IOException {
+        return indexer.getValues(query, resource, offset, limit, fieldNames);
+    }
+
+    /**
+     * Search for the keys of the objects with matching <code>searchString</code> and <code>resource</code> from the
+     * local repository. The key of an object is the value of the unique searchable fields of the resource (separated
+     * by "|" when the resource have more than one unique field). Objects indexed using resource without unique
+     * searchable field don't have key and will not be returned.
+     *
+     * @param searchString the search string to limit the number of returned keys
+     * @param resource     the resource descriptor used to register the object
+     * @param offset       the number of matching objects to be skipped
+     * @param limit        the maximum number of keys returned
+     * @return the keys of the matching objects
+     */
+    @Override
+    public List<String> getKeys(final String searchString, final Resource resource, final int offset,
+                                final int limit) throws ParseException, IOException {
+        return indexer.getKeys(searchString, resource, offset, limit);
+    }
+
+    /**
+     * Search for the keys of the objects matching the <code>query</code> and <code>resource</code> from the local
+     * repository.
+     *
+     * @param query    the query to limit the number of returned keys
+     * @param resource the resource descriptor used to register the object
+     * @param offset   the number of matching objects to be skipped
+     * @param limit    the maximum number of keys returned
+     * @return the keys of the matching objects
+     * @see com.burkeware.search.api.RestAssuredService#getKeys(String, Resource, int, int)
+     */
+    @Override
+    public List<String> getKeys(final Query query, final Resource resource, final int offset, final int limit)
+            throws IOException {
+        return indexer.getKeys(query, resource, offset, limit);
+    }
+
     /**
      * Remove an object based on the resource from the local repository. The method will determine if there's unique
      * <code>object</code> in the local repository and then remove it. This method will return null if there's no
@@ -185,6 +1222,20 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         return indexer.deleteObject(object, resource);
     }
 
+    /**
+     * Remove a collection of objects based on the resource from the local repository. All removal will be committed
+     * as a single change to the local repository instead of one commit per object.
+     *
+     * @param objects  the objects to be removed if the objects exists.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return the removed objects.
+     */
+    @Override
+    public List<Object> invalidateObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException {
+        return indexer.deleteObjects(objects, resource);
+    }
+
     /**
      * Create an instance of object in the local repository.
      * <p/>
@@ -200,6 +1251,20 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         return indexer.createObject(object, resource);
     }
 
+    /**
+     * Create a collection of objects in the local repository. All objects will be committed as a single change to the
+     * local repository instead of one commit per object.
+     *
+     * @param objects  the objects to be created
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return the objects that were created
+     */
+    @Override
+    public List<Object> createObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException {
+        return indexer.createObjects(objects, resource);
+    }
+
     /**
      * Update an instance of object in the local repository.
      * <p/>
@@ -215,4 +1280,72 @@ public class RestAssuredServiceImpl implements RestAssuredService {
     public Object updateObject(final Object object, final Resource resource) throws ParseException, IOException {
         return indexer.updateObject(object, resource);
     }
+
+    /**
+     * Update a collection of objects in the local repository. All objects will be committed as a single change to the
+     * local repository instead of one commit per object.
+     *
+     * @param objects  the objects to be updated
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return the objects that were updated
+     */
+    @Override
+    public List<Object> updateObjects(final Collection<?> objects, final Resource resource)
+            throws ParseException, IOException {
+        return indexer.updateObjects(objects, resource);
+    }
+
+    /**
+     * Release the resources held by the local repository. Pending changes will be committed and the underlying
+     * lucene writer and reader will be closed. Calling any other method after this will re-open the local repository.
+     *
+     * @throws IOException when closing the local repository failed.
+     */
+    @Override
+    public void close() throws IOException {
+        indexer.close();
+    }
+
+    /**
+     * Validators recorded in the last load of a URI. The validators are recorded as "count|last modified|etag", the
+     * etag is last as it could contain the separator.
+     */
+    private static class Validator {
+
+        private final int count;
+
+        private final long lastModified;
+
+        private final String etag;
+
+        private Validator(final int count, final long lastModified, final String etag) {
+            this.count = count;
+            this.lastModified = lastModified;
+            this.etag = etag;
+        }
+
+        private static String format(final int count, final long lastModified, final String etag) {
+            return count + VALIDATOR_SEPARATOR + lastModified + VALIDATOR_SEPARATOR + StringUtil.defaultString(etag);
+        }
+
+        /**
+         * Parse the recorded validators. Validators which can't be parsed are treated as if no validators were
+         * recorded, so the REST resource will simply be downloaded again.
+         *
+         * @param value the recorded validators or null.
+         * @return the validators or null.
+         */
+        private static Validator parse(final String value) {
+            if (value == null)
+                return null;
+            String[] parts = value.split(Pattern.quote(VALIDATOR_SEPARATOR), 3);
+            if (parts.length != 3)
+                return null;
+            try {
+                return new Validator(Integer.parseInt(parts[0]), Long.parseLong(parts[1]), parts[2]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
 }
@@ -48,6 +48,11 @@ public class DigestUtil {
         return digest.digest();
     }
 
+    private static byte[] createChecksum(final byte[] bytes) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA1");
+        return digest.digest(bytes);
+    }
+
     private static String getHexString(final byte[] raw) throws UnsupportedEncodingException {
         byte[] hex = new byte[2 * raw.length];
         int index = 0;
@@ -67,4 +72,8 @@ public class DigestUtil {
     public static String getSHA1Checksum(final File file) throws NoSuchAlgorithmException, IOException {
         return getHexString(createChecksum(file));
     }
+
+    public static String getSHA1Checksum(final byte[] bytes) throws NoSuchAlgorithmException, IOException {
+        return getHexString(createChecksum(bytes));
+    }
 }
@@ -19,20 +19,29 @@ import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.regex.Pattern;
 
 /**
  * Helper class for handling ISO 8601 strings of the following format:
- * "2008-03-01T13:00:00+01:00". It also supports parsing the "Z" timezone.
+ * "2008-03-01T13:00:00+01:00". It also supports parsing the "Z" timezone, the timezone without colon (for example:
+ * "2008-03-01T13:00:00.000+0100") and the time with or without the milliseconds.
  */
 public final class ISO8601Util {
 
+    private static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+    private static final String PATTERN_WITHOUT_MILLIS = "yyyy-MM-dd'T'HH:mm:ssZ";
+
+    private static final Pattern TIMEZONE_WITH_COLON = Pattern.compile("([+-]\\d{2}):(\\d{2})$");
+
     /**
      * Transform Calendar to ISO 8601 string.
      */
     public static String fromCalendar(final Calendar calendar) {
         Date date = calendar.getTime();
-        String formatted = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").format(date);
-        return formatted.substring(0, 22) + ":" + formatted.substring(22);
+        String formatted = new SimpleDateFormat(PATTERN).format(date);
+        int length = formatted.length();
+        return formatted.substring(0, length - 2) + ":" + formatted.substring(length - 2);
     }
 
     /**
@@ -47,14 +56,16 @@ public final class ISO8601Util {
      */
     public static Calendar toCalendar(final String iso8601string)
             throws ParseException {
-        Calendar calendar = GregorianCalendar.getInstance();
-        String s = iso8601string.replace("Z", "+00:00");
-        try {
-            s = s.substring(0, 22) + s.substring(23);
-        } catch (IndexOutOfBoundsException e) {
+        if (iso8601string == null || iso8601string.length() < 20)
             throw new ParseException("Invalid length", 0);
-        }
-        Date date = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").parse(s);
+
+        Calendar calendar = GregorianCalendar.getInstance();
+        String s = iso8601string.trim();
+        if (s.endsWith("Z"))
+            s = s.substring(0, s.length() - 1) + "+0000";
+        s = TIMEZONE_WITH_COLON.matcher(s).replaceFirst("$1$2");
+        String pattern = s.indexOf('.') > 0 ? PATTERN : PATTERN_WITHOUT_MILLIS;
+        Date date = new SimpleDateFormat(pattern).parse(s);
         calendar.setTime(date);
         return calendar;
     }
@@ -0,0 +1,94 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.util;
+
+import com.jayway.jsonpath.JsonPath;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Helper class to evaluate JsonPath expressions without re-parsing the same expression over and over. Every expression
+ * passed to this class will be compiled once and then shared by every subsequent call using the same expression, as
+ * long as the expression stays among the most recently used expressions.
+ */
+public class JsonPathUtil {
+
+    private static final int MAX_COMPILED_PATHS = 256;
+
+    private static final Map<String, JsonPath> COMPILED_PATHS = new LruMap(MAX_COMPILED_PATHS);
+
+    /**
+     * Get the compiled JsonPath for the expression. The compiled path will be cached and reused for the same
+     * expression, the least recently used path will be evicted once the cache holds 256 paths.
+     *
+     * @param expression the JsonPath expression
+     * @return the compiled JsonPath
+     */
+    public static JsonPath compile(final String expression) {
+        JsonPath path;
+        synchronized (COMPILED_PATHS) {
+            path = COMPILED_PATHS.get(expression);
+        }
+        if (path == null) {
+            path = JsonPath.compile(expression);
+            synchronized (COMPILED_PATHS) {
+                COMPILED_PATHS.put(expression, path);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Evaluate the expression against the json string.
+     *
+     * @param json       the json string
+     * @param expression the JsonPath expression
+     * @return the value of the expression
+     */
+    public static <T> T read(final String json, final String expression) {
+        return compile(expression).<T>read(json);
+    }
+
+    /**
+     * Evaluate the expression against the parsed json object.
+     *
+     * @param json       the parsed json object
+     * @param expression the JsonPath expression
+     * @return the value of the expression
+     */
+    public static <T> T read(final Object json, final String expression) {
+        return compile(expression).<T>read(json);
+    }
+
+    /**
+     * Access ordered map evicting the least recently used entry once it holds more than <code>size</code> entries.
+     */
+    private static class LruMap extends LinkedHashMap<String, JsonPath> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int size;
+
+        private LruMap(final int size) {
+            super(16, 0.75f, true);
+            this.size = size;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, JsonPath> eldest) {
+            return size() > size;
+        }
+    }
+}
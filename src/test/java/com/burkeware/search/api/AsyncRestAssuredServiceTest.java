@@ -0,0 +1,263 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api;
+
+import com.burkeware.search.api.async.Callback;
+import com.burkeware.search.api.async.Task;
+import com.burkeware.search.api.module.UnitTestModule;
+import com.burkeware.search.api.resource.Resource;
+import com.burkeware.search.api.sample.SampleUtil;
+import com.burkeware.search.api.sample.domain.Patient;
+import com.google.inject.AbstractModule;
+import com.google.inject.Module;
+import com.google.inject.name.Names;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class AsyncRestAssuredServiceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AsyncRestAssuredService service;
+
+    /**
+     * Every test gets its own local repository, so the objects written by one test will not leak into the following
+     * tests or the following runs.
+     */
+    @Before
+    public void prepare() throws Exception {
+        prepare(createModule());
+    }
+
+    private Module createModule() {
+        return new UnitTestModule(new File(folder.getRoot(), "index").getPath());
+    }
+
+    private void prepare(final Module... modules) throws Exception {
+        Context.initialize(modules);
+        SampleUtil.registerSamples();
+
+        service = Context.getAsyncService();
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        service.close();
+    }
+
+    /**
+     * Callback recording the result or the failure of an asynchronous operation.
+     */
+    private static class RecordingCallback<T> implements Callback<T> {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private final AtomicReference<T> result = new AtomicReference<T>();
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        @Override
+        public void onSuccess(final T result) {
+            this.result.set(result);
+            latch.countDown();
+        }
+
+        @Override
+        public void onFailure(final Throwable throwable) {
+            this.failure.set(throwable);
+            latch.countDown();
+        }
+
+        private void await() throws InterruptedException {
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * @verifies execute the task and notify the callback with the result
+     * @see AsyncRestAssuredService#submit(com.burkeware.search.api.async.Task, com.burkeware.search.api.async.Callback)
+     */
+    @Test
+    public void submit_shouldExecuteTheTaskAndNotifyTheCallbackWithTheResult() throws Exception {
+        final Resource resource = Context.getResource("Patient Resource");
+        final List<Patient> patients = SampleUtil.createPatients("Asyncarius", 3);
+        RecordingCallback<Integer> callback = new RecordingCallback<Integer>();
+        Future<Integer> future = service.submit(new Task<Integer>() {
+            @Override
+            public Integer execute(final RestAssuredService service) throws Exception {
+                service.createObjects(patients, resource);
+                return service.count("name: Asyncarius*", Patient.class);
+            }
+        }, callback);
+
+        Assert.assertEquals(Integer.valueOf(3), future.get());
+        callback.await();
+        Assert.assertEquals(Integer.valueOf(3), callback.result.get());
+        Assert.assertNull(callback.failure.get());
+    }
+
+    /**
+     * @verifies notify the callback with the exception thrown by the task
+     * @see AsyncRestAssuredService#submit(com.burkeware.search.api.async.Task, com.burkeware.search.api.async.Callback)
+     */
+    @Test
+    public void submit_shouldNotifyTheCallbackWithTheExceptionThrownByTheTask() throws Exception {
+        RecordingCallback<Object> callback = new RecordingCallback<Object>();
+        Future<Object> future = service.submit(new Task<Object>() {
+            @Override
+            public Object execute(final RestAssuredService service) throws Exception {
+                throw new IOException("Unable to reach the server.");
+            }
+        }, callback);
+
+        try {
+            future.get();
+            Assert.fail("The future should throw the exception thrown by the task.");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+        callback.await();
+        Assert.assertTrue(callback.failure.get() instanceof IOException);
+        Assert.assertNull(callback.result.get());
+    }
+
+    /**
+     * @verifies not interrupt the running task when the future is cancelled
+     * @see AsyncRestAssuredService#submit(com.burkeware.search.api.async.Task, com.burkeware.search.api.async.Callback)
+     */
+    @Test
+    public void submit_shouldNotInterruptTheRunningTaskWhenTheFutureIsCancelled() throws Exception {
+        final Resource resource = Context.getResource("Patient Resource");
+        final List<Patient> patients = SampleUtil.createPatients("Cancelarius", 3);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        RecordingCallback<Integer> callback = new RecordingCallback<Integer>();
+        Future<Integer> future = service.submit(new Task<Integer>() {
+            @Override
+            public Integer execute(final RestAssuredService service) throws Exception {
+                started.countDown();
+                try {
+                    cancelled.await();
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                interrupted.compareAndSet(false, Thread.currentThread().isInterrupted());
+                service.createObjects(patients, resource);
+                return patients.size();
+            }
+        }, callback);
+
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(future.cancel(true));
+        cancelled.countDown();
+        callback.await();
+        Assert.assertTrue(callback.failure.get() instanceof CancellationException);
+
+        // the cancelled task keeps running, and closing the service waits for it
+        service.close();
+        Assert.assertFalse(interrupted.get());
+        Assert.assertEquals(3, service.count("name: Cancelarius*", Patient.class, null).get().intValue());
+    }
+
+    /**
+     * @verifies return the objects matching the search string and class
+     * @see AsyncRestAssuredService#getObjects(String, Class, com.burkeware.search.api.async.Callback)
+     */
+    @Test
+    public void getObjects_shouldReturnTheObjectsMatchingTheSearchStringAndClass() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Futurarius", 2);
+        service.createObjects(patients, resource, null).get();
+
+        RecordingCallback<List<Patient>> callback = new RecordingCallback<List<Patient>>();
+        List<Patient> foundPatients = service.getObjects("name: Futurarius*", Patient.class, callback).get();
+        Assert.assertEquals(2, foundPatients.size());
+        callback.await();
+        Assert.assertSame(foundPatients, callback.result.get());
+    }
+
+    /**
+     * @verifies complete the submitted operations before closing the local repository
+     * @see AsyncRestAssuredService#close()
+     */
+    @Test
+    public void close_shouldCompleteTheSubmittedOperationsBeforeClosingTheLocalRepository() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Closearius", 3);
+        Future<List<Object>> future = service.createObjects(patients, resource, null);
+        service.close();
+
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals(3, service.count("name: Closearius*", Patient.class, null).get().intValue());
+    }
+
+    /**
+     * @verifies wait for the operations submitted to the configured executor
+     * @see AsyncRestAssuredService#close()
+     */
+    @Test
+    public void close_shouldWaitForTheOperationsSubmittedToTheConfiguredExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            service.close();
+            prepare(createModule(), new AbstractModule() {
+                @Override
+                protected void configure() {
+                    bind(ExecutorService.class).annotatedWith(Names.named("configuration.async.executor"))
+                            .toInstance(executor);
+                }
+            });
+
+            final Resource resource = Context.getResource("Patient Resource");
+            final List<Patient> patients = SampleUtil.createPatients("Configurarius", 3);
+            final CountDownLatch started = new CountDownLatch(1);
+            Future<Integer> future = service.submit(new Task<Integer>() {
+                @Override
+                public Integer execute(final RestAssuredService service) throws Exception {
+                    started.countDown();
+                    Thread.sleep(200);
+                    service.createObjects(patients, resource);
+                    return patients.size();
+                }
+            }, null);
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            service.close();
+
+            Assert.assertTrue(future.isDone());
+            Assert.assertFalse(executor.isShutdown());
+            Assert.assertEquals(3, service.count("name: Configurarius*", Patient.class, null).get().intValue());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -14,30 +14,69 @@
 
 package com.burkeware.search.api;
 
+import com.burkeware.search.api.internal.lucene.DefaultIndexer;
+import com.burkeware.search.api.internal.lucene.Indexer;
+import com.burkeware.search.api.internal.provider.DirectoryProvider;
 import com.burkeware.search.api.module.UnitTestModule;
+import com.burkeware.search.api.query.Order;
+import com.burkeware.search.api.query.Page;
+import com.burkeware.search.api.query.QueryBuilder;
+import com.burkeware.search.api.resolver.DeltaResolver;
+import com.burkeware.search.api.resolver.PagingResolver;
+import com.burkeware.search.api.resolver.Resolver;
+import com.burkeware.search.api.resource.ObjectResource;
 import com.burkeware.search.api.resource.Resource;
-import com.burkeware.search.api.sample.algorithm.CohortAlgorithm;
-import com.burkeware.search.api.sample.algorithm.CohortMemberAlgorithm;
-import com.burkeware.search.api.sample.algorithm.ObservationAlgorithm;
+import com.burkeware.search.api.sample.SampleUtil;
 import com.burkeware.search.api.sample.algorithm.PatientAlgorithm;
 import com.burkeware.search.api.sample.domain.Cohort;
 import com.burkeware.search.api.sample.domain.Observation;
 import com.burkeware.search.api.sample.domain.Patient;
-import com.burkeware.search.api.sample.resolver.CohortMemberResolver;
-import com.burkeware.search.api.sample.resolver.CohortResolver;
-import com.burkeware.search.api.sample.resolver.ObservationResolver;
-import com.burkeware.search.api.sample.resolver.PatientResolver;
+import com.burkeware.search.api.util.DigestUtil;
 import com.burkeware.search.api.util.StringUtil;
+import com.google.inject.AbstractModule;
+import com.google.inject.Module;
+import com.google.inject.name.Names;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
 import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 public class RestAssuredServiceTest {
 
@@ -49,37 +88,87 @@ public class RestAssuredServiceTest {
 
     public static final String FILE_PATIENT_NAME = "Testarius Ambote Indakasi";
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private ServiceContext serviceContext;
 
     private RestAssuredService service;
 
+    /**
+     * Every test gets its own local repository, so the objects and the commit user data written by one test will not
+     * leak into the following tests or the following runs.
+     */
     @Before
     public void prepare() throws Exception {
+        prepare(createModule());
+    }
 
-        Context.initialize(new UnitTestModule());
-        // register classes for the testing (algorithms, resolver, object)
-        Context.registerAlgorithm(PatientAlgorithm.class, CohortAlgorithm.class, CohortMemberAlgorithm.class,
-                ObservationAlgorithm.class);
-        Context.registerResolver(PatientResolver.class, CohortResolver.class, CohortMemberResolver.class,
-                ObservationResolver.class);
-        Context.registerObject(Patient.class, Cohort.class, Observation.class);
+    private Module createModule() {
+        return new UnitTestModule(getIndexDirectory().getPath());
+    }
 
-        URL j2l = RestAssuredService.class.getResource("sample/j2l");
-        Context.registerResources(new File(j2l.getPath()));
+    private File getIndexDirectory() {
+        return new File(folder.getRoot(), "index");
+    }
 
-        service = Context.getService();
+    /**
+     * Re-initialize the service with the object cache turned on.
+     */
+    private void prepareCache() throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Integer.class).annotatedWith(Names.named("configuration.lucene.cache.size")).toInstance(10);
+            }
+        });
     }
 
     /**
-     * @verifies load objects based on the resource description
-     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource)
+     * Get the user data of the last commit in the local repository.
      */
-    @Test
-    public void loadObjects_shouldLoadObjectsBasedOnTheResourceDescription() throws Exception {
+    private Map<String, String> getCommitUserData() throws IOException {
+        Directory directory = FSDirectory.open(getIndexDirectory());
+        try {
+            return IndexReader.getCommitUserData(directory);
+        } finally {
+            directory.close();
+        }
+    }
+
+    /**
+     * Get the generation of the last commit in the local repository, every commit increments the generation and the
+     * generation is zero until the first commit.
+     */
+    private long getCommitGeneration() throws IOException {
+        Directory directory = FSDirectory.open(getIndexDirectory());
+        try {
+            return Math.max(SegmentInfos.getLastCommitGeneration(directory), 0);
+        } finally {
+            directory.close();
+        }
+    }
 
-        Resource resource = null;
+    private void prepare(final Module... modules) throws Exception {
+
+        Context.initialize(modules);
+        // register classes for the testing (algorithms, resolver, object)
+        SampleUtil.registerSamples();
 
-        resource = Context.getResource("Cohort Resource");
+        service = Context.getService();
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        service.close();
+    }
+
+    /**
+     * Load the cohorts, the cohort members and their observations from the REST resources.
+     */
+    private void loadRestObjects() throws Exception {
+        Resource resource = Context.getResource("Cohort Resource");
         Assert.assertNotNull(resource);
         service.loadObjects(StringUtil.EMPTY, resource);
         List<Cohort> cohorts = service.getObjects(StringUtil.EMPTY, Cohort.class);
@@ -94,6 +183,15 @@ public class RestAssuredServiceTest {
                 service.loadObjects(patient.getUuid(), resource);
             }
         }
+    }
+
+    /**
+     * @verifies load objects based on the resource description
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void loadObjects_shouldLoadObjectsBasedOnTheResourceDescription() throws Exception {
+        loadRestObjects();
 
         List<Patient> patients = service.getObjects("name:A*", Patient.class);
         Assert.assertNotNull(patients);
@@ -108,6 +206,183 @@ public class RestAssuredServiceTest {
         Assert.assertEquals(Patient.class, patient.getClass());
     }
 
+    /**
+     * @verifies load all pages when the resolver is a paging resolver
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void loadObjects_shouldLoadAllPagesWhenTheResolverIsAPagingResolver() throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Integer.class).annotatedWith(Names.named("configuration.rest.page.size")).toInstance(2);
+                bind(Integer.class).annotatedWith(Names.named("configuration.rest.page.requests")).toInstance(3);
+            }
+        });
+        List<Patient> patients = SampleUtil.createPatients("Pagingarius", 5);
+        PageResolver resolver = new PageResolver("Pagingarius", patients);
+        Resource resource = createSyncResource("Paging Resource", resolver);
+
+        service.loadObjects(StringUtil.EMPTY, resource);
+        Assert.assertEquals(patients.size(), service.count("name: Pagingarius*", resource));
+        // the third page returns a single patient, so the empty page following it is the last page
+        Assert.assertTrue(resolver.startIndexes.containsAll(Arrays.asList(0, 2, 4, 5)));
+        Assert.assertEquals(new HashSet<Integer>(resolver.startIndexes).size(), resolver.startIndexes.size());
+    }
+
+    /**
+     * @verifies load all pages when the server returns less objects than the page size
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void loadObjects_shouldLoadAllPagesWhenTheServerReturnsLessObjectsThanThePageSize() throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Integer.class).annotatedWith(Names.named("configuration.rest.page.size")).toInstance(4);
+                bind(Integer.class).annotatedWith(Names.named("configuration.rest.page.requests")).toInstance(3);
+            }
+        });
+        List<Patient> patients = SampleUtil.createPatients("Cappedarius", 10);
+        PageResolver resolver = new PageResolver("Cappedarius", patients, 3);
+        Resource resource = createSyncResource("Capped Resource", resolver);
+
+        service.loadObjects(StringUtil.EMPTY, resource);
+        Assert.assertEquals(patients.size(), service.count("name: Cappedarius*", resource));
+        // every page returns at most 3 patients, so the pages requested ahead leave gaps which are requested later
+        Assert.assertTrue(resolver.startIndexes.containsAll(Arrays.asList(0, 3, 4, 7, 8, 10)));
+        Assert.assertEquals(new HashSet<Integer>(resolver.startIndexes).size(), resolver.startIndexes.size());
+    }
+
+    /**
+     * @verifies skip indexing when the rest resource is not modified
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void loadObjects_shouldSkipIndexingWhenTheRestResourceIsNotModified() throws Exception {
+        List<Integer> responses = Collections.synchronizedList(new ArrayList<Integer>());
+        HttpServer server = startValidatorServer("Validatorarius", responses);
+        try {
+            Resource resource = createUriResource("Validator Resource", server, "/patient");
+
+            service.loadObjects(StringUtil.EMPTY, resource);
+            String query = "name: " + StringUtil.quote("Validatorarius0 Ambote Indakasi");
+            Patient patient = service.getObject(query, Patient.class);
+            Assert.assertNotNull(patient);
+
+            // the unchanged resource is not indexed again, so the invalidated patient stays out of the repository
+            service.invalidate(patient, resource);
+            service.loadObjects(StringUtil.EMPTY, resource);
+            Assert.assertNull(service.getObject(query, Patient.class));
+            Assert.assertEquals(Arrays.asList(HttpURLConnection.HTTP_OK, HttpURLConnection.HTTP_NOT_MODIFIED),
+                    responses);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * @verifies keep the validators of every loaded uri
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void loadObjects_shouldKeepTheValidatorsOfEveryLoadedUri() throws Exception {
+        List<Integer> responses = Collections.synchronizedList(new ArrayList<Integer>());
+        HttpServer server = startValidatorServer("Validatorarius", responses);
+        try {
+            service.loadObjects(StringUtil.EMPTY, createUriResource("Validator Resource", server, "/patient"));
+            service.loadObjects(StringUtil.EMPTY, createUriResource("Validator Resource", server, "/patient?v=1"));
+            // loading the second uri keeps the validators of the first uri
+            service.loadObjects(StringUtil.EMPTY, createUriResource("Validator Resource", server, "/patient"));
+            service.loadObjects(StringUtil.EMPTY, createUriResource("Validator Resource", server, "/patient?v=1"));
+            Assert.assertEquals(Arrays.asList(HttpURLConnection.HTTP_OK, HttpURLConnection.HTTP_OK,
+                    HttpURLConnection.HTTP_NOT_MODIFIED, HttpURLConnection.HTTP_NOT_MODIFIED), responses);
+
+            // the validators are internal documents, so the commit user data doesn't grow with the number of uris
+            service.close();
+            for (String key : getCommitUserData().keySet())
+                Assert.assertFalse(key.startsWith("validator"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * @verifies download the rest resource when the recorded validators are malformed
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void loadObjects_shouldDownloadTheRestResourceWhenTheRecordedValidatorsAreMalformed() throws Exception {
+        List<Integer> responses = Collections.synchronizedList(new ArrayList<Integer>());
+        HttpServer server = startValidatorServer("Malformedarius", responses);
+        try {
+            Resource resource = createUriResource("Validator Resource", server, "/patient");
+            String uri = resource.getResolver().resolve(StringUtil.EMPTY);
+            String validatorKey = "validator|" + DigestUtil.getSHA1Checksum(uri.getBytes("UTF-8"));
+            Indexer indexer = Context.getInstance(Indexer.class);
+            indexer.putDigest(resource, validatorKey, "malformed");
+            service.loadObjects(StringUtil.EMPTY, resource);
+
+            Assert.assertNotNull(indexer.getDigest(resource, validatorKey));
+            indexer.putDigest(resource, validatorKey, "many|never|\"Malformedarius\"");
+            service.loadObjects(StringUtil.EMPTY, resource);
+
+            String query = "name: " + StringUtil.quote("Malformedarius0 Ambote Indakasi");
+            Assert.assertNotNull(service.getObject(query, Patient.class));
+            Assert.assertEquals(Arrays.asList(HttpURLConnection.HTTP_OK, HttpURLConnection.HTTP_OK), responses);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Start the http server returning a single patient from any path with an <code>ETag</code>, and responding with
+     * <code>304 Not Modified</code> when the request carries the same <code>ETag</code>.
+     */
+    private HttpServer startValidatorServer(final String prefix, final List<Integer> responses) throws IOException {
+        final String etag = "\"" + prefix + "\"";
+        final byte[] payload = gzip(SampleUtil.createPatients(prefix, 1).get(0).getJson());
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/patient", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                Assert.assertEquals("gzip", exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+                } else {
+                    exchange.getResponseHeaders().set("ETag", etag);
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                    exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, payload.length);
+                    exchange.getResponseBody().write(payload);
+                }
+                responses.add(exchange.getResponseCode());
+                exchange.close();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    /**
+     * Create the resource loading the patient from the <code>path</code> of the http server.
+     */
+    private Resource createUriResource(final String name, final HttpServer server, final String path) {
+        final String uri = "http://localhost:" + server.getAddress().getPort() + path;
+        return createSyncResource(name, new Resolver() {
+            @Override
+            public String resolve(final String searchString) {
+                return uri;
+            }
+
+            @Override
+            public URLConnection authenticate(final URLConnection connection) {
+                return connection;
+            }
+        });
+    }
+
     /**
      * @verifies load object from filesystem based on the resource description
      * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource, java.io.File)
@@ -133,12 +408,240 @@ public class RestAssuredServiceTest {
         Assert.assertEquals(Patient.class, patient.getClass());
     }
 
+    /**
+     * @verifies skip files which are not changed since the last load
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource, java.io.File)
+     */
+    @Test
+    public void loadObjects_shouldSkipFilesWhichAreNotChangedSinceTheLastLoad() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Checksumarius", 2);
+        File file = SampleUtil.writeJson(folder.getRoot(), "Checksumarius", patients.get(0).getJson());
+        service.loadObjects(StringUtil.EMPTY, resource, file);
+
+        String query = "name: " + StringUtil.quote("Checksumarius0 Ambote Indakasi");
+        Patient patient = service.getObject(query, Patient.class);
+        Assert.assertNotNull(patient);
+
+        // the unchanged file will not be loaded again, so the invalidated patient stays out of the repository
+        service.invalidate(patient, resource);
+        service.loadObjects(StringUtil.EMPTY, resource, file);
+        Assert.assertNull(service.getObject(query, Patient.class));
+
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(patients.get(1).getJson());
+        } finally {
+            writer.close();
+        }
+        service.loadObjects(StringUtil.EMPTY, resource, file);
+        query = "name: " + StringUtil.quote("Checksumarius1 Ambote Indakasi");
+        patient = service.getObject(query, Patient.class);
+        Assert.assertNotNull(patient);
+
+        // the checksum is persisted in the local repository, but not in the user data carried by every commit
+        service.close();
+        Map<String, String> userData = getCommitUserData();
+        for (Map.Entry<String, String> entry : userData.entrySet())
+            Assert.assertFalse(entry.getKey().contains(file.getPath()));
+        prepare();
+        resource = Context.getResource("Patient Resource");
+        service.invalidate(patient, resource);
+        service.loadObjects(StringUtil.EMPTY, resource, file);
+        Assert.assertNull(service.getObject(query, Patient.class));
+    }
+
+    /**
+     * @verifies not rewrite objects which are not changed
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource, java.io.File)
+     */
+    @Test
+    public void loadObjects_shouldNotRewriteObjectsWhichAreNotChanged() throws Exception {
+        // the cached objects are keyed using the indexed document, so a rewritten object will not be served from it
+        prepareCache();
+        Resource resource = Context.getResource("Patient Resource");
+        String json = SampleUtil.createPatients("Digestarius", 1).get(0).getJson();
+        service.loadObjects(StringUtil.EMPTY, resource, SampleUtil.writeJson(folder.getRoot(), "Digestarius", json));
+
+        String query = "name: " + StringUtil.quote("Digestarius0 Ambote Indakasi");
+        Patient patient = service.getObject(query, Patient.class);
+        Assert.assertNotNull(patient);
+
+        // the same object from a different file keeps the indexed document, so the cached object is returned
+        service.loadObjects(StringUtil.EMPTY, resource, SampleUtil.writeJson(folder.getRoot(), "Digestarius", json));
+        Assert.assertSame(patient, service.getObject(query, Patient.class));
+        Assert.assertEquals(1, service.count(query, resource));
+    }
+
+    /**
+     * @verifies rewrite objects which are not changed when the resource definition changed
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource, java.io.File)
+     */
+    @Test
+    public void loadObjects_shouldRewriteObjectsWhichAreNotChangedWhenTheResourceDefinitionChanged() throws Exception {
+        String json = SampleUtil.createPatients("Fingerprintarius", 1).get(0).getJson();
+        Resource resource = createSyncResource("Fingerprint Resource", null);
+        service.loadObjects(StringUtil.EMPTY, resource, SampleUtil.writeJson(folder.getRoot(), "Fingerprint", json));
+        Assert.assertEquals(1, service.count("name: Fingerprintarius*", resource));
+
+        // the same json is indexed again once the resource got a new searchable field
+        Resource changedResource = createSyncResource("Fingerprint Resource", null);
+        changedResource.addFieldDefinition("identifier", "$.identifiers[0].identifier", false);
+        service.loadObjects(StringUtil.EMPTY, changedResource,
+                SampleUtil.writeJson(folder.getRoot(), "Fingerprint", json));
+        Assert.assertEquals(1, service.count("identifier: 363MO-5", changedResource));
+        Assert.assertEquals(1, service.count("name: Fingerprintarius*", changedResource));
+    }
+
+    /**
+     * @verifies load objects using the indexing pipeline
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource, java.io.File)
+     */
+    @Test
+    public void loadObjects_shouldLoadObjectsUsingTheIndexingPipeline() throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Integer.class).annotatedWith(Names.named("configuration.lucene.pipeline.threads")).toInstance(2);
+                bind(Integer.class).annotatedWith(Names.named("configuration.lucene.pipeline.queue.size"))
+                        .toInstance(1);
+            }
+        });
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Pipelinearius", 8);
+        File file = SampleUtil.writeJson(folder.getRoot(), "Pipelinearius", SampleUtil.toJsonArray(patients));
+        service.loadObjects(StringUtil.EMPTY, resource, file);
+
+        // the queue holds a single element, so reading the payload waits for the indexing threads
+        Assert.assertEquals(patients.size(), service.count("name: Pipelinearius*", Patient.class));
+
+        // the following payloads borrow the indexing threads of the shared pipeline executor
+        patients = SampleUtil.createPatients("Streamarius", 4);
+        file = SampleUtil.writeJson(folder.getRoot(), "Streamarius", SampleUtil.toJsonArray(patients));
+        service.loadObjects(StringUtil.EMPTY, resource, file);
+        Assert.assertEquals(patients.size(), service.count("name: Streamarius*", Patient.class));
+
+        List<Thread> pipelineThreads = new ArrayList<Thread>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("restassured-pipeline-"))
+                pipelineThreads.add(thread);
+        }
+        Assert.assertFalse(pipelineThreads.isEmpty());
+        service.close();
+        for (Thread thread : pipelineThreads) {
+            thread.join(10000);
+            Assert.assertFalse(thread.isAlive());
+        }
+    }
+
+    /**
+     * @verifies keep the local repository usable when the indexing pipeline fails
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource, java.io.File)
+     */
+    @Test
+    public void loadObjects_shouldKeepTheLocalRepositoryUsableWhenTheIndexingPipelineFails() throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                // the nio directory closes its file channel when a thread is interrupted during the index I/O
+                bind(String.class).annotatedWith(Names.named("configuration.lucene.directory.type")).toInstance("nio");
+                bind(Integer.class).annotatedWith(Names.named("configuration.lucene.pipeline.threads")).toInstance(2);
+                bind(Integer.class).annotatedWith(Names.named("configuration.lucene.pipeline.queue.size"))
+                        .toInstance(1);
+            }
+        });
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Failingarius", 20);
+        Patient patient = patients.get(10);
+        patient.setJson(patient.getJson().replace("\"display\":" + StringUtil.quote(patient.getName()),
+                "\"display\":null"));
+        File file = SampleUtil.writeJson(folder.getRoot(), "Failingarius", SampleUtil.toJsonArray(patients));
+        try {
+            service.loadObjects(StringUtil.EMPTY, resource, file);
+            Assert.fail("The payload with an object without value for the unique field should fail.");
+        } catch (ParseException e) {
+            // the other indexing thread is stopped before the failure is thrown
+        }
+
+        patients = SampleUtil.createPatients("Intactarius", 5);
+        file = SampleUtil.writeJson(folder.getRoot(), "Intactarius", SampleUtil.toJsonArray(patients));
+        service.loadObjects(StringUtil.EMPTY, resource, file);
+        Assert.assertEquals(patients.size(), service.count("name: Intactarius*", Patient.class));
+        Assert.assertTrue(service.count("name: Failingarius*", Patient.class) < 20);
+    }
+
+    /**
+     * @verifies keep the local repository usable when a file of the directory fails
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource, java.io.File)
+     */
+    @Test
+    public void loadObjects_shouldKeepTheLocalRepositoryUsableWhenAFileOfTheDirectoryFails() throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(String.class).annotatedWith(Names.named("configuration.lucene.directory.type")).toInstance("nio");
+                bind(Integer.class).annotatedWith(Names.named("configuration.lucene.ingest.threads")).toInstance(2);
+            }
+        });
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Ingestarius", 40);
+        Patient patient = patients.get(1);
+        patient.setJson(patient.getJson().replace("\"display\":" + StringUtil.quote(patient.getName()),
+                "\"display\":null"));
+        File directory = folder.newFolder("ingest");
+        for (Patient ingestPatient : patients)
+            SampleUtil.writeJson(directory, "Ingestarius", ingestPatient.getJson());
+        try {
+            service.loadObjects(StringUtil.EMPTY, resource, directory);
+            Assert.fail("The directory with an object without value for the unique field should fail.");
+        } catch (ParseException e) {
+            // the files in progress are loaded before the failure is thrown, the other files are skipped
+        }
+
+        patients = SampleUtil.createPatients("Intactarius", 3);
+        File file = SampleUtil.writeJson(folder.getRoot(), "Intactarius", SampleUtil.toJsonArray(patients));
+        service.loadObjects(StringUtil.EMPTY, resource, file);
+        Assert.assertEquals(patients.size(), service.count("name: Intactarius*", Patient.class));
+    }
+
+    /**
+     * @verifies store malformed numeric values without indexing them
+     * @see RestAssuredService#loadObjects(String, com.burkeware.search.api.resource.Resource, java.io.File)
+     */
+    @Test
+    public void loadObjects_shouldStoreMalformedNumericValuesWithoutIndexingThem() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Malformarius", 5);
+        Patient patient = patients.get(1);
+        patient.setJson(patient.getJson().replaceAll("\"age\":\\d+", "\"age\":\"unknown\"")
+                .replaceAll("\"birthdate\":\"[^\"]*\"", "\"birthdate\":\"yesterday\""));
+        // a fraction or a value out of the int range is malformed as well, it's never truncated or wrapped
+        patients.get(3).setJson(patients.get(3).getJson().replaceAll("\"age\":\\d+", "\"age\":47.5"));
+        patients.get(4).setJson(patients.get(4).getJson().replaceAll("\"age\":\\d+", "\"age\":3000000000"));
+        File file = SampleUtil.writeJson(folder.getRoot(), "Malformarius", SampleUtil.toJsonArray(patients));
+        service.loadObjects(StringUtil.EMPTY, resource, file);
+
+        Assert.assertEquals(5, service.count("name: Malformarius*", resource));
+        Assert.assertEquals(2, service.count("name: Malformarius* AND age:[* TO *]", resource));
+        Assert.assertEquals(4, service.count("name: Malformarius* AND birthdate:[1900-01-01 TO 2100-12-31]",
+                resource));
+        String searchString = "name: " + StringUtil.quote("Malformarius1 Ambote Indakasi");
+        List<Map<String, String>> values = service.getValues(searchString, Patient.class, 0, 10, "age", "birthdate");
+        Assert.assertEquals(1, values.size());
+        Assert.assertEquals("unknown", values.get(0).get("age"));
+        Assert.assertEquals("yesterday", values.get(0).get("birthdate"));
+    }
+
     /**
      * @verifies return object with matching key and type
      * @see RestAssuredService#getObject(String, Class)
      */
     @Test
     public void getObject_shouldReturnObjectWithMatchingKeyAndType() throws Exception {
+        loadRestObjects();
         Patient patient = service.getObject(StringUtil.quote(REST_PATIENT_UUID), Patient.class);
         Assert.assertNotNull(patient);
         Assert.assertEquals(Patient.class, patient.getClass());
@@ -161,6 +664,8 @@ public class RestAssuredServiceTest {
      */
     @Test(expected = IOException.class)
     public void getObject_shouldThrowIOExceptionIfTheKeyAndClassUnableToReturnUniqueObject() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        service.createObjects(SampleUtil.createPatients("Ambiguarius", 2), resource);
         Patient patient = service.getObject("name:A*", Patient.class);
         Assert.assertNull(patient);
     }
@@ -171,7 +676,7 @@ public class RestAssuredServiceTest {
      */
     @Test
     public void getObject_shouldReturnObjectWithMatchingKey() throws Exception {
-
+        loadRestObjects();
         Resource resource = Context.getResource("Cohort Member Resource");
         Patient patient = (Patient) service.getObject(StringUtil.quote(REST_PATIENT_UUID), resource);
         Assert.assertNotNull(patient);
@@ -184,6 +689,7 @@ public class RestAssuredServiceTest {
      */
     @Test
     public void getObject_shouldReturnNullWhenNoObjectMatchTheKey() throws Exception {
+        loadRestObjects();
         Patient patient;
         Resource resource;
 
@@ -203,6 +709,7 @@ public class RestAssuredServiceTest {
      */
     @Test(expected = IOException.class)
     public void getObject_shouldThrowIOExceptionIfTheKeyAndResourceUnableToReturnUniqueObject() throws Exception {
+        loadRestObjects();
         Resource resource = Context.getResource("Cohort Member Resource");
         Patient patient = (Patient) service.getObject("name:A*", resource);
         Assert.assertNull(patient);
@@ -214,6 +721,7 @@ public class RestAssuredServiceTest {
      */
     @Test
     public void getObjects_shouldReturnAllObjectMatchingTheSearchSearchStringAndClass() throws Exception {
+        loadRestObjects();
         List<Patient> patients = service.getObjects("name:Ab*", Patient.class);
         Assert.assertNotNull(patients);
         Assert.assertTrue(patients.size() > 0);
@@ -240,6 +748,7 @@ public class RestAssuredServiceTest {
      */
     @Test
     public void getObjects_shouldReturnAllObjectMatchingTheSearchSearchStringAndResource() throws Exception {
+        loadRestObjects();
         Resource resource = Context.getResource("Cohort Member Resource");
         List<Object> patients = service.getObjects("name:Ab*", resource);
         Assert.assertNotNull(patients);
@@ -268,6 +777,7 @@ public class RestAssuredServiceTest {
      */
     @Test
     public void invalidate_shouldRemoveAnObjectFromTheInternalIndexSystem() throws Exception {
+        loadRestObjects();
         Patient patient = service.getObject(StringUtil.quote(REST_PATIENT_UUID), Patient.class);
         Assert.assertNotNull(patient);
         Assert.assertEquals(Patient.class, patient.getClass());
@@ -280,4 +790,902 @@ public class RestAssuredServiceTest {
         Patient afterDeletionPatient = service.getObject(StringUtil.quote(REST_PATIENT_UUID), Patient.class);
         Assert.assertNull(afterDeletionPatient);
     }
+
+    /**
+     * @verifies commit pending changes and release the local repository
+     * @see RestAssuredService#close()
+     */
+    @Test
+    public void close_shouldCommitPendingChangesAndReleaseTheLocalRepository() throws Exception {
+        URL corpus = RestAssuredService.class.getResource("sample/corpus/TestariusAmboteIndakasi1.txt");
+        Resource resource = Context.getResource("Patient Resource");
+        service.loadObjects(StringUtil.EMPTY, resource, new File(corpus.getPath()));
+        service.close();
+
+        // re-initialize everything to make sure the data is read back from the persisted index
+        prepare();
+        Patient patient = service.getObject("name: " + StringUtil.quote("Testarius1 Ambote Indakasi"), Patient.class);
+        Assert.assertNotNull(patient);
+        Assert.assertEquals(Patient.class, patient.getClass());
+    }
+
+    /**
+     * @verifies commit the pending writes once the commit threshold is reached
+     * @see RestAssuredService#createObject(Object, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void createObject_shouldCommitThePendingWritesOnceTheCommitThresholdIsReached() throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Integer.class).annotatedWith(Names.named("configuration.lucene.commit.threshold")).toInstance(3);
+            }
+        });
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Thresholdarius", 4);
+        long generation = getCommitGeneration();
+        for (Patient patient : patients.subList(0, 2))
+            service.createObject(patient, resource);
+        // the pending writes are searchable before they are committed
+        Assert.assertEquals(generation, getCommitGeneration());
+        Assert.assertEquals(2, service.count("name: Thresholdarius*", resource));
+
+        service.createObject(patients.get(2), resource);
+        Assert.assertEquals(generation + 1, getCommitGeneration());
+        service.createObject(patients.get(3), resource);
+        Assert.assertEquals(generation + 1, getCommitGeneration());
+
+        // closing the service commits the write below the threshold
+        service.close();
+        Assert.assertEquals(generation + 2, getCommitGeneration());
+    }
+
+    /**
+     * @verifies commit the pending writes once the commit interval expires without further writes
+     * @see RestAssuredService#createObject(Object, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void createObject_shouldCommitThePendingWritesOnceTheCommitIntervalExpiresWithoutFurtherWrites()
+            throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Integer.class).annotatedWith(Names.named("configuration.lucene.commit.threshold")).toInstance(100);
+                bind(Long.class).annotatedWith(Names.named("configuration.lucene.commit.interval")).toInstance(500L);
+            }
+        });
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Intervalarius", 2);
+        // the first write could find the interval already expired since the service was prepared
+        service.createObject(patients.get(0), resource);
+        long generation = getCommitGeneration();
+        service.createObject(patients.get(1), resource);
+        Assert.assertEquals(generation, getCommitGeneration());
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (getCommitGeneration() == generation && System.currentTimeMillis() < deadline)
+            Thread.sleep(50);
+        Assert.assertEquals(generation + 1, getCommitGeneration());
+    }
+
+    /**
+     * @verifies throw ParseException when the object have no value for a unique field
+     * @see RestAssuredService#createObject(Object, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void createObject_shouldThrowParseExceptionWhenTheObjectHaveNoValueForAUniqueField() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Namelessarius", 2);
+        for (Patient patient : patients) {
+            patient.setJson(patient.getJson().replace("\"display\":" + StringUtil.quote(patient.getName()),
+                    "\"display\":null"));
+            try {
+                service.createObject(patient, resource);
+                Assert.fail("The object without value for the unique field should be rejected.");
+            } catch (ParseException e) {
+                // the object shouldn't be written using the key of the other nameless object
+            }
+        }
+        Assert.assertEquals(0, service.count("uuid: " + StringUtil.quote(patients.get(0).getUuid()), resource));
+    }
+
+    /**
+     * @verifies create all objects in the internal index system
+     * @see RestAssuredService#createObjects(java.util.Collection, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void createObjects_shouldCreateAllObjectsInTheInternalIndexSystem() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Createarius", 5);
+        long generation = getCommitGeneration();
+        List<Object> createdPatients = service.createObjects(patients, resource);
+        Assert.assertEquals(patients.size(), createdPatients.size());
+        // all objects are written using a single commit
+        Assert.assertEquals(generation + 1, getCommitGeneration());
+        for (Patient patient : patients) {
+            Patient createdPatient = service.getObject("name: " + StringUtil.quote(patient.getName()), Patient.class);
+            Assert.assertNotNull(createdPatient);
+            Assert.assertEquals(patient.getName(), createdPatient.getName());
+        }
+    }
+
+    /**
+     * @verifies update all objects in the internal index system
+     * @see RestAssuredService#updateObjects(java.util.Collection, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void updateObjects_shouldUpdateAllObjectsInTheInternalIndexSystem() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Updatearius", 5);
+        long generation = getCommitGeneration();
+        service.updateObjects(patients, resource);
+        service.updateObjects(patients, resource);
+        Assert.assertEquals(generation + 2, getCommitGeneration());
+        for (Patient patient : patients) {
+            List<Patient> updatedPatients =
+                    service.getObjects("name: " + StringUtil.quote(patient.getName()), Patient.class);
+            Assert.assertEquals(1, updatedPatients.size());
+        }
+    }
+
+    /**
+     * @verifies remove all objects from the internal index system
+     * @see RestAssuredService#invalidateObjects(java.util.Collection, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void invalidateObjects_shouldRemoveAllObjectsFromTheInternalIndexSystem() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Invalidatearius", 5);
+        service.createObjects(patients, resource);
+        List<Object> deletedPatients = service.invalidateObjects(patients, resource);
+        Assert.assertEquals(patients.size(), deletedPatients.size());
+        for (Patient patient : patients) {
+            Patient deletedPatient = service.getObject("name: " + StringUtil.quote(patient.getName()), Patient.class);
+            Assert.assertNull(deletedPatient);
+        }
+    }
+
+    /**
+     * @verifies return objects within the offset and limit window
+     * @see RestAssuredService#getObjects(String, Class, int, int)
+     */
+    @Test
+    public void getObjects_shouldReturnObjectsWithinTheOffsetAndLimitWindow() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Offsetarius", 30);
+        service.createObjects(patients, resource);
+
+        List<Patient> firstPatients = service.getObjects("name: Offsetarius*", Patient.class, 0, 25);
+        Assert.assertEquals(25, firstPatients.size());
+        List<Patient> lastPatients = service.getObjects("name: Offsetarius*", Patient.class, 25, 25);
+        Assert.assertEquals(5, lastPatients.size());
+        for (Patient patient : lastPatients)
+            Assert.assertFalse(SampleUtil.getNames(firstPatients).contains(patient.getName()));
+    }
+
+    /**
+     * @verifies return all objects page by page using the cursor
+     * @see RestAssuredService#getObjects(String, Class, com.burkeware.search.api.query.Cursor, int)
+     */
+    @Test
+    public void getObjects_shouldReturnAllObjectsPageByPageUsingTheCursor() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Cursorarius", 30);
+        service.createObjects(patients, resource);
+
+        Set<String> names = new HashSet<String>();
+        Page<Patient> page = service.getObjects("name: Cursorarius*", Patient.class, null, 7);
+        Assert.assertEquals(30, page.getTotalHits());
+        names.addAll(SampleUtil.getNames(page.getObjects()));
+        while (page.hasNext()) {
+            page = service.getObjects("name: Cursorarius*", Patient.class, page.getCursor(), 7);
+            names.addAll(SampleUtil.getNames(page.getObjects()));
+        }
+        Assert.assertEquals(30, names.size());
+    }
+
+    /**
+     * @verifies return the remaining objects when the local repository changed between pages
+     * @see RestAssuredService#getObjects(String, Class, com.burkeware.search.api.query.Cursor, int)
+     */
+    @Test
+    public void getObjects_shouldReturnTheRemainingObjectsWhenTheLocalRepositoryChangedBetweenPages() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Shiftarius", 30);
+        service.createObjects(patients, resource);
+
+        Page<Patient> page = service.getObjects("name: Shiftarius*", Patient.class, null, 7);
+        List<String> names = new ArrayList<String>(SampleUtil.getNames(page.getObjects()));
+        // rewriting the objects renumbers the documents used by the cursor of the first page
+        service.updateObjects(patients, resource);
+        while (page.hasNext()) {
+            page = service.getObjects("name: Shiftarius*", Patient.class, page.getCursor(), 7);
+            names.addAll(SampleUtil.getNames(page.getObjects()));
+        }
+        Assert.assertEquals(30, names.size());
+        Assert.assertEquals(30, new HashSet<String>(names).size());
+    }
+
+    /**
+     * @verifies return empty page when the limit is not positive
+     * @see RestAssuredService#getObjects(String, Class, com.burkeware.search.api.query.Cursor, int)
+     */
+    @Test
+    public void getObjects_shouldReturnEmptyPageWhenTheLimitIsNotPositive() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        service.createObjects(SampleUtil.createPatients("Emptyarius", 3), resource);
+
+        Page<Patient> page = service.getObjects("name: Emptyarius*", Patient.class, null, 0);
+        Assert.assertTrue(page.getObjects().isEmpty());
+        Assert.assertFalse(page.hasNext());
+        Assert.assertEquals(3, page.getTotalHits());
+    }
+
+    /**
+     * @verifies iterate over all objects matching the search string and class
+     * @see RestAssuredService#iterateObjects(String, Class)
+     */
+    @Test
+    public void iterateObjects_shouldIterateOverAllObjectsMatchingTheSearchStringAndClass() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Iteratearius", 45);
+        service.createObjects(patients, resource);
+
+        Set<String> names = new HashSet<String>();
+        for (Patient patient : service.iterateObjects("name: Iteratearius*", Patient.class))
+            names.add(patient.getName());
+        Assert.assertEquals(45, names.size());
+    }
+
+    /**
+     * @verifies return object matching the query and type
+     * @see RestAssuredService#getObject(org.apache.lucene.search.Query, Class)
+     */
+    @Test
+    public void getObject_shouldReturnObjectMatchingTheQueryAndType() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Queryarius", 3);
+        service.createObjects(patients, resource);
+
+        QueryBuilder builder = Context.getQueryBuilder();
+        Patient patient = service.getObject(builder.term("name", "Queryarius1 Ambote Indakasi"), Patient.class);
+        Assert.assertNotNull(patient);
+        Assert.assertEquals("Queryarius1 Ambote Indakasi", patient.getName());
+
+        Patient missingPatient = service.getObject(builder.term("name", "Queryarius9 Ambote Indakasi"), Patient.class);
+        Assert.assertNull(missingPatient);
+    }
+
+    /**
+     * @verifies throw IOException if the query and class unable to return unique object
+     * @see RestAssuredService#getObject(org.apache.lucene.search.Query, Class)
+     */
+    @Test(expected = IOException.class)
+    public void getObject_shouldThrowIOExceptionIfTheQueryAndClassUnableToReturnUniqueObject() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Ambiguarius", 3);
+        service.createObjects(patients, resource);
+        service.getObject(Context.getQueryBuilder().prefix("name", "Ambiguarius"), Patient.class);
+    }
+
+    /**
+     * @verifies return objects with matching keys and type
+     * @see RestAssuredService#getObjectsByKeys(java.util.Collection, Class)
+     */
+    @Test
+    public void getObjectsByKeys_shouldReturnObjectsWithMatchingKeysAndType() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Bulkarius", 5);
+        service.createObjects(patients, resource);
+
+        List<String> keys = Arrays.asList("Bulkarius3 Ambote Indakasi", "Bulkarius9 Ambote Indakasi",
+                "Bulkarius0 Ambote Indakasi", "Bulkarius3 Ambote Indakasi");
+        Map<String, Patient> objects = service.getObjectsByKeys(keys, Patient.class);
+        Assert.assertEquals(Arrays.asList("Bulkarius3 Ambote Indakasi", "Bulkarius0 Ambote Indakasi"),
+                new ArrayList<String>(objects.keySet()));
+        for (Map.Entry<String, Patient> entry : objects.entrySet())
+            Assert.assertEquals(entry.getKey(), entry.getValue().getName());
+    }
+
+    /**
+     * @verifies throw IOException if a key and class unable to return unique object
+     * @see RestAssuredService#getObjectsByKeys(java.util.Collection, Class)
+     */
+    @Test(expected = IOException.class)
+    public void getObjectsByKeys_shouldThrowIOExceptionIfAKeyAndClassUnableToReturnUniqueObject() throws Exception {
+        Resource patientResource = Context.getResource("Patient Resource");
+        Resource memberResource = Context.getResource("Cohort Member Resource");
+        Patient patient = SampleUtil.createPatients("Duplicarius", 1).get(0);
+        // the cohort member is keyed using the uuid, so using the patient name as the uuid will collide with the key
+        // of the patient indexed using the patient resource
+        String json = patient.getJson().replace("\"uuid\":\"" + patient.getUuid() + "\"",
+                "\"uuid\":\"" + patient.getName() + "\"");
+        Patient member = SampleUtil.createCohortMember(json);
+        service.createObject(patient, patientResource);
+        service.createObject(member, memberResource);
+        service.getObjectsByKeys(Arrays.asList(patient.getName()), Patient.class);
+    }
+
+    /**
+     * @verifies return objects with matching keys
+     * @see RestAssuredService#getObjectsByKeys(java.util.Collection, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void getObjectsByKeys_shouldReturnObjectsWithMatchingKeys() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Keyarius", 5);
+        service.createObjects(patients, resource);
+
+        List<String> keys = service.getKeys("name: Keyarius*", resource, 0, 10);
+        Map<String, Object> objects = service.getObjectsByKeys(keys, resource);
+        Assert.assertEquals(5, objects.size());
+        for (String key : keys)
+            Assert.assertEquals(key, ((Patient) objects.get(key)).getName());
+
+        Resource memberResource = Context.getResource("Cohort Member Resource");
+        Assert.assertTrue(service.getObjectsByKeys(keys, memberResource).isEmpty());
+    }
+
+    /**
+     * @verifies return the cached object until the object is updated
+     * @see RestAssuredService#getObject(org.apache.lucene.search.Query, Class)
+     */
+    @Test
+    public void getObject_shouldReturnTheCachedObjectUntilTheObjectIsUpdated() throws Exception {
+        prepareCache();
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Cachearius", 1);
+        service.createObjects(patients, resource);
+
+        Query query = Context.getQueryBuilder().term("name", "Cachearius0 Ambote Indakasi");
+        Patient patient = service.getObject(query, Patient.class);
+        Assert.assertNotNull(patient);
+        Assert.assertSame(patient, service.getObject(query, Patient.class));
+
+        service.updateObject(patients.get(0), resource);
+        Patient updatedPatient = service.getObject(query, Patient.class);
+        Assert.assertNotNull(updatedPatient);
+        Assert.assertNotSame(patient, updatedPatient);
+    }
+
+    /**
+     * @verifies return objects stored using any payload codec
+     * @see RestAssuredService#getObject(org.apache.lucene.search.Query, Class)
+     */
+    @Test
+    public void getObject_shouldReturnObjectsStoredUsingAnyPayloadCodec() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> plainPatients = SampleUtil.createPatients("Plainarius", 1);
+        service.createObjects(plainPatients, resource);
+        service.close();
+
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(String.class).annotatedWith(Names.named("configuration.lucene.payload.codec"))
+                        .toInstance(DefaultIndexer.PAYLOAD_CODEC_DEFLATE);
+            }
+        });
+        resource = Context.getResource("Patient Resource");
+        List<Patient> deflatePatients = SampleUtil.createPatients("Deflatearius", 1);
+        service.createObjects(deflatePatients, resource);
+
+        QueryBuilder builder = Context.getQueryBuilder();
+        Patient plainPatient = service.getObject(builder.term("name", "Plainarius0 Ambote Indakasi"), Patient.class);
+        Assert.assertNotNull(plainPatient);
+        Assert.assertEquals(plainPatients.get(0).getUuid(), plainPatient.getUuid());
+        Patient deflatePatient =
+                service.getObject(builder.term("name", "Deflatearius0 Ambote Indakasi"), Patient.class);
+        Assert.assertNotNull(deflatePatient);
+        Assert.assertEquals(deflatePatients.get(0).getUuid(), deflatePatient.getUuid());
+    }
+
+    /**
+     * @verifies search all resources of the class when the index is partitioned per resource
+     * @see RestAssuredService#getObjects(String, Class)
+     */
+    @Test
+    public void getObjects_shouldSearchAllResourcesOfTheClassWhenTheIndexIsPartitionedPerResource() throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(String.class).annotatedWith(Names.named("configuration.lucene.index.layout"))
+                        .toInstance(DefaultIndexer.INDEX_LAYOUT_RESOURCE);
+                bind(String.class).annotatedWith(Names.named("configuration.lucene.directory.type"))
+                        .toInstance(DirectoryProvider.DIRECTORY_TYPE_RAM);
+            }
+        });
+        Resource patientResource = Context.getResource("Patient Resource");
+        Resource memberResource = Context.getResource("Cohort Member Resource");
+        List<Patient> patients = SampleUtil.createPatients("Partitionarius", 2);
+        Patient member = SampleUtil.createCohortMember(SampleUtil.createPatients("Memberarius", 1).get(0).getJson());
+        service.createObjects(patients, patientResource);
+        service.createObject(member, memberResource);
+
+        String searchString = "name: Partitionarius* OR name: Memberarius*";
+        List<String> names = SampleUtil.getNames(service.getObjects(searchString, Patient.class));
+        Assert.assertEquals(3, names.size());
+        Assert.assertTrue(names.contains("Memberarius0 Ambote Indakasi"));
+        Assert.assertEquals(2, service.count(searchString, patientResource));
+        Assert.assertEquals(1, service.count(searchString, memberResource));
+
+        List<String> keys = Arrays.asList(patients.get(1).getName(), member.getUuid());
+        Assert.assertEquals(keys, new ArrayList<String>(service.getObjectsByKeys(keys, Patient.class).keySet()));
+
+        service.invalidate(member, memberResource);
+        Assert.assertEquals(2, service.count(searchString, Patient.class));
+    }
+
+    /**
+     * @verifies keep the partitions of resources apart when the names only differ by special characters
+     * @see RestAssuredService#getObjects(String, Class)
+     */
+    @Test
+    public void getObjects_shouldKeepThePartitionsOfResourcesApartWhenTheNamesOnlyDifferBySpecialCharacters()
+            throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(String.class).annotatedWith(Names.named("configuration.lucene.index.layout"))
+                        .toInstance(DefaultIndexer.INDEX_LAYOUT_RESOURCE);
+            }
+        });
+        // both names would be written to the same directory if only the special characters were replaced
+        Resource slashResource = createSyncResource("Partition/Resource", null);
+        Resource spaceResource = createSyncResource("Partition Resource", null);
+        service.createObjects(SampleUtil.createPatients("Slasharius", 2), slashResource);
+        service.createObjects(SampleUtil.createPatients("Spacearius", 3), spaceResource);
+
+        String searchString = "name: Slasharius* OR name: Spacearius*";
+        Assert.assertEquals(2, service.count(searchString, slashResource));
+        Assert.assertEquals(3, service.count(searchString, spaceResource));
+        Assert.assertEquals(5, service.count(searchString, Patient.class));
+    }
+
+    /**
+     * @verifies return objects within the numeric and date range
+     * @see RestAssuredService#getObjects(String, Class)
+     */
+    @Test
+    public void getObjects_shouldReturnObjectsWithinTheNumericAndDateRange() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Rangearius", 4);
+        for (int i = 0; i < patients.size(); i++) {
+            // ages 9, 15, 21 and 27 will be sorted differently as text and as number
+            Patient patient = patients.get(i);
+            String json = patient.getJson().replaceAll("\"age\":\\d+", "\"age\":" + (9 + i * 6));
+            json = json.replaceAll("\"birthdate\":\"\\d{4}", "\"birthdate\":\"" + (2000 + i));
+            patient.setJson(json);
+        }
+        service.createObjects(patients, resource);
+
+        String searchString = "name: Rangearius* AND age:[10 TO 24]";
+        List<String> names = SampleUtil.getNames(service.getObjects(searchString, Patient.class));
+        Assert.assertEquals(2, names.size());
+        Assert.assertTrue(names.contains("Rangearius1 Ambote Indakasi"));
+        Assert.assertTrue(names.contains("Rangearius2 Ambote Indakasi"));
+        Assert.assertEquals(1, service.getObjects("name: Rangearius* AND age:27", Patient.class).size());
+        Assert.assertEquals(3, service.getObjects("name: Rangearius* AND age:[15 TO *]", Patient.class).size());
+
+        searchString = "name: Rangearius* AND birthdate:[2001-01-01 TO 2002-12-31]";
+        Assert.assertEquals(2, service.getObjects(searchString, Patient.class).size());
+
+        QueryBuilder builder = Context.getQueryBuilder();
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2002, Calendar.JANUARY, 1);
+        Query query = builder.and(builder.prefix("name", "Rangearius"),
+                builder.range("birthdate", calendar.getTime(), null, true, true));
+        Assert.assertEquals(2, service.getObjects(query, Patient.class).size());
+        query = builder.and(builder.prefix("name", "Rangearius"), builder.range("age", 20, 30, true, true));
+        Assert.assertEquals(2, service.getObjects(query, Patient.class).size());
+    }
+
+    /**
+     * @verifies return objects sorted using the sort orders
+     * @see RestAssuredService#getObjects(String, Class, int, int, com.burkeware.search.api.query.Order...)
+     */
+    @Test
+    public void getObjects_shouldReturnObjectsSortedUsingTheSortOrders() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Sortarius", 4);
+        int[] ages = {27, 9, 21, 9};
+        for (int i = 0; i < patients.size(); i++) {
+            Patient patient = patients.get(i);
+            patient.setJson(patient.getJson().replaceAll("\"age\":\\d+", "\"age\":" + ages[i]));
+        }
+        service.createObjects(patients, resource);
+
+        List<Patient> sortedPatients = service.getObjects("name: Sortarius*", Patient.class, 0, 10, Order.desc("name"));
+        List<String> names = SampleUtil.getNames(sortedPatients);
+        Assert.assertEquals(Arrays.asList("Sortarius3 Ambote Indakasi", "Sortarius2 Ambote Indakasi",
+                "Sortarius1 Ambote Indakasi", "Sortarius0 Ambote Indakasi"), names);
+
+        // ages are sorted as numbers and the ties are broken using the name
+        Query query = Context.getQueryBuilder().prefix("name", "Sortarius");
+        sortedPatients = service.getObjects(query, Patient.class, 0, 10, Order.asc("age"), Order.asc("name"));
+        names = SampleUtil.getNames(sortedPatients);
+        Assert.assertEquals(Arrays.asList("Sortarius1 Ambote Indakasi", "Sortarius3 Ambote Indakasi",
+                "Sortarius2 Ambote Indakasi", "Sortarius0 Ambote Indakasi"), names);
+
+        sortedPatients = service.getObjects(query, Patient.class, 1, 2, Order.desc("age"), Order.asc("name"));
+        names = SampleUtil.getNames(sortedPatients);
+        Assert.assertEquals(Arrays.asList("Sortarius2 Ambote Indakasi", "Sortarius1 Ambote Indakasi"), names);
+    }
+
+    /**
+     * @verifies throw ParseException when the sort order use non sortable field
+     * @see RestAssuredService#getObjects(String, Class, int, int, com.burkeware.search.api.query.Order...)
+     */
+    @Test(expected = com.burkeware.search.api.exception.ParseException.class)
+    public void getObjects_shouldThrowParseExceptionWhenTheSortOrderUseNonSortableField() throws Exception {
+        service.getObjects("name: Sortarius*", Patient.class, 0, 10, Order.asc("gender"));
+    }
+
+    /**
+     * @verifies return the number of objects matching the search string and class
+     * @see RestAssuredService#count(String, Class)
+     */
+    @Test
+    public void count_shouldReturnTheNumberOfObjectsMatchingTheSearchStringAndClass() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Countarius", 25);
+        service.createObjects(patients, resource);
+
+        // more objects than the default search limit are counted
+        Assert.assertEquals(25, service.count("name: Countarius*", Patient.class));
+        Assert.assertEquals(25, service.count(Context.getQueryBuilder().prefix("name", "Countarius"), resource));
+        Assert.assertEquals(0, service.count("name: Countarius*", Cohort.class));
+
+        service.invalidateObjects(patients, resource);
+        Assert.assertEquals(0, service.count("name: Countarius*", Patient.class));
+    }
+
+    /**
+     * @verifies return true only when any object match the search string and class
+     * @see RestAssuredService#exists(String, Class)
+     */
+    @Test
+    public void exists_shouldReturnTrueOnlyWhenAnyObjectMatchTheSearchStringAndClass() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Existarius", 1);
+        service.createObjects(patients, resource);
+
+        String searchString = "name: " + StringUtil.quote("Existarius0 Ambote Indakasi");
+        Assert.assertTrue(service.exists(searchString, Patient.class));
+        Assert.assertFalse(service.exists(searchString, Cohort.class));
+
+        service.invalidateObjects(patients, resource);
+        Assert.assertFalse(service.exists(searchString, Patient.class));
+    }
+
+    /**
+     * @verifies return only the values of the selected fields
+     * @see RestAssuredService#getValues(String, Class, int, int, String...)
+     */
+    @Test
+    public void getValues_shouldReturnOnlyTheValuesOfTheSelectedFields() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Projectarius", 3);
+        service.createObjects(patients, resource);
+
+        List<Map<String, String>> values = service.getValues("name: Projectarius*", Patient.class, 0, 10, "name",
+                "uuid");
+        Assert.assertEquals(3, values.size());
+        Set<String> names = new HashSet<String>();
+        for (Map<String, String> value : values) {
+            Assert.assertEquals(Arrays.asList("name", "uuid"), new ArrayList<String>(value.keySet()));
+            Assert.assertNotNull(value.get("uuid"));
+            names.add(value.get("name"));
+        }
+        Assert.assertEquals(new HashSet<String>(SampleUtil.getNames(patients)), names);
+    }
+
+    /**
+     * @verifies return the keys of the matching objects
+     * @see RestAssuredService#getKeys(String, com.burkeware.search.api.resource.Resource, int, int)
+     */
+    @Test
+    public void getKeys_shouldReturnTheKeysOfTheMatchingObjects() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Keyarius", 3);
+        service.createObjects(patients, resource);
+
+        List<String> keys = service.getKeys("name: Keyarius*", resource, 0, 10);
+        Assert.assertEquals(new HashSet<String>(SampleUtil.getNames(patients)), new HashSet<String>(keys));
+        Assert.assertEquals(1, service.getKeys("name: Keyarius*", resource, 2, 10).size());
+
+        // every key can be used to get the object back
+        for (String key : keys)
+            Assert.assertNotNull(service.getObject("name: " + StringUtil.quote(key), resource));
+    }
+
+    /**
+     * @verifies return all object matching the query and class
+     * @see RestAssuredService#getObjects(org.apache.lucene.search.Query, Class)
+     */
+    @Test
+    public void getObjects_shouldReturnAllObjectMatchingTheQueryAndClass() throws Exception {
+        Resource resource = Context.getResource("Patient Resource");
+        List<Patient> patients = SampleUtil.createPatients("Builderarius", 5);
+        service.createObjects(patients, resource);
+
+        QueryBuilder builder = Context.getQueryBuilder();
+        Query query = builder.and(builder.prefix("name", "Builderarius"),
+                builder.not(builder.term("name", "Builderarius0")));
+        List<Patient> foundPatients = service.getObjects(query, Patient.class);
+        Assert.assertEquals(4, foundPatients.size());
+        Assert.assertFalse(SampleUtil.getNames(foundPatients).contains("Builderarius0 Ambote Indakasi"));
+
+        query = builder.or(builder.phrase("name", "Builderarius1 Ambote"),
+                builder.phrase("name", "Builderarius2 Ambote"));
+        Assert.assertEquals(2, service.getObjects(query, Patient.class).size());
+    }
+
+    /**
+     * @verifies allow concurrent searches while objects are written
+     * @see RestAssuredService#getObjects(org.apache.lucene.search.Query, Class)
+     */
+    @Test
+    public void getObjects_shouldAllowConcurrentSearchesWhileObjectsAreWritten() throws Exception {
+        final Resource resource = Context.getResource("Patient Resource");
+        final List<Patient> patients = SampleUtil.createPatients("Concurrentarius", 20);
+        final Query query = Context.getQueryBuilder().prefix("name", "Concurrentarius");
+
+        ExecutorService executorService = Executors.newFixedThreadPool(5);
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        futures.add(executorService.submit(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                for (Patient patient : patients)
+                    service.createObject(patient, resource);
+                return null;
+            }
+        }));
+        for (int i = 0; i < 4; i++) {
+            futures.add(executorService.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    for (int j = 0; j < 50; j++)
+                        Assert.assertTrue(service.getObjects(query, Patient.class).size() <= patients.size());
+                    return null;
+                }
+            }));
+        }
+        for (Future<Object> future : futures)
+            future.get();
+        executorService.shutdown();
+
+        Assert.assertEquals(patients.size(), service.getObjects(query, resource).size());
+    }
+
+    /**
+     * @verifies load all objects on the first synchronization
+     * @see RestAssuredService#syncObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void syncObjects_shouldLoadAllObjectsOnTheFirstSynchronization() throws Exception {
+        SyncResolver resolver = new SyncResolver("Firstsyncarius");
+        Resource resource = createSyncResource("First Sync Resource", resolver);
+
+        service.syncObjects(resource);
+        Assert.assertNull(resolver.since);
+        String query = "name: " + StringUtil.quote("Firstsyncarius0 Ambote Indakasi");
+        Assert.assertNotNull(service.getObject(query, resource));
+    }
+
+    /**
+     * @verifies only load the changed objects on the following synchronization
+     * @see RestAssuredService#syncObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void syncObjects_shouldOnlyLoadTheChangedObjectsOnTheFollowingSynchronization() throws Exception {
+        SyncResolver resolver = new SyncResolver("Nextsyncarius");
+        Resource resource = createSyncResource("Next Sync Resource", resolver);
+
+        service.syncObjects(resource);
+        service.syncObjects(resource);
+        Assert.assertNotNull(resolver.since);
+        String query = "name: " + StringUtil.quote("Nextsyncarius1 Ambote Indakasi");
+        Assert.assertNotNull(service.getObject(query, resource));
+
+        // the watermark must survive closing the local repository
+        service.close();
+        resolver.since = null;
+        service.syncObjects(resource);
+        Assert.assertNotNull(resolver.since);
+    }
+
+    /**
+     * @verifies load all objects when the recorded synchronization time is malformed
+     * @see RestAssuredService#syncObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void syncObjects_shouldLoadAllObjectsWhenTheRecordedSynchronizationTimeIsMalformed() throws Exception {
+        SyncResolver resolver = new SyncResolver("Malformedsyncarius");
+        Resource resource = createSyncResource("Malformed Sync Resource", resolver);
+        service.syncObjects(resource);
+
+        Context.getInstance(Indexer.class).putDigest(resource, "sync|", "yesterday");
+        service.syncObjects(resource);
+        Assert.assertNull(resolver.since);
+
+        // the full synchronization records a valid time again
+        service.syncObjects(resource);
+        Assert.assertNotNull(resolver.since);
+    }
+
+    /**
+     * @verifies load all pages on the first synchronization when the resolver is a paging resolver
+     * @see RestAssuredService#syncObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void syncObjects_shouldLoadAllPagesOnTheFirstSynchronizationWhenTheResolverIsAPagingResolver()
+            throws Exception {
+        service.close();
+        prepare(createModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Integer.class).annotatedWith(Names.named("configuration.rest.page.size")).toInstance(2);
+                bind(Integer.class).annotatedWith(Names.named("configuration.rest.page.requests")).toInstance(2);
+            }
+        });
+        List<Patient> patients = SampleUtil.createPatients("Pagesyncarius", 7);
+        PageResolver resolver = new PageResolver("Pagesyncarius", patients);
+        Resource resource = createSyncResource("Page Sync Resource", resolver);
+
+        service.syncObjects(resource);
+        Assert.assertEquals(patients.size(), service.count("name: Pagesyncarius*", resource));
+        Assert.assertTrue(resolver.startIndexes.containsAll(Arrays.asList(0, 2, 4, 6)));
+    }
+
+    /**
+     * @verifies keep the synchronization time in the partition of the resource
+     * @see RestAssuredService#syncObjects(String, com.burkeware.search.api.resource.Resource)
+     */
+    @Test
+    public void syncObjects_shouldKeepTheSynchronizationTimeInThePartitionOfTheResource() throws Exception {
+        Module layoutModule = new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(String.class).annotatedWith(Names.named("configuration.lucene.index.layout"))
+                        .toInstance(DefaultIndexer.INDEX_LAYOUT_RESOURCE);
+            }
+        };
+        service.close();
+        prepare(createModule(), layoutModule);
+        SyncResolver resolver = new SyncResolver("Partitionsyncarius");
+        Resource resource = createSyncResource("Partition Sync Resource", resolver);
+        service.syncObjects(resource);
+        service.close();
+
+        // removing the partition of the resource removes its objects together with the synchronization time
+        File[] partitions = getIndexDirectory().listFiles();
+        Assert.assertNotNull(partitions);
+        for (File partition : partitions) {
+            if (partition.getName().startsWith("Partition_Sync_Resource_")) {
+                for (File file : partition.listFiles())
+                    Assert.assertTrue(file.delete());
+                Assert.assertTrue(partition.delete());
+            }
+        }
+        prepare(createModule(), layoutModule);
+        resource = createSyncResource("Partition Sync Resource", resolver);
+        service.syncObjects(resource);
+        Assert.assertNull(resolver.since);
+        String query = "name: " + StringUtil.quote("Partitionsyncarius0 Ambote Indakasi");
+        Assert.assertNotNull(service.getObject(query, resource));
+    }
+
+    private Resource createSyncResource(final String name, final Resolver resolver) {
+        ObjectResource resource = new ObjectResource(name, "$", Patient.class, new PatientAlgorithm(), resolver);
+        resource.addFieldDefinition("uuid", "$.uuid", false);
+        resource.addFieldDefinition("name", "$.person.display", true);
+        Context.registerResource(resource);
+        return resource;
+    }
+
+    /**
+     * Delta resolver returning the first patient for the full load and the second patient for the delta load.
+     */
+    private class SyncResolver implements DeltaResolver {
+
+        private final String prefix;
+
+        private Date since;
+
+        private SyncResolver(final String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public String resolve(final String searchString) {
+            return writePatient(0);
+        }
+
+        @Override
+        public String resolve(final String searchString, final Date since) {
+            this.since = since;
+            return writePatient(1);
+        }
+
+        @Override
+        public URLConnection authenticate(final URLConnection connection) {
+            return connection;
+        }
+
+        private String writePatient(final int index) {
+            try {
+                String json = SampleUtil.createPatients(prefix, index + 1).get(index).getJson();
+                return SampleUtil.writeJson(folder.getRoot(), prefix, json).toURI().toString();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Paging resolver returning the patients of the requested page as a json array.
+     */
+    private class PageResolver implements PagingResolver {
+
+        private final String prefix;
+
+        private final List<Patient> patients;
+
+        private final int maxLimit;
+
+        private final List<Integer> startIndexes = Collections.synchronizedList(new ArrayList<Integer>());
+
+        private PageResolver(final String prefix, final List<Patient> patients) {
+            this(prefix, patients, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Create the resolver which returns at most <code>maxLimit</code> patients per page, whatever the requested
+         * limit is, the same way a server capping the page size would.
+         */
+        private PageResolver(final String prefix, final List<Patient> patients, final int maxLimit) {
+            this.prefix = prefix;
+            this.patients = patients;
+            this.maxLimit = maxLimit;
+        }
+
+        @Override
+        public String resolve(final String searchString) {
+            return resolve(searchString, 0, patients.size());
+        }
+
+        @Override
+        public String resolve(final String searchString, final int startIndex, final int limit) {
+            startIndexes.add(startIndex);
+            int fromIndex = Math.min(startIndex, patients.size());
+            int toIndex = Math.min(fromIndex + Math.min(limit, maxLimit), patients.size());
+            String json = SampleUtil.toJsonArray(patients.subList(fromIndex, toIndex));
+            try {
+                return SampleUtil.writeJson(folder.getRoot(), prefix, json).toURI().toString();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public URLConnection authenticate(final URLConnection connection) {
+            return connection;
+        }
+    }
+
+    private byte[] gzip(final String json) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream);
+        try {
+            gzipStream.write(json.getBytes("UTF-8"));
+        } finally {
+            gzipStream.close();
+        }
+        return outputStream.toByteArray();
+    }
 }
@@ -149,8 +149,12 @@ public class ServiceContextTest {
             Assert.assertTrue(Algorithm.class.isAssignableFrom(registeredResource.getAlgorithm().getClass()));
             Assert.assertTrue(Resolver.class.isAssignableFrom(registeredResource.getResolver().getClass()));
 
-            Assert.assertEquals(stringRegistry.getEntries().size() - ResourceConstants.NON_SEARCHABLE_FIELDS.size(),
-                    registeredResource.getSearchableFields().size());
+            int searchableFieldCount = 0;
+            for (String propertyName : stringRegistry.getEntries().keySet()) {
+                if (!ResourceConstants.NON_SEARCHABLE_FIELDS.contains(propertyName))
+                    searchableFieldCount++;
+            }
+            Assert.assertEquals(searchableFieldCount, registeredResource.getSearchableFields().size());
 
             String uniqueKey = stringRegistry.getEntryValue(ResourceConstants.RESOURCE_UNIQUE_FIELD);
             List<String> uniqueKeyFields = Arrays.asList(StringUtil.split(uniqueKey, ","));
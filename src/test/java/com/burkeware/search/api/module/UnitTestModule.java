@@ -19,13 +19,22 @@ import com.google.inject.name.Names;
 
 public class UnitTestModule extends AbstractModule {
 
+    private final String directory;
+
+    public UnitTestModule() {
+        this(System.getProperty("java.io.tmpdir"));
+    }
+
+    public UnitTestModule(final String directory) {
+        this.directory = directory;
+    }
+
     /**
      * Configures a {@link com.google.inject.Binder} via the exposed methods.
      */
     @Override
     protected void configure() {
-        String tmpDirectory = System.getProperty("java.io.tmpdir");
-        bind(String.class).annotatedWith(Names.named("configuration.lucene.directory")).toInstance(tmpDirectory);
+        bind(String.class).annotatedWith(Names.named("configuration.lucene.directory")).toInstance(directory);
         bind(String.class).annotatedWith(Names.named("configuration.lucene.document.key")).toInstance("uuid");
 
         bind(LogLevel.class).toInstance(LogLevel.DEBUG);
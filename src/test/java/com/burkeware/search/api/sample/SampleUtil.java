@@ -0,0 +1,144 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package com.burkeware.search.api.sample;
+
+import com.burkeware.search.api.Context;
+import com.burkeware.search.api.RestAssuredService;
+import com.burkeware.search.api.sample.algorithm.CohortAlgorithm;
+import com.burkeware.search.api.sample.algorithm.CohortMemberAlgorithm;
+import com.burkeware.search.api.sample.algorithm.ObservationAlgorithm;
+import com.burkeware.search.api.sample.algorithm.PatientAlgorithm;
+import com.burkeware.search.api.sample.domain.Cohort;
+import com.burkeware.search.api.sample.domain.Observation;
+import com.burkeware.search.api.sample.domain.Patient;
+import com.burkeware.search.api.sample.resolver.CohortMemberResolver;
+import com.burkeware.search.api.sample.resolver.CohortResolver;
+import com.burkeware.search.api.sample.resolver.ObservationResolver;
+import com.burkeware.search.api.sample.resolver.PatientResolver;
+import com.burkeware.search.api.util.StreamUtil;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sample objects and resources shared by the service tests.
+ */
+public class SampleUtil {
+
+    /**
+     * Register the sample algorithms, resolvers, objects and the sample j2l resources in the context.
+     *
+     * @throws IOException when the sample j2l resources can't be read.
+     */
+    public static void registerSamples() throws IOException {
+        Context.registerAlgorithm(PatientAlgorithm.class, CohortAlgorithm.class, CohortMemberAlgorithm.class,
+                ObservationAlgorithm.class);
+        Context.registerResolver(PatientResolver.class, CohortResolver.class, CohortMemberResolver.class,
+                ObservationResolver.class);
+        Context.registerObject(Patient.class, Cohort.class, Observation.class);
+
+        URL j2l = RestAssuredService.class.getResource("sample/j2l");
+        Context.registerResources(new File(j2l.getPath()));
+    }
+
+    /**
+     * Create patients from the corpus files, renaming each patient using the <code>prefix</code> so they will not
+     * collide with the patients loaded from the corpus directory.
+     *
+     * @param prefix the prefix of the patient names.
+     * @param count  the number of patients.
+     * @return the patients.
+     * @throws IOException when the corpus files can't be read.
+     */
+    public static List<Patient> createPatients(final String prefix, final int count) throws IOException {
+        List<Patient> patients = new ArrayList<Patient>();
+        PatientAlgorithm algorithm = new PatientAlgorithm();
+        for (int i = 0; i < count; i++) {
+            URL url = RestAssuredService.class.getResource("sample/corpus/TestariusAmboteIndakasi" + i + ".txt");
+            FileReader reader = new FileReader(new File(url.getPath()));
+            try {
+                String json = StreamUtil.readAsString(reader);
+                patients.add(algorithm.deserialize(json.replace("Testarius" + i + " ", prefix + i + " ")));
+            } finally {
+                reader.close();
+            }
+        }
+        return patients;
+    }
+
+    /**
+     * Create a cohort member from the json representation of a patient, the cohort member resource expects the patient
+     * to be wrapped inside the "patient" member.
+     *
+     * @param patientJson the json representation of the patient.
+     * @return the cohort member.
+     */
+    public static Patient createCohortMember(final String patientJson) {
+        return new CohortMemberAlgorithm().deserialize("{\"patient\":" + patientJson + "}");
+    }
+
+    /**
+     * Create the json array of the patients.
+     *
+     * @param patients the patients.
+     * @return the json array.
+     */
+    public static String toJsonArray(final List<Patient> patients) {
+        StringBuilder builder = new StringBuilder();
+        for (Patient patient : patients) {
+            if (builder.length() > 0)
+                builder.append(",");
+            builder.append(patient.getJson());
+        }
+        return "[" + builder + "]";
+    }
+
+    /**
+     * Write the json into a new file inside the directory.
+     *
+     * @param directory the directory of the file.
+     * @param prefix    the prefix of the file name.
+     * @param json      the json content of the file.
+     * @return the file.
+     * @throws IOException when the file can't be written.
+     */
+    public static File writeJson(final File directory, final String prefix, final String json) throws IOException {
+        File file = File.createTempFile(prefix, ".json", directory);
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(json);
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    /**
+     * Get the names of the patients.
+     *
+     * @param patients the patients.
+     * @return the names.
+     */
+    public static List<String> getNames(final List<Patient> patients) {
+        List<String> names = new ArrayList<String>();
+        for (Patient patient : patients)
+            names.add(patient.getName());
+        return names;
+    }
+}
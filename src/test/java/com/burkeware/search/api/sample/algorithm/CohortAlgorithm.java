@@ -15,7 +15,7 @@ package com.burkeware.search.api.sample.algorithm;
 
 import com.burkeware.search.api.sample.domain.Cohort;
 import com.burkeware.search.api.serialization.Algorithm;
-import com.jayway.jsonpath.JsonPath;
+import com.burkeware.search.api.util.JsonPathUtil;
 
 public class CohortAlgorithm implements Algorithm {
 
@@ -29,10 +29,10 @@ public class CohortAlgorithm implements Algorithm {
     public Object deserialize(final String serialized) {
         Cohort cohort = new Cohort();
 
-        Object jsonObject = JsonPath.read(serialized, "$");
-        String uuid = JsonPath.read(jsonObject, "$.uuid");
+        Object jsonObject = JsonPathUtil.read(serialized, "$");
+        String uuid = JsonPathUtil.read(jsonObject, "$.uuid");
         cohort.setUuid(uuid);
-        String name = JsonPath.read(jsonObject, "$.display");
+        String name = JsonPathUtil.read(jsonObject, "$.display");
         cohort.setName(name);
 
         cohort.setJson(serialized);
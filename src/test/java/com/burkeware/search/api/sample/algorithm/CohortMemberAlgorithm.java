@@ -16,7 +16,7 @@ package com.burkeware.search.api.sample.algorithm;
 
 import com.burkeware.search.api.sample.domain.Patient;
 import com.burkeware.search.api.serialization.Algorithm;
-import com.jayway.jsonpath.JsonPath;
+import com.burkeware.search.api.util.JsonPathUtil;
 
 public class CohortMemberAlgorithm implements Algorithm {
 
@@ -30,20 +30,20 @@ public class CohortMemberAlgorithm implements Algorithm {
     public Patient deserialize(final String serialized) {
         Patient patient = new Patient();
 
-        // get the full json object representation and then pass this around to the next JsonPath.read()
+        // get the full json object representation and then pass this around to the next JsonPathUtil.read()
         // this should minimize the time for the subsequent read() call
-        Object jsonObject = JsonPath.read(serialized, "$");
+        Object jsonObject = JsonPathUtil.read(serialized, "$");
 
-        String uuid = JsonPath.read(jsonObject, "$.patient.uuid");
+        String uuid = JsonPathUtil.read(jsonObject, "$.patient.uuid");
         patient.setUuid(uuid);
 
-        String name = JsonPath.read(jsonObject, "$.patient.person.display");
+        String name = JsonPathUtil.read(jsonObject, "$.patient.person.display");
         patient.setName(name);
 
-        String identifier = JsonPath.read(jsonObject, "$.patient.identifiers[0].display");
+        String identifier = JsonPathUtil.read(jsonObject, "$.patient.identifiers[0].display");
         patient.setIdentifier(identifier);
 
-        String gender = JsonPath.read(jsonObject, "$.patient.person.gender");
+        String gender = JsonPathUtil.read(jsonObject, "$.patient.person.gender");
         patient.setGender(gender);
 
         patient.setJson(serialized);
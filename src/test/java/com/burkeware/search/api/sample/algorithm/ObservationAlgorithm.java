@@ -16,7 +16,7 @@ package com.burkeware.search.api.sample.algorithm;
 import com.burkeware.search.api.sample.domain.Observation;
 import com.burkeware.search.api.serialization.Algorithm;
 import com.burkeware.search.api.util.ISO8601Util;
-import com.jayway.jsonpath.JsonPath;
+import com.burkeware.search.api.util.JsonPathUtil;
 import net.minidev.json.JSONObject;
 
 import java.text.ParseException;
@@ -33,29 +33,29 @@ public class ObservationAlgorithm implements Algorithm {
     public Object deserialize(final String serialized) {
         Observation observation = new Observation();
 
-        // get the full json object representation and then pass this around to the next JsonPath.read()
+        // get the full json object representation and then pass this around to the next JsonPathUtil.read()
         // this should minimize the time for the subsequent read() call
-        Object jsonObject = JsonPath.read(serialized, "$");
+        Object jsonObject = JsonPathUtil.read(serialized, "$");
 
-        String uuid = JsonPath.read(jsonObject, "$.uuid");
+        String uuid = JsonPathUtil.read(jsonObject, "$.uuid");
         observation.setUuid(uuid);
 
-        String patient = JsonPath.read(jsonObject, "$.person.uuid");
+        String patient = JsonPathUtil.read(jsonObject, "$.person.uuid");
         observation.setPatient(patient);
 
-        String conceptName = JsonPath.read(jsonObject, "$.concept.display");
+        String conceptName = JsonPathUtil.read(jsonObject, "$.concept.display");
         observation.setFieldName(conceptName);
 
-        String conceptUuid = JsonPath.read(jsonObject, "$.concept.uuid");
+        String conceptUuid = JsonPathUtil.read(jsonObject, "$.concept.uuid");
         observation.setFieldUuid(conceptUuid);
 
-        Object jsonValue = JsonPath.read(jsonObject, "$.value");
+        Object jsonValue = JsonPathUtil.read(jsonObject, "$.value");
         String value = jsonValue.toString();
         if (jsonValue instanceof JSONObject)
-            value = JsonPath.read(jsonValue, "$.name.display");
+            value = JsonPathUtil.read(jsonValue, "$.name.display");
         observation.setValueText(value);
 
-        String obsDatetime = JsonPath.read(jsonObject, "$.obsDatetime");
+        String obsDatetime = JsonPathUtil.read(jsonObject, "$.obsDatetime");
         try {
             observation.setObservationDate(ISO8601Util.toCalendar(obsDatetime).getTime());
         } catch (ParseException e) {
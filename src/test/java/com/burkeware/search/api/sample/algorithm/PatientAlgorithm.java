@@ -16,7 +16,7 @@ package com.burkeware.search.api.sample.algorithm;
 
 import com.burkeware.search.api.sample.domain.Patient;
 import com.burkeware.search.api.serialization.Algorithm;
-import com.jayway.jsonpath.JsonPath;
+import com.burkeware.search.api.util.JsonPathUtil;
 
 public class PatientAlgorithm implements Algorithm {
 
@@ -30,20 +30,20 @@ public class PatientAlgorithm implements Algorithm {
     public Patient deserialize(final String serialized) {
         Patient patient = new Patient();
 
-        // get the full json object representation and then pass this around to the next JsonPath.read()
+        // get the full json object representation and then pass this around to the next JsonPathUtil.read()
         // this should minimize the time for the subsequent read() call
-        Object jsonObject = JsonPath.read(serialized, "$");
+        Object jsonObject = JsonPathUtil.read(serialized, "$");
 
-        String uuid = JsonPath.read(jsonObject, "$.uuid");
+        String uuid = JsonPathUtil.read(jsonObject, "$.uuid");
         patient.setUuid(uuid);
 
-        String name = JsonPath.read(jsonObject, "$.person.display");
+        String name = JsonPathUtil.read(jsonObject, "$.person.display");
         patient.setName(name);
 
-        String identifier = JsonPath.read(jsonObject, "$.identifiers[0].identifier");
+        String identifier = JsonPathUtil.read(jsonObject, "$.identifiers[0].identifier");
         patient.setIdentifier(identifier);
 
-        String gender = JsonPath.read(jsonObject, "$.person.gender");
+        String gender = JsonPathUtil.read(jsonObject, "$.person.gender");
         patient.setGender(gender);
 
         patient.setJson(serialized);